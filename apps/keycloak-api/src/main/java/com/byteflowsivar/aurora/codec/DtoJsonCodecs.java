@@ -0,0 +1,182 @@
+package com.byteflowsivar.aurora.codec;
+
+import com.byteflowsivar.aurora.domain.User;
+import com.byteflowsivar.aurora.dto.ConstantErrorResponse;
+import com.byteflowsivar.aurora.dto.CreateUserResponse;
+import com.byteflowsivar.aurora.dto.ErrorResponse;
+import com.byteflowsivar.aurora.dto.UserExistsResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Reflection-free JSON codecs for the request and response types of the user API.
+ * Field layout and escaping match what Jackson produces for the same classes, so
+ * clients see identical payloads; property names are pre-encoded once.
+ */
+public final class DtoJsonCodecs {
+
+    private static final byte[] CREATE_USER_ID = ascii("{\"userId\":");
+    private static final byte[] CREATE_USERNAME = ascii(",\"username\":");
+    private static final byte[] CREATE_MESSAGE = ascii(",\"message\":");
+
+    private static final byte[] EXISTS_USERNAME = ascii("{\"username\":");
+    private static final byte[] EXISTS_FLAG = ascii(",\"exists\":");
+
+    private static final byte[] ERROR_MESSAGE = ascii("{\"error\":");
+    private static final byte[] ERROR_CODE = ascii(",\"errorCode\":");
+    private static final byte[] ERROR_TIMESTAMP = ascii(",\"timestamp\":");
+    private static final byte[] ERROR_TIMESTAMP_OPEN = ascii(",\"timestamp\":\"");
+    private static final byte[] STRING_OBJECT_END = ascii("\"}");
+
+    private static final byte[] OBJECT_END = ascii("}");
+    private static final byte[] UTC_SUFFIX = ascii("Z");
+
+    private static final int USER_USERNAME = 0;
+    private static final int USER_EMAIL = 1;
+    private static final int USER_FIRST_NAME = 2;
+    private static final int USER_LAST_NAME = 3;
+    private static final int USER_PASSWORD = 4;
+    private static final int USER_ENABLED = 5;
+    private static final int USER_REALM_ROLES = 6;
+    private static final int USER_GROUPS = 7;
+    private static final byte[][] USER_FIELDS = {
+        ascii("username"), ascii("email"), ascii("firstName"), ascii("lastName"), ascii("password"), ascii("enabled"),
+        ascii("realmRoles"), ascii("groups")
+    };
+
+    private static volatile SecondPrefix secondPrefix = new SecondPrefix(Long.MIN_VALUE, new byte[0]);
+
+    private DtoJsonCodecs() {
+    }
+
+    public static void write(CreateUserResponse response, JsonOutput out) {
+        out.raw(CREATE_USER_ID).string(response.userId)
+            .raw(CREATE_USERNAME).string(response.username)
+            .raw(CREATE_MESSAGE).string(response.message)
+            .raw(OBJECT_END);
+    }
+
+    public static void write(UserExistsResponse response, JsonOutput out) {
+        out.raw(EXISTS_USERNAME).string(response.username)
+            .raw(EXISTS_FLAG).bool(response.exists)
+            .raw(OBJECT_END);
+    }
+
+    public static void write(ErrorResponse response, JsonOutput out) {
+        if (response instanceof ConstantErrorResponse constant) {
+            // Only the timestamp changes between responses
+            out.raw(constant.encodedPrefix());
+            writeTimestamp(Instant.now(), out);
+            out.raw(STRING_OBJECT_END);
+            return;
+        }
+        out.raw(ERROR_MESSAGE).string(response.error)
+            .raw(ERROR_CODE).string(response.errorCode)
+            .raw(ERROR_TIMESTAMP).string(response.timestamp)
+            .raw(OBJECT_END);
+    }
+
+    /**
+     * Encodes everything of an error body up to the opening quote of its timestamp.
+     */
+    public static byte[] encodeErrorPrefix(String error, String errorCode) {
+        return new JsonOutput(64 + error.length() * 2)
+            .raw(ERROR_MESSAGE).string(error)
+            .raw(ERROR_CODE).string(errorCode)
+            .raw(ERROR_TIMESTAMP_OPEN)
+            .toByteArray();
+    }
+
+    public static User readUser(byte[] json) {
+        JsonInput in = new JsonInput(json);
+        if (in.nextIsNull()) {
+            in.endDocument();
+            return null;
+        }
+        String username = null;
+        String email = null;
+        String firstName = null;
+        String lastName = null;
+        String password = null;
+        Boolean enabled = null;
+        List<String> realmRoles = null;
+        List<String> groups = null;
+
+        in.beginObject();
+        int field;
+        while ((field = in.nextField(USER_FIELDS)) != -2) {
+            switch (field) {
+                case USER_USERNAME -> username = in.readString();
+                case USER_EMAIL -> email = in.readString();
+                case USER_FIRST_NAME -> firstName = in.readString();
+                case USER_LAST_NAME -> lastName = in.readString();
+                case USER_PASSWORD -> password = in.readString();
+                case USER_ENABLED -> enabled = in.readBoolean();
+                case USER_REALM_ROLES -> realmRoles = in.readStringList();
+                case USER_GROUPS -> groups = in.readStringList();
+                default -> in.skipValue();
+            }
+        }
+        in.endDocument();
+        return new User(username, email, firstName, lastName, password, enabled, realmRoles, groups);
+    }
+
+    public static byte[] encode(CreateUserResponse response) {
+        JsonOutput out = new JsonOutput(128);
+        write(response, out);
+        return out.toByteArray();
+    }
+
+    public static byte[] encode(UserExistsResponse response) {
+        JsonOutput out = new JsonOutput(64);
+        write(response, out);
+        return out.toByteArray();
+    }
+
+    public static byte[] encode(ErrorResponse response) {
+        JsonOutput out = new JsonOutput(160);
+        write(response, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes the same text as {@link Instant#toString()}, reusing the formatted
+     * date and time of the current second.
+     */
+    static void writeTimestamp(Instant instant, JsonOutput out) {
+        long seconds = instant.getEpochSecond();
+        SecondPrefix prefix = secondPrefix;
+        if (prefix.epochSecond != seconds) {
+            String formatted = Instant.ofEpochSecond(seconds).toString();
+            prefix = new SecondPrefix(seconds, ascii(formatted.substring(0, formatted.length() - 1)));
+            secondPrefix = prefix;
+        }
+        out.raw(prefix.text);
+        int nanos = instant.getNano();
+        if (nanos != 0) {
+            int digits;
+            int value;
+            if (nanos % 1_000_000 == 0) {
+                digits = 3;
+                value = nanos / 1_000_000;
+            } else if (nanos % 1_000 == 0) {
+                digits = 6;
+                value = nanos / 1_000;
+            } else {
+                digits = 9;
+                value = nanos;
+            }
+            out.fraction(value, digits);
+        }
+        out.raw(UTC_SUFFIX);
+    }
+
+    private record SecondPrefix(long epochSecond, byte[] text) {
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
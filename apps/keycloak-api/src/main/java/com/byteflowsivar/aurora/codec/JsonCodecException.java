@@ -0,0 +1,8 @@
+package com.byteflowsivar.aurora.codec;
+
+public class JsonCodecException extends IllegalArgumentException {
+
+    public JsonCodecException(String message) {
+        super(message);
+    }
+}
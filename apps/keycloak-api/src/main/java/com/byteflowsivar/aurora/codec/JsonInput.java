@@ -0,0 +1,371 @@
+package com.byteflowsivar.aurora.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pull parser over a UTF-8 JSON document held in memory. Field names are matched
+ * against pre-encoded byte arrays, so reading an object allocates only its values.
+ */
+public final class JsonInput {
+
+    private static final int MAX_DEPTH = 32;
+
+    private final byte[] data;
+    private final int end;
+    private int pos;
+    private boolean firstField;
+
+    public JsonInput(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    public JsonInput(byte[] data, int offset, int length) {
+        this.data = data;
+        this.pos = offset;
+        this.end = offset + length;
+    }
+
+    public boolean nextIsNull() {
+        skipWhitespace();
+        return matchLiteral("null");
+    }
+
+    public void beginObject() {
+        expect('{');
+        firstField = true;
+    }
+
+    /**
+     * Advances to the next field of the current object and returns the index of its
+     * name in {@code names}, -1 for an unknown field, or -2 at the end of the object.
+     */
+    public int nextField(byte[][] names) {
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return -2;
+        }
+        if (!firstField) {
+            expect(',');
+            skipWhitespace();
+        }
+        firstField = false;
+        expect('"');
+        int start = pos;
+        boolean escaped = false;
+        while (true) {
+            byte b = next();
+            if (b == '"') {
+                break;
+            }
+            if (b == '\\') {
+                escaped = true;
+                next();
+            }
+        }
+        int nameLength = pos - 1 - start;
+        expect(':');
+        if (!escaped) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].length == nameLength && regionEquals(start, names[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        String name = decodeString(start, nameLength);
+        for (int i = 0; i < names.length; i++) {
+            if (name.equals(new String(names[i], StandardCharsets.UTF_8))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a string value. Numbers and booleans are coerced to their text, matching
+     * the lenient scalar coercion of the Jackson configuration this replaces.
+     */
+    public String readString() {
+        skipWhitespace();
+        byte b = peek();
+        if (b == '"') {
+            pos++;
+            int start = pos;
+            boolean escaped = false;
+            while (true) {
+                byte c = next();
+                if (c == '"') {
+                    break;
+                }
+                if (c == '\\') {
+                    escaped = true;
+                    next();
+                } else if ((c & 0xFF) < 0x20) {
+                    throw error("carácter de control sin escapar");
+                }
+            }
+            int length = pos - 1 - start;
+            return escaped ? decodeString(start, length) : new String(data, start, length, StandardCharsets.UTF_8);
+        }
+        if (matchLiteral("null")) {
+            return null;
+        }
+        if (matchLiteral("true")) {
+            return "true";
+        }
+        if (matchLiteral("false")) {
+            return "false";
+        }
+        if (b == '-' || (b >= '0' && b <= '9')) {
+            int start = pos;
+            skipNumber();
+            return new String(data, start, pos - start, StandardCharsets.US_ASCII);
+        }
+        throw error("se esperaba una cadena");
+    }
+
+    public Boolean readBoolean() {
+        skipWhitespace();
+        if (matchLiteral("true")) {
+            return Boolean.TRUE;
+        }
+        if (matchLiteral("false")) {
+            return Boolean.FALSE;
+        }
+        if (matchLiteral("null")) {
+            return null;
+        }
+        if (peek() == '"') {
+            String text = readString();
+            if ("true".equalsIgnoreCase(text)) {
+                return Boolean.TRUE;
+            }
+            if ("false".equalsIgnoreCase(text)) {
+                return Boolean.FALSE;
+            }
+        }
+        throw error("se esperaba un valor booleano");
+    }
+
+    public List<String> readStringList() {
+        skipWhitespace();
+        if (matchLiteral("null")) {
+            return null;
+        }
+        expect('[');
+        List<String> values = new ArrayList<>();
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            return values;
+        }
+        while (true) {
+            values.add(readString());
+            skipWhitespace();
+            byte b = next();
+            if (b == ']') {
+                return values;
+            }
+            if (b != ',') {
+                throw error("se esperaba ',' o ']'");
+            }
+        }
+    }
+
+    public void skipValue() {
+        skipValue(0);
+    }
+
+    public void endDocument() {
+        skipWhitespace();
+        if (pos != end) {
+            throw error("contenido inesperado después del documento");
+        }
+    }
+
+    private void skipValue(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw error("anidamiento demasiado profundo");
+        }
+        skipWhitespace();
+        byte b = peek();
+        switch (b) {
+            case '"' -> readString();
+            case '{' -> {
+                pos++;
+                skipWhitespace();
+                if (peek() == '}') {
+                    pos++;
+                    return;
+                }
+                while (true) {
+                    skipWhitespace();
+                    readString();
+                    expect(':');
+                    skipValue(depth + 1);
+                    skipWhitespace();
+                    byte c = next();
+                    if (c == '}') {
+                        return;
+                    }
+                    if (c != ',') {
+                        throw error("se esperaba ',' o '}'");
+                    }
+                }
+            }
+            case '[' -> {
+                pos++;
+                skipWhitespace();
+                if (peek() == ']') {
+                    pos++;
+                    return;
+                }
+                while (true) {
+                    skipValue(depth + 1);
+                    skipWhitespace();
+                    byte c = next();
+                    if (c == ']') {
+                        return;
+                    }
+                    if (c != ',') {
+                        throw error("se esperaba ',' o ']'");
+                    }
+                }
+            }
+            default -> {
+                if (!matchLiteral("true") && !matchLiteral("false") && !matchLiteral("null")) {
+                    if (b != '-' && (b < '0' || b > '9')) {
+                        throw error("valor inesperado");
+                    }
+                    skipNumber();
+                }
+            }
+        }
+    }
+
+    private void skipNumber() {
+        int start = pos;
+        while (pos < end) {
+            byte b = data[pos];
+            if ((b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E') {
+                pos++;
+            } else {
+                break;
+            }
+        }
+        if (pos == start) {
+            throw error("número inválido");
+        }
+    }
+
+    private String decodeString(int start, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        int runStart = start;
+        int limit = start + length;
+        int i = start;
+        while (i < limit) {
+            if (data[i] != '\\') {
+                i++;
+                continue;
+            }
+            if (i > runStart) {
+                sb.append(new String(data, runStart, i - runStart, StandardCharsets.UTF_8));
+            }
+            byte e = data[i + 1];
+            switch (e) {
+                case '"' -> sb.append('"');
+                case '\\' -> sb.append('\\');
+                case '/' -> sb.append('/');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (i + 6 > limit) {
+                        throw error("secuencia de escape incompleta");
+                    }
+                    int c = 0;
+                    for (int k = i + 2; k < i + 6; k++) {
+                        int digit = Character.digit(data[k], 16);
+                        if (digit < 0) {
+                            throw error("secuencia de escape \\u inválida");
+                        }
+                        c = (c << 4) | digit;
+                    }
+                    sb.append((char) c);
+                    i += 4;
+                }
+                default -> throw error("secuencia de escape inválida");
+            }
+            i += 2;
+            runStart = i;
+        }
+        if (limit > runStart) {
+            sb.append(new String(data, runStart, limit - runStart, StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+
+    private boolean regionEquals(int start, byte[] name) {
+        for (int i = 0; i < name.length; i++) {
+            if (data[start + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matchLiteral(String literal) {
+        int n = literal.length();
+        if (pos + n > end) {
+            return false;
+        }
+        for (int i = 0; i < n; i++) {
+            if (data[pos + i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        pos += n;
+        return true;
+    }
+
+    private void expect(char c) {
+        skipWhitespace();
+        if (next() != c) {
+            throw error("se esperaba '" + c + "'");
+        }
+    }
+
+    private byte peek() {
+        if (pos >= end) {
+            throw error("fin inesperado del documento");
+        }
+        return data[pos];
+    }
+
+    private byte next() {
+        if (pos >= end) {
+            throw error("fin inesperado del documento");
+        }
+        return data[pos++];
+    }
+
+    private void skipWhitespace() {
+        while (pos < end) {
+            byte b = data[pos];
+            if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                pos++;
+            } else {
+                break;
+            }
+        }
+    }
+
+    private JsonCodecException error(String reason) {
+        return new JsonCodecException("JSON inválido en la posición " + pos + ": " + reason);
+    }
+}
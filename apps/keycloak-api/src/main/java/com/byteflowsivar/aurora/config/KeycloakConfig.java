@@ -1,17 +1,26 @@
 package com.byteflowsivar.aurora.config;
 
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.enterprise.inject.Produces;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.KeycloakBuilder;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
 @ApplicationScoped
 public class KeycloakConfig {
 
     @ConfigProperty(name = "quarkus.keycloak.admin-client.server-url")
     String serverUrl;
 
+    @ConfigProperty(name = "aurora.keycloak.server-urls")
+    Optional<List<String>> serverUrls;
+
     @ConfigProperty(name = "quarkus.keycloak.admin-client.realm")
     String realm;
 
@@ -21,15 +30,31 @@ public class KeycloakConfig {
     @ConfigProperty(name = "quarkus.keycloak.admin-client.client-secret")
     String clientSecret;
 
-    @Produces
-    @ApplicationScoped
-    public Keycloak keycloak() {
+    /**
+     * Base URLs of the Keycloak cluster nodes; the single admin-client URL when no list is configured.
+     */
+    public List<String> serverUrls() {
+        List<String> urls = serverUrls.orElse(List.of()).stream()
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .distinct()
+                .toList();
+        return urls.isEmpty() ? List.of(serverUrl) : urls;
+    }
+
+    public Keycloak newClient(String url, Duration connectTimeout, Duration readTimeout) {
+        // A hung connection must not hold the calling thread past the read timeout
+        Client httpClient = ClientBuilder.newBuilder()
+                .connectTimeout(connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
         return KeycloakBuilder.builder()
-                .serverUrl(serverUrl)
+                .serverUrl(url)
                 .realm(realm)
                 .clientId(clientId)
                 .clientSecret(clientSecret)
                 .grantType("client_credentials")
+                .resteasyClient(httpClient)
                 .build();
     }
-}
\ No newline at end of file
+}
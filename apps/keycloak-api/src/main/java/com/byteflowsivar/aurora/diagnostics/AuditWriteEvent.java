@@ -0,0 +1,17 @@
+package com.byteflowsivar.aurora.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("aurora.AuditWrite")
+@Label("Audit Write")
+@Category({"Aurora", "Audit"})
+@StackTrace(false)
+public class AuditWriteEvent extends Event {
+
+    @Label("Event Type")
+    public String eventType;
+}
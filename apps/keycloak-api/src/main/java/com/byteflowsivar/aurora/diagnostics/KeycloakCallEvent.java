@@ -0,0 +1,68 @@
+package com.byteflowsivar.aurora.diagnostics;
+
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+import jakarta.ws.rs.WebApplicationException;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One Keycloak admin call. Fields are only filled in while a recording has the
+ * event enabled, so an idle instance pays little more than the allocation.
+ */
+@Name("aurora.KeycloakCall")
+@Label("Keycloak Admin Call")
+@Category({"Aurora", "Keycloak"})
+@Description("Llamada a la API de administración de Keycloak")
+@StackTrace(false)
+public class KeycloakCallEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Realm")
+    private String realm;
+
+    @Label("HTTP Status")
+    @Description("Estado HTTP de la respuesta; 0 si no hubo respuesta")
+    private int status;
+
+    public static KeycloakCallEvent begin(String operation, String realm) {
+        KeycloakCallEvent event = new KeycloakCallEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.realm = realm;
+            event.begin();
+        }
+        return event;
+    }
+
+    public void finish(int httpStatus) {
+        if (isEnabled()) {
+            end();
+            if (shouldCommit()) {
+                status = httpStatus;
+                commit();
+            }
+        }
+    }
+
+    public void fail(Throwable error) {
+        if (isEnabled()) {
+            finish(statusOf(error));
+        }
+    }
+
+    private static int statusOf(Throwable error) {
+        if (error instanceof WebApplicationException webError && webError.getResponse() != null) {
+            return webError.getResponse().getStatus();
+        }
+        if (error instanceof KeycloakServiceException keycloakError) {
+            return keycloakError.getHttpStatus();
+        }
+        return 0;
+    }
+}
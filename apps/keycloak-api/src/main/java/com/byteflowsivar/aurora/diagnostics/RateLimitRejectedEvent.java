@@ -0,0 +1,29 @@
+package com.byteflowsivar.aurora.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("aurora.RateLimitRejected")
+@Label("Rate Limit Rejection")
+@Category({"Aurora", "Rate Limit"})
+@StackTrace(false)
+public class RateLimitRejectedEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Client")
+    public String client;
+
+    public static void emit(String operation, String client) {
+        RateLimitRejectedEvent event = new RateLimitRejectedEvent();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.client = client;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.byteflowsivar.aurora.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Spans a user validation that ended in a rejection, including custom validators.
+ */
+@Name("aurora.ValidationFailure")
+@Label("User Validation Failure")
+@Category({"Aurora", "Validation"})
+@StackTrace(false)
+public class ValidationFailureEvent extends Event {
+
+    @Label("Reason")
+    public String reason;
+}
@@ -0,0 +1,157 @@
+package com.byteflowsivar.aurora.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntPredicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A realm password policy in Keycloak's text form, e.g.
+ * {@code length(12) and digits(1) and notUsername(undefined)}. Only the rules that
+ * depend on nothing but the new password and the user are checked here; the rest
+ * (history, blacklist files, hashing settings, custom providers) are left to
+ * Keycloak and listed in {@link #unevaluated()}.
+ */
+public final class PasswordPolicy {
+
+    public static final PasswordPolicy NONE = new PasswordPolicy(List.of(), List.of());
+
+    private final List<Rule> rules;
+    private final List<String> unevaluated;
+
+    private PasswordPolicy(List<Rule> rules, List<String> unevaluated) {
+        this.rules = rules;
+        this.unevaluated = unevaluated;
+    }
+
+    public static PasswordPolicy parse(String policy) {
+        if (policy == null || policy.isBlank()) {
+            return NONE;
+        }
+        List<Rule> rules = new ArrayList<>();
+        List<String> unevaluated = new ArrayList<>();
+        // Same tokenizing as Keycloak: "id(value)" terms joined by " and "
+        for (String term : policy.split(" and ")) {
+            term = term.trim();
+            if (term.isEmpty()) {
+                continue;
+            }
+            int open = term.indexOf('(');
+            String id = (open < 0 ? term : term.substring(0, open)).trim();
+            String value = open < 0 ? null : term.substring(open + 1, Math.max(open + 1, term.lastIndexOf(')'))).trim();
+            Rule rule = rule(id, value);
+            if (rule != null) {
+                rules.add(rule);
+            } else {
+                unevaluated.add(id);
+            }
+        }
+        return new PasswordPolicy(List.copyOf(rules), Collections.unmodifiableList(unevaluated));
+    }
+
+    /**
+     * @throws IllegalArgumentException with the first rule the password breaks
+     */
+    public void check(String password, String username, String email) {
+        for (Rule rule : rules) {
+            rule.check(password, username, email);
+        }
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    public List<String> unevaluated() {
+        return unevaluated;
+    }
+
+    private static Rule rule(String id, String value) {
+        return switch (id) {
+            case "length" -> {
+                int min = count(value, 8);
+                yield (password, username, email) -> {
+                    if (password.length() < min) {
+                        throw new IllegalArgumentException("La contraseña debe tener al menos " + min + " caracteres");
+                    }
+                };
+            }
+            case "maxLength" -> {
+                int max = count(value, 64);
+                yield (password, username, email) -> {
+                    if (password.length() > max) {
+                        throw new IllegalArgumentException("La contraseña no puede exceder " + max + " caracteres");
+                    }
+                };
+            }
+            case "digits" -> atLeast(count(value, 1), Character::isDigit, "dígito(s)");
+            case "lowerCase" -> atLeast(count(value, 1), Character::isLowerCase, "letra(s) minúscula(s)");
+            case "upperCase" -> atLeast(count(value, 1), Character::isUpperCase, "letra(s) mayúscula(s)");
+            case "specialChars" -> atLeast(count(value, 1), ch -> !Character.isLetterOrDigit(ch), "carácter(es) especial(es)");
+            // Keycloak compares against the stored username, which it keeps in lower case
+            case "notUsername" -> (password, username, email) -> {
+                if (username != null && password.equals(username.toLowerCase(Locale.ROOT))) {
+                    throw new IllegalArgumentException("La contraseña no puede ser igual al nombre de usuario");
+                }
+            };
+            case "notContainsUsername" -> (password, username, email) -> {
+                if (username != null && password.toLowerCase(Locale.ROOT).contains(username.toLowerCase(Locale.ROOT))) {
+                    throw new IllegalArgumentException("La contraseña no puede contener el nombre de usuario");
+                }
+            };
+            case "notEmail" -> (password, username, email) -> {
+                if (email != null && password.equalsIgnoreCase(email)) {
+                    throw new IllegalArgumentException("La contraseña no puede ser igual al correo electrónico");
+                }
+            };
+            case "regexPattern" -> {
+                Pattern pattern = compile(value);
+                yield pattern == null ? null : (password, username, email) -> {
+                    if (!pattern.matcher(password).matches()) {
+                        throw new IllegalArgumentException("La contraseña no cumple el patrón exigido por el realm");
+                    }
+                };
+            }
+            default -> null;
+        };
+    }
+
+    private static Rule atLeast(int min, IntPredicate counted, String what) {
+        return (password, username, email) -> {
+            if (password.chars().filter(counted).count() < min) {
+                throw new IllegalArgumentException("La contraseña debe contener al menos " + min + " " + what);
+            }
+        };
+    }
+
+    private static Pattern compile(String regex) {
+        if (regex == null || regex.isEmpty()) {
+            return null;
+        }
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            // Keycloak would fail on it too; leave the verdict to Keycloak
+            return null;
+        }
+    }
+
+    private static int count(String value, int defaultValue) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Rule {
+        void check(String password, String username, String email);
+    }
+}
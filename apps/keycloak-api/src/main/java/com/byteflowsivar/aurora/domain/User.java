@@ -4,8 +4,14 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 @Schema(description = "Usuario para crear en Keycloak")
 public class User {
+
+    private static final int MAX_ASSIGNMENTS = 50;
     
     @Schema(description = "Nombre de usuario único", required = true, example = "usuario123")
     private final String username;
@@ -25,6 +31,16 @@ public class User {
     @Schema(description = "Estado del usuario (activo/inactivo)", example = "true")
     private final boolean enabled;
 
+    @Schema(description = "Nombres de roles de realm a asignar al usuario", example = "[\"customer\"]")
+    private final List<String> realmRoles;
+
+    @Schema(description = "Nombres o rutas de grupos a los que se unirá el usuario", example = "[\"/clientes/premium\"]")
+    private final List<String> groups;
+
+    public User(String username, String email, String firstName, String lastName, String password, Boolean enabled) {
+        this(username, email, firstName, lastName, password, enabled, null, null);
+    }
+
     @JsonCreator
     public User(
             @JsonProperty("username") String username,
@@ -32,7 +48,9 @@ public class User {
             @JsonProperty("firstName") String firstName,
             @JsonProperty("lastName") String lastName,
             @JsonProperty("password") String password,
-            @JsonProperty("enabled") Boolean enabled) {
+            @JsonProperty("enabled") Boolean enabled,
+            @JsonProperty("realmRoles") List<String> realmRoles,
+            @JsonProperty("groups") List<String> groups) {
         // Apply sanitization during construction
         this.username = sanitizeInput(username);
         this.email = sanitizeInput(email);
@@ -40,6 +58,8 @@ public class User {
         this.lastName = sanitizeInput(lastName);
         this.password = password; // Password is not sanitized to preserve special characters
         this.enabled = enabled != null ? enabled : true;
+        this.realmRoles = trimNames(realmRoles);
+        this.groups = trimNames(groups);
     }
 
     public String getUsername() {
@@ -66,7 +86,19 @@ public class User {
         return enabled;
     }
 
+    public List<String> getRealmRoles() {
+        return realmRoles;
+    }
+
+    public List<String> getGroups() {
+        return groups;
+    }
+
     public void validate() {
+        validate(List.of());
+    }
+
+    public void validate(Iterable<? extends UserValidator> additionalValidators) {
         if (username == null || username.trim().isEmpty()) {
             throw new IllegalArgumentException("El nombre de usuario es requerido");
         }
@@ -108,6 +140,36 @@ public class User {
                 throw new IllegalArgumentException("El apellido contiene caracteres inválidos");
             }
         }
+        validateNames(realmRoles, "rol");
+        validateNames(groups, "grupo");
+        for (UserValidator validator : additionalValidators) {
+            validator.validate(this);
+        }
+    }
+
+    private void validateNames(List<String> names, String kind) {
+        if (names.size() > MAX_ASSIGNMENTS) {
+            throw new IllegalArgumentException("No se pueden asignar más de " + MAX_ASSIGNMENTS + " elementos de tipo " + kind);
+        }
+        for (String name : names) {
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("El nombre de " + kind + " no puede estar vacío");
+            }
+            if (name.length() > 255 || name.chars().anyMatch(Character::isISOControl)) {
+                throw new IllegalArgumentException("Nombre de " + kind + " inválido: " + name.substring(0, Math.min(name.length(), 50)));
+            }
+        }
+    }
+
+    private static List<String> trimNames(List<String> names) {
+        if (names == null || names.isEmpty()) {
+            return List.of();
+        }
+        List<String> trimmed = new ArrayList<>(names.size());
+        for (String name : names) {
+            trimmed.add(name != null ? name.trim() : null);
+        }
+        return Collections.unmodifiableList(trimmed);
     }
 
     private boolean isValidEmail(String email) {
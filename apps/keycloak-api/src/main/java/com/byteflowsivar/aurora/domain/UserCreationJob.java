@@ -0,0 +1,92 @@
+package com.byteflowsivar.aurora.domain;
+
+import java.time.Instant;
+
+public class UserCreationJob {
+
+    public enum Status {
+        PENDING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String jobId;
+    private final String username;
+    private final Status status;
+    private final String userId;
+    private final String errorCode;
+    private final String errorMessage;
+    private final int attempts;
+    private final Instant submittedAt;
+    private final Instant updatedAt;
+
+    private UserCreationJob(String jobId, String username, Status status, String userId,
+                            String errorCode, String errorMessage, int attempts,
+                            Instant submittedAt, Instant updatedAt) {
+        this.jobId = jobId;
+        this.username = username;
+        this.status = status;
+        this.userId = userId;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+        this.attempts = attempts;
+        this.submittedAt = submittedAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static UserCreationJob pending(String jobId, String username, Instant submittedAt) {
+        return new UserCreationJob(jobId, username, Status.PENDING, null, null, null, 0, submittedAt, submittedAt);
+    }
+
+    public UserCreationJob retrying(Instant now) {
+        return new UserCreationJob(jobId, username, Status.PENDING, null, null, null, attempts + 1, submittedAt, now);
+    }
+
+    public UserCreationJob completed(String createdUserId, Instant now) {
+        return new UserCreationJob(jobId, username, Status.COMPLETED, createdUserId, null, null, attempts + 1, submittedAt, now);
+    }
+
+    public UserCreationJob failed(String code, String message, Instant now) {
+        return new UserCreationJob(jobId, username, Status.FAILED, null, code, message, attempts + 1, submittedAt, now);
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public boolean isTerminal() {
+        return status != Status.PENDING;
+    }
+}
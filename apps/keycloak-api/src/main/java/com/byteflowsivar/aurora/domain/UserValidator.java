@@ -0,0 +1,8 @@
+package com.byteflowsivar.aurora.domain;
+
+@FunctionalInterface
+public interface UserValidator {
+
+    // Implementations throw IllegalArgumentException with a user-facing message, like User.validate
+    void validate(User user);
+}
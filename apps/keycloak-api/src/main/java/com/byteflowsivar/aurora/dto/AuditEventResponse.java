@@ -0,0 +1,30 @@
+package com.byteflowsivar.aurora.dto;
+
+import com.byteflowsivar.aurora.storage.AuditEventStore.AuditEvent;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Schema(description = "Evento de auditoría de seguridad")
+public class AuditEventResponse {
+
+    @Schema(description = "Fecha del evento", example = "2024-01-15T10:30:00Z")
+    public final String timestamp;
+
+    @Schema(description = "Tipo de evento de seguridad", example = "USER_CREATION_SUCCESS")
+    public final String eventType;
+
+    @Schema(description = "IP del cliente que originó el evento", example = "203.0.113.10")
+    public final String clientIp;
+
+    @Schema(description = "Detalles del evento")
+    public final Map<String, String> details;
+
+    public AuditEventResponse(AuditEvent event) {
+        this.timestamp = Instant.ofEpochMilli(event.timestampMillis()).toString();
+        this.eventType = event.eventType();
+        this.clientIp = event.clientIp();
+        this.details = event.details();
+    }
+}
@@ -0,0 +1,28 @@
+package com.byteflowsivar.aurora.dto;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Resultado de una consulta de eventos de auditoría")
+public class AuditQueryResponse {
+
+    @Schema(description = "Eventos encontrados, ordenados por segmento de almacenamiento")
+    public final List<AuditEventResponse> events;
+
+    @Schema(description = "Número de eventos devueltos", example = "42")
+    public final int count;
+
+    @Schema(description = "Indica si el resultado fue truncado por el límite", example = "false")
+    public final boolean truncated;
+
+    @Schema(description = "Duración de la consulta en milisegundos", example = "3")
+    public final long tookMillis;
+
+    public AuditQueryResponse(List<AuditEventResponse> events, boolean truncated, long tookMillis) {
+        this.events = events;
+        this.count = events.size();
+        this.truncated = truncated;
+        this.tookMillis = tookMillis;
+    }
+}
@@ -0,0 +1,48 @@
+package com.byteflowsivar.aurora.dto;
+
+import com.byteflowsivar.aurora.codec.DtoJsonCodecs;
+
+/**
+ * Error response whose message never changes. The body is encoded once at class
+ * initialization; only the timestamp is written per response.
+ */
+public final class ConstantErrorResponse extends ErrorResponse {
+
+    public static final ConstantErrorResponse RATE_LIMIT_EXCEEDED =
+        new ConstantErrorResponse("Límite de velocidad excedido. Máximo 100 solicitudes por minuto", "RATE_LIMIT_EXCEEDED");
+    public static final ConstantErrorResponse INTERNAL_ERROR =
+        new ConstantErrorResponse("Error interno del servidor", "INTERNAL_ERROR");
+    public static final ConstantErrorResponse EXISTENCE_CHECK_FAILED =
+        new ConstantErrorResponse("Error al verificar existencia del usuario", "INTERNAL_ERROR");
+    public static final ConstantErrorResponse USER_ALREADY_EXISTS =
+        new ConstantErrorResponse("El usuario ya existe", "USER_ALREADY_EXISTS");
+    public static final ConstantErrorResponse JOB_NOT_FOUND =
+        new ConstantErrorResponse("Solicitud de creación no encontrada", "JOB_NOT_FOUND");
+    public static final ConstantErrorResponse ADMIN_API_DISABLED =
+        new ConstantErrorResponse("Los endpoints de administración están deshabilitados", "ADMIN_API_DISABLED");
+    public static final ConstantErrorResponse ADMIN_UNAUTHORIZED =
+        new ConstantErrorResponse("Credenciales de administración inválidas", "ADMIN_UNAUTHORIZED");
+    public static final ConstantErrorResponse AUDIT_STORE_DISABLED =
+        new ConstantErrorResponse("El almacén de auditoría está deshabilitado", "AUDIT_STORE_DISABLED");
+    public static final ConstantErrorResponse OUTBOX_DISABLED =
+        new ConstantErrorResponse("El outbox de eventos de usuario está deshabilitado", "OUTBOX_DISABLED");
+    public static final ConstantErrorResponse OUTBOX_UNAVAILABLE =
+        new ConstantErrorResponse("No se pudo leer el outbox de eventos de usuario", "OUTBOX_UNAVAILABLE");
+    public static final ConstantErrorResponse RECORDING_NOT_ACTIVE =
+        new ConstantErrorResponse("No hay una grabación JFR activa", "RECORDING_NOT_ACTIVE");
+    public static final ConstantErrorResponse DEADLINE_EXCEEDED =
+        new ConstantErrorResponse("El plazo de la solicitud se agotó antes de procesarla", "DEADLINE_EXCEEDED");
+    public static final ConstantErrorResponse SERVER_OVERLOADED =
+        new ConstantErrorResponse("Servidor sobrecargado. Intente más tarde", "SERVER_OVERLOADED");
+
+    private final byte[] encodedPrefix;
+
+    private ConstantErrorResponse(String error, String errorCode) {
+        super(error, errorCode);
+        this.encodedPrefix = DtoJsonCodecs.encodeErrorPrefix(error, errorCode);
+    }
+
+    public byte[] encodedPrefix() {
+        return encodedPrefix;
+    }
+}
@@ -0,0 +1,39 @@
+package com.byteflowsivar.aurora.dto;
+
+import com.byteflowsivar.aurora.service.FlightRecordingService.RecordingStatus;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(description = "Estado de la grabación continua de JDK Flight Recorder")
+public class RecordingStatusResponse {
+
+    @Schema(description = "Estado de la grabación: NONE, RUNNING, STOPPED o CLOSED", example = "RUNNING")
+    public final String state;
+
+    @Schema(description = "Inicio de la grabación", example = "2024-01-15T10:30:00Z")
+    public final String startedAt;
+
+    @Schema(description = "Fin de la grabación, si fue detenida", example = "2024-01-15T10:45:00Z")
+    public final String stoppedAt;
+
+    @Schema(description = "Perfil de configuración de JFR", example = "default")
+    public final String settings;
+
+    @Schema(description = "Antigüedad máxima de los datos retenidos (ISO-8601)", example = "PT30M")
+    public final String maxAge;
+
+    @Schema(description = "Tamaño máximo de los datos retenidos en bytes", example = "262144000")
+    public final long maxSizeBytes;
+
+    @Schema(description = "Tamaño actual de la grabación en bytes", example = "10485760")
+    public final long sizeBytes;
+
+    public RecordingStatusResponse(RecordingStatus status) {
+        this.state = status.state();
+        this.startedAt = status.startedAt() != null ? status.startedAt().toString() : null;
+        this.stoppedAt = status.stoppedAt() != null ? status.stoppedAt().toString() : null;
+        this.settings = status.settings();
+        this.maxAge = status.maxAge().toString();
+        this.maxSizeBytes = status.maxSizeBytes();
+        this.sizeBytes = status.sizeBytes();
+    }
+}
@@ -0,0 +1,47 @@
+package com.byteflowsivar.aurora.dto;
+
+import com.byteflowsivar.aurora.domain.UserCreationJob;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(description = "Estado de una solicitud asíncrona de creación de usuario")
+public class UserCreationJobResponse {
+
+    @Schema(description = "ID de la solicitud de creación", example = "3f2b8c1e-9d4a-4c6b-8e2f-1a7d5c9b0e34")
+    public final String jobId;
+
+    @Schema(description = "Nombre de usuario solicitado", example = "usuario123")
+    public final String username;
+
+    @Schema(description = "Estado de la solicitud", example = "PENDING")
+    public final String status;
+
+    @Schema(description = "ID del usuario en Keycloak (cuando la creación terminó)", example = "f47ac10b-58cc-4372-a567-0e02b2c3d479")
+    public final String userId;
+
+    @Schema(description = "Código de error (cuando la creación falló)", example = "USER_ALREADY_EXISTS")
+    public final String errorCode;
+
+    @Schema(description = "Mensaje de error (cuando la creación falló)", example = "El usuario ya existe")
+    public final String error;
+
+    @Schema(description = "Número de intentos realizados", example = "1")
+    public final int attempts;
+
+    @Schema(description = "Fecha de recepción de la solicitud", example = "2024-01-15T10:30:00Z")
+    public final String submittedAt;
+
+    @Schema(description = "Fecha de la última actualización", example = "2024-01-15T10:30:01Z")
+    public final String updatedAt;
+
+    public UserCreationJobResponse(UserCreationJob job) {
+        this.jobId = job.getJobId();
+        this.username = job.getUsername();
+        this.status = job.getStatus().name();
+        this.userId = job.getUserId();
+        this.errorCode = job.getErrorCode();
+        this.error = job.getErrorMessage();
+        this.attempts = job.getAttempts();
+        this.submittedAt = job.getSubmittedAt().toString();
+        this.updatedAt = job.getUpdatedAt().toString();
+    }
+}
@@ -0,0 +1,24 @@
+package com.byteflowsivar.aurora.dto;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Página del feed de eventos de usuario")
+public class UserEventFeedResponse {
+
+    @Schema(description = "Eventos posteriores al cursor, en orden de publicación")
+    public final List<UserEventResponse> events;
+
+    @Schema(description = "Número de eventos devueltos", example = "100")
+    public final int count;
+
+    @Schema(description = "Cursor para la siguiente página; igual al recibido si no hay eventos nuevos", example = "1142")
+    public final long nextCursor;
+
+    public UserEventFeedResponse(List<UserEventResponse> events, long cursor) {
+        this.events = events;
+        this.count = events.size();
+        this.nextCursor = events.isEmpty() ? cursor : events.get(events.size() - 1).cursor;
+    }
+}
@@ -0,0 +1,44 @@
+package com.byteflowsivar.aurora.dto;
+
+import com.byteflowsivar.aurora.service.UserEventOutboxService;
+import com.byteflowsivar.aurora.service.UserEventOutboxService.PublishedEvent;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(description = "Evento de creación de usuario publicado en el outbox")
+public class UserEventResponse {
+
+    @Schema(description = "Posición del evento en el feed; usarla como cursor para continuar", example = "1042")
+    public final long cursor;
+
+    @Schema(description = "Identificador único del evento", example = "3f1c2a9e-5b7d-4e8f-9a6b-1c2d3e4f5a6b")
+    public final String eventId;
+
+    @Schema(description = "Tipo de evento", example = "USER_CREATED")
+    public final String eventType;
+
+    @Schema(description = "Fecha de creación del usuario", example = "2024-01-15T10:30:00Z")
+    public final String occurredAt;
+
+    @Schema(description = "Realm donde se creó el usuario", example = "aurora-stack")
+    public final String realm;
+
+    @Schema(description = "ID del usuario en Keycloak", example = "123e4567-e89b-12d3-a456-426614174000")
+    public final String userId;
+
+    @Schema(description = "Nombre de usuario", example = "usuario123")
+    public final String username;
+
+    @Schema(description = "Correo electrónico del usuario", example = "usuario@example.com")
+    public final String email;
+
+    public UserEventResponse(PublishedEvent published) {
+        this.cursor = published.cursor();
+        this.eventId = published.event().eventId().toString();
+        this.eventType = UserEventOutboxService.USER_CREATED;
+        this.occurredAt = published.event().occurredAt().toString();
+        this.realm = published.event().realm();
+        this.userId = published.event().userId();
+        this.username = published.event().username();
+        this.email = published.event().email();
+    }
+}
@@ -1,5 +1,8 @@
 package com.byteflowsivar.aurora.health;
 
+import com.byteflowsivar.aurora.service.KeycloakCluster;
+import com.byteflowsivar.aurora.service.RealmRegistry;
+import com.byteflowsivar.aurora.service.WarmupService;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
@@ -7,7 +10,6 @@ import org.eclipse.microprofile.health.HealthCheck;
 import org.eclipse.microprofile.health.HealthCheckResponse;
 import org.eclipse.microprofile.health.Readiness;
 import org.jboss.logging.Logger;
-import org.keycloak.admin.client.Keycloak;
 
 @Readiness
 @ApplicationScoped
@@ -16,7 +18,13 @@ public class KeycloakHealthCheck implements HealthCheck {
     private static final Logger LOG = Logger.getLogger(KeycloakHealthCheck.class);
 
     @Inject
-    Keycloak keycloak;
+    RealmRegistry realmRegistry;
+
+    @Inject
+    KeycloakCluster keycloakCluster;
+
+    @Inject
+    WarmupService warmupService;
 
     @ConfigProperty(name = "keycloak.target-realm")
     String targetRealm;
@@ -26,10 +34,19 @@ public class KeycloakHealthCheck implements HealthCheck {
 
     @Override
     public HealthCheckResponse call() {
+        if (!warmupService.isComplete()) {
+            return HealthCheckResponse.builder()
+                .name("keycloak")
+                .down()
+                .withData("realm", targetRealm)
+                .withData("server-url", serverUrl)
+                .withData("status", "warming-up")
+                .build();
+        }
+
         try {
             // Attempt to access the target realm to verify connectivity
-            var realmResource = keycloak.realm(targetRealm);
-            var realmRepresentation = realmResource.toRepresentation();
+            var realmRepresentation = realmRegistry.resolve(targetRealm).describe();
             
             if (realmRepresentation != null && targetRealm.equals(realmRepresentation.getRealm())) {
                 LOG.debugf("Keycloak health check passed for realm: %s", targetRealm);
@@ -39,6 +56,9 @@ public class KeycloakHealthCheck implements HealthCheck {
                     .withData("realm", targetRealm)
                     .withData("server-url", serverUrl)
                     .withData("status", "connected")
+                    .withData("nodes", keycloakCluster.endpoints().size())
+                    .withData("nodes-available", keycloakCluster.endpoints().stream().filter(node -> !node.isEjected()).count())
+                    .withData("warmup-ms", warmupService.getDurationMillis())
                     .build();
             } else {
                 LOG.warnf("Keycloak realm mismatch. Expected: %s, Got: %s", 
@@ -0,0 +1,45 @@
+package com.byteflowsivar.aurora.health;
+
+import com.byteflowsivar.aurora.service.RealmHandle;
+import com.byteflowsivar.aurora.service.RealmRegistry;
+import io.smallrye.health.api.HealthGroup;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+
+/**
+ * Per-realm status served under /q/health/group/realms. It reports what recent
+ * calls and background probes observed and never calls Keycloak itself, so it
+ * stays cheap with hundreds of realms registered.
+ */
+@HealthGroup("realms")
+@ApplicationScoped
+public class RealmsHealthCheck implements HealthCheck {
+
+    @Inject
+    RealmRegistry realmRegistry;
+
+    @Override
+    public HealthCheckResponse call() {
+        HealthCheckResponseBuilder builder = HealthCheckResponse.builder().name("realms");
+        int registered = 0;
+        int unhealthy = 0;
+        for (RealmHandle handle : realmRegistry.handles()) {
+            registered++;
+            if (handle.isHealthy()) {
+                builder.withData(handle.name(), "up, in-flight=" + handle.inFlight());
+            } else {
+                unhealthy++;
+                String error = handle.lastError();
+                builder.withData(handle.name(), error != null ? "down: " + error : "down");
+            }
+        }
+        return builder
+            .withData("registered", registered)
+            .withData("unhealthy", unhealthy)
+            .status(unhealthy == 0)
+            .build();
+    }
+}
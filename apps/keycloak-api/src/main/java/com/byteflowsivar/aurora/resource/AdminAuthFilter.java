@@ -0,0 +1,53 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.dto.ConstantErrorResponse;
+import com.byteflowsivar.aurora.service.AuditService;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Optional;
+
+@AdminOnly
+@Provider
+@Priority(Priorities.AUTHENTICATION)
+public class AdminAuthFilter implements ContainerRequestFilter {
+
+    static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    @Inject
+    AuditService auditService;
+
+    @ConfigProperty(name = "aurora.admin.api-key")
+    Optional<String> adminApiKey;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        if (adminApiKey.isEmpty() || adminApiKey.get().isBlank()) {
+            requestContext.abortWith(Response.status(Response.Status.FORBIDDEN)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(ConstantErrorResponse.ADMIN_API_DISABLED)
+                    .build());
+            return;
+        }
+
+        String token = requestContext.getHeaderString(ADMIN_TOKEN_HEADER);
+        if (token == null || !MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8),
+                adminApiKey.get().getBytes(StandardCharsets.UTF_8))) {
+            auditService.logAuthenticationFailure(ClientInfo.describe(requestContext::getHeaderString));
+            requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(ConstantErrorResponse.ADMIN_UNAUTHORIZED)
+                    .build());
+        }
+    }
+}
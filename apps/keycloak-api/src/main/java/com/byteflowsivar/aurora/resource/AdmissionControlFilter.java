@@ -0,0 +1,86 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.dto.ConstantErrorResponse;
+import com.byteflowsivar.aurora.service.AdmissionController;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.PreMatching;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+import java.lang.reflect.Method;
+
+/**
+ * Applies {@link AdmissionController} to every API request. Pre-matching filters
+ * run on the I/O thread as the request arrives, so the time until this filter runs
+ * on a worker thread is the time the request spent queued.
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION - 100)
+public class AdmissionControlFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    static final String ARRIVAL_PROPERTY = "aurora.arrival-nanos";
+    private static final String ADMITTED_PROPERTY = "aurora.admitted";
+
+    @Inject
+    AdmissionController admissionController;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        if (!admissionController.isEnabled() || !(requestContext.getProperty(ARRIVAL_PROPERTY) instanceof Long arrival)) {
+            return;
+        }
+
+        AdmissionController.Decision decision = admissionController.admit(priorityOf(resourceInfo), System.nanoTime() - arrival);
+        if (decision == AdmissionController.Decision.ADMITTED) {
+            requestContext.setProperty(ADMITTED_PROPERTY, Boolean.TRUE);
+            return;
+        }
+        requestContext.abortWith(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .type(MediaType.APPLICATION_JSON)
+                .header("Retry-After", "1")
+                .entity(ConstantErrorResponse.SERVER_OVERLOADED)
+                .build());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        if (requestContext.getProperty(ADMITTED_PROPERTY) != null) {
+            requestContext.setProperty(ADMITTED_PROPERTY, null);
+            admissionController.release();
+        }
+    }
+
+    private static AdmissionController.Priority priorityOf(ResourceInfo resourceInfo) {
+        Method method = resourceInfo.getResourceMethod();
+        if (method == null) {
+            return AdmissionController.Priority.NORMAL;
+        }
+        AdmissionPriority priority = method.getAnnotation(AdmissionPriority.class);
+        if (priority == null) {
+            priority = resourceInfo.getResourceClass().getAnnotation(AdmissionPriority.class);
+        }
+        return priority != null ? priority.value() : AdmissionController.Priority.NORMAL;
+    }
+
+    @Provider
+    @PreMatching
+    public static class Arrival implements ContainerRequestFilter {
+
+        @Override
+        public void filter(ContainerRequestContext requestContext) {
+            requestContext.setProperty(ARRIVAL_PROPERTY, System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.service.AdmissionController;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Priority of an endpoint when the server is overloaded. Endpoints without it are
+ * {@link AdmissionController.Priority#NORMAL}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface AdmissionPriority {
+
+    AdmissionController.Priority value();
+}
@@ -0,0 +1,118 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.dto.AuditEventResponse;
+import com.byteflowsivar.aurora.dto.AuditQueryResponse;
+import com.byteflowsivar.aurora.dto.ConstantErrorResponse;
+import com.byteflowsivar.aurora.dto.ErrorResponse;
+import com.byteflowsivar.aurora.service.AuditStoreService;
+import com.byteflowsivar.aurora.storage.AuditEventStore.AuditEvent;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@Path("/admin/audit")
+@Produces(MediaType.APPLICATION_JSON)
+@AdminOnly
+@Tag(name = "Audit", description = "Consulta de eventos de auditoría de seguridad")
+public class AuditResource {
+
+    private static final int MAX_LIMIT = 1000;
+
+    @Inject
+    AuditStoreService auditStoreService;
+
+    @GET
+    @Path("/events")
+    @Operation(
+        summary = "Consultar eventos de auditoría",
+        description = "Busca eventos de seguridad por rango de tiempo, tipo de evento e IP del cliente"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Consulta completada",
+            content = @Content(schema = @Schema(implementation = AuditQueryResponse.class))
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Parámetros de consulta inválidos",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
+        @APIResponse(
+            responseCode = "503",
+            description = "Almacén de auditoría deshabilitado",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    public Response queryEvents(
+        @Parameter(description = "Inicio del rango (ISO-8601). Por defecto, 24 horas antes de 'to'", example = "2024-01-15T00:00:00Z")
+        @QueryParam("from") String from,
+        @Parameter(description = "Fin del rango (ISO-8601). Por defecto, ahora", example = "2024-01-16T00:00:00Z")
+        @QueryParam("to") String to,
+        @Parameter(description = "Tipo de evento de seguridad", example = "RATE_LIMIT_EXCEEDED")
+        @QueryParam("type") String type,
+        @Parameter(description = "IP del cliente", example = "203.0.113.10")
+        @QueryParam("ip") String ip,
+        @Parameter(description = "Número máximo de eventos (1-1000)", example = "100")
+        @QueryParam("limit") @DefaultValue("100") int limit) {
+        if (!auditStoreService.isEnabled()) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity(ConstantErrorResponse.AUDIT_STORE_DISABLED)
+                    .build();
+        }
+
+        Instant toInstant;
+        Instant fromInstant;
+        try {
+            toInstant = to != null ? Instant.parse(to) : Instant.now();
+            fromInstant = from != null ? Instant.parse(from) : toInstant.minus(Duration.ofHours(24));
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("Formato de fecha inválido. Use ISO-8601", "VALIDATION_ERROR"))
+                    .build();
+        }
+        if (fromInstant.isAfter(toInstant)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("'from' debe ser anterior a 'to'", "VALIDATION_ERROR"))
+                    .build();
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("'limit' debe estar entre 1 y " + MAX_LIMIT, "VALIDATION_ERROR"))
+                    .build();
+        }
+
+        long start = System.nanoTime();
+        // One extra event tells whether the result was truncated
+        List<AuditEvent> events = auditStoreService.query(fromInstant, toInstant, blankToNull(type), blankToNull(ip), limit + 1);
+        boolean truncated = events.size() > limit;
+        List<AuditEventResponse> page = events.stream()
+                .limit(limit)
+                .map(AuditEventResponse::new)
+                .toList();
+        long tookMillis = (System.nanoTime() - start) / 1_000_000;
+
+        return Response.ok(new AuditQueryResponse(page, truncated, tookMillis)).build();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
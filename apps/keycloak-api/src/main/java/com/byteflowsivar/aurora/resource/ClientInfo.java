@@ -0,0 +1,36 @@
+package com.byteflowsivar.aurora.resource;
+
+import java.util.function.Function;
+
+final class ClientInfo {
+
+    private ClientInfo() {
+    }
+
+    static String describe(Function<String, String> headers) {
+        String clientIp = clientIpAddress(headers);
+        String userAgent = headers.apply("User-Agent");
+        
+        return String.format("IP=%s UA=%s", 
+                           clientIp != null ? clientIp : "unknown",
+                           userAgent != null ? userAgent.substring(0, Math.min(userAgent.length(), 100)) : "unknown");
+    }
+    
+    static String clientIpAddress(Function<String, String> headers) {
+        // Check for X-Forwarded-For header (common in load balancers/proxies)
+        String xForwardedFor = headers.apply("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+            // Take the first IP in the chain
+            return xForwardedFor.split(",")[0].trim();
+        }
+        
+        // Check for X-Real-IP header (common in nginx)
+        String xRealIp = headers.apply("X-Real-IP");
+        if (xRealIp != null && !xRealIp.isEmpty()) {
+            return xRealIp;
+        }
+        
+        // In test environment or when headers are not available
+        return "test-client";
+    }
+}
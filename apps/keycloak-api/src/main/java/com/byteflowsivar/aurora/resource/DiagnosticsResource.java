@@ -0,0 +1,134 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.dto.ConstantErrorResponse;
+import com.byteflowsivar.aurora.dto.ErrorResponse;
+import com.byteflowsivar.aurora.dto.RecordingStatusResponse;
+import com.byteflowsivar.aurora.service.FlightRecordingService;
+import com.byteflowsivar.aurora.service.FlightRecordingService.RecordingStatus;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+@Path("/admin/diagnostics/recording")
+@Produces(MediaType.APPLICATION_JSON)
+@AdminOnly
+@Tag(name = "Diagnostics", description = "Grabación continua con JDK Flight Recorder")
+public class DiagnosticsResource {
+
+    private static final Logger LOG = Logger.getLogger(DiagnosticsResource.class);
+
+    @Inject
+    FlightRecordingService flightRecordingService;
+
+    @GET
+    @Operation(summary = "Estado de la grabación", description = "Devuelve el estado de la grabación JFR continua")
+    @APIResponse(
+        responseCode = "200",
+        description = "Estado de la grabación",
+        content = @Content(schema = @Schema(implementation = RecordingStatusResponse.class))
+    )
+    public Response status() {
+        return Response.ok(new RecordingStatusResponse(flightRecordingService.status())).build();
+    }
+
+    @POST
+    @Path("/start")
+    @Operation(
+        summary = "Iniciar grabación",
+        description = "Inicia una grabación JFR continua limitada por antigüedad y tamaño. No hace nada si ya está en curso"
+    )
+    @APIResponse(
+        responseCode = "200",
+        description = "Grabación en curso",
+        content = @Content(schema = @Schema(implementation = RecordingStatusResponse.class))
+    )
+    public Response start() {
+        return Response.ok(new RecordingStatusResponse(flightRecordingService.start())).build();
+    }
+
+    @POST
+    @Path("/stop")
+    @Operation(summary = "Detener grabación", description = "Detiene la grabación; sus datos siguen disponibles para volcarlos")
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Grabación detenida",
+            content = @Content(schema = @Schema(implementation = RecordingStatusResponse.class))
+        ),
+        @APIResponse(
+            responseCode = "409",
+            description = "No hay una grabación en curso",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    public Response stop() {
+        RecordingStatus status = flightRecordingService.stop();
+        if (status == null) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(ConstantErrorResponse.RECORDING_NOT_ACTIVE)
+                    .build();
+        }
+        return Response.ok(new RecordingStatusResponse(status)).build();
+    }
+
+    @GET
+    @Path("/dump")
+    @Produces({MediaType.APPLICATION_OCTET_STREAM, MediaType.APPLICATION_JSON})
+    @Operation(
+        summary = "Volcar grabación",
+        description = "Descarga los datos grabados como fichero .jfr, para abrirlo con JDK Mission Control o 'jfr print'"
+    )
+    @APIResponses({
+        @APIResponse(responseCode = "200", description = "Fichero de grabación JFR"),
+        @APIResponse(
+            responseCode = "409",
+            description = "No hay grabación que volcar",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    public Response dump() {
+        java.nio.file.Path file;
+        try {
+            file = flightRecordingService.dump();
+        } catch (IOException e) {
+            LOG.errorf(e, "Error al volcar la grabación JFR");
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(ConstantErrorResponse.INTERNAL_ERROR)
+                    .build();
+        }
+        if (file == null) {
+            return Response.status(Response.Status.CONFLICT)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(ConstantErrorResponse.RECORDING_NOT_ACTIVE)
+                    .build();
+        }
+
+        StreamingOutput body = output -> {
+            try {
+                Files.copy(file, output);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return Response.ok(body)
+                .type(MediaType.APPLICATION_OCTET_STREAM)
+                .header("Content-Disposition", "attachment; filename=\"" + file.getFileName() + "\"")
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.codec.DtoJsonCodecs;
+import com.byteflowsivar.aurora.codec.JsonCodecException;
+import com.byteflowsivar.aurora.codec.JsonOutput;
+import com.byteflowsivar.aurora.domain.User;
+import com.byteflowsivar.aurora.dto.CreateUserResponse;
+import com.byteflowsivar.aurora.dto.ErrorResponse;
+import com.byteflowsivar.aurora.dto.UserExistsResponse;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Message body readers and writers that route the user API types through
+ * {@link DtoJsonCodecs} instead of Jackson's reflective binding. Being registered
+ * for the concrete classes, they take precedence over the generic Jackson provider.
+ */
+public final class DtoJsonProviders {
+
+    private DtoJsonProviders() {
+    }
+
+    @Provider
+    @Consumes(MediaType.APPLICATION_JSON)
+    public static class UserReader implements MessageBodyReader<User> {
+
+        @Override
+        public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return type == User.class;
+        }
+
+        @Override
+        public User readFrom(Class<User> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                             MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+            try {
+                return DtoJsonCodecs.readUser(entityStream.readAllBytes());
+            } catch (JsonCodecException e) {
+                throw new WebApplicationException(Response.status(Response.Status.BAD_REQUEST)
+                        .type(MediaType.APPLICATION_JSON)
+                        .entity(new ErrorResponse(e.getMessage(), "VALIDATION_ERROR"))
+                        .build());
+            }
+        }
+    }
+
+    @Provider
+    @Produces(MediaType.APPLICATION_JSON)
+    public static class CreateUserResponseWriter extends DtoWriter<CreateUserResponse> {
+
+        public CreateUserResponseWriter() {
+            super(CreateUserResponse.class, 128);
+        }
+
+        @Override
+        void encode(CreateUserResponse value, JsonOutput out) {
+            DtoJsonCodecs.write(value, out);
+        }
+    }
+
+    @Provider
+    @Produces(MediaType.APPLICATION_JSON)
+    public static class UserExistsResponseWriter extends DtoWriter<UserExistsResponse> {
+
+        public UserExistsResponseWriter() {
+            super(UserExistsResponse.class, 64);
+        }
+
+        @Override
+        void encode(UserExistsResponse value, JsonOutput out) {
+            DtoJsonCodecs.write(value, out);
+        }
+    }
+
+    @Provider
+    @Produces(MediaType.APPLICATION_JSON)
+    public static class ErrorResponseWriter extends DtoWriter<ErrorResponse> {
+
+        public ErrorResponseWriter() {
+            super(ErrorResponse.class, 160);
+        }
+
+        @Override
+        void encode(ErrorResponse value, JsonOutput out) {
+            DtoJsonCodecs.write(value, out);
+        }
+    }
+
+    abstract static class DtoWriter<T> implements MessageBodyWriter<T> {
+
+        private final Class<T> type;
+        private final int sizeHint;
+
+        DtoWriter(Class<T> type, int sizeHint) {
+            this.type = type;
+            this.sizeHint = sizeHint;
+        }
+
+        abstract void encode(T value, JsonOutput out);
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return this.type.isAssignableFrom(type);
+        }
+
+        @Override
+        public void writeTo(T value, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+            JsonOutput out = new JsonOutput(sizeHint);
+            encode(value, out);
+            out.writeTo(entityStream);
+        }
+    }
+}
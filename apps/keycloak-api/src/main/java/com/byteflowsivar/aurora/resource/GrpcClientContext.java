@@ -0,0 +1,64 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.service.RequestDeadline;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Deadline;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.quarkus.grpc.GlobalInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives gRPC calls the same client description the REST resources build from
+ * HTTP headers, read from the call metadata, and turns the caller's gRPC deadline
+ * into a {@link RequestDeadline}.
+ */
+@GlobalInterceptor
+@ApplicationScoped
+public class GrpcClientContext implements ServerInterceptor {
+
+    private static final Context.Key<String> CLIENT_INFO = Context.key("aurora-client-info");
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        SocketAddress remote = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+        String clientInfo = ClientInfo.describe(name -> header(headers, name, remote));
+        return Contexts.interceptCall(Context.current().withValue(CLIENT_INFO, clientInfo), call, headers, next);
+    }
+
+    static String clientInfo() {
+        String clientInfo = CLIENT_INFO.get();
+        return clientInfo != null ? clientInfo : "IP=unknown UA=unknown";
+    }
+
+    /**
+     * Deadline the caller set on the current call, or null when it set none.
+     */
+    static RequestDeadline deadline() {
+        Deadline deadline = Context.current().getDeadline();
+        if (deadline == null) {
+            return null;
+        }
+        return RequestDeadline.after(System.nanoTime(), Duration.ofNanos(deadline.timeRemaining(TimeUnit.NANOSECONDS)));
+    }
+
+    private static String header(Metadata headers, String name, SocketAddress remote) {
+        String value = headers.get(Metadata.Key.of(name.toLowerCase(Locale.ROOT), Metadata.ASCII_STRING_MARSHALLER));
+        if (value == null && "X-Real-IP".equals(name) && remote instanceof InetSocketAddress address) {
+            // Without a proxy in between, the peer address is the client
+            return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,19 @@
+package com.byteflowsivar.aurora.resource;
+
+import io.smallrye.faulttolerance.api.RateLimit;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Rate limits of the gRPC operations. A stream carries many operations, so the
+ * limit is taken per operation by calling the matching method, which does nothing
+ * else. Same policy as the REST endpoints, but with its own window.
+ */
+@ApplicationScoped
+public class GrpcRateLimits {
+
+    @RateLimit(value = 100, window = 1, windowUnit = ChronoUnit.MINUTES)
+    public void createUser() {
+    }
+}
@@ -0,0 +1,64 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.diagnostics.RateLimitRejectedEvent;
+import com.byteflowsivar.aurora.dto.ConstantErrorResponse;
+import com.byteflowsivar.aurora.service.AuditService;
+import io.smallrye.faulttolerance.api.RateLimitException;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+import java.lang.reflect.Method;
+
+/**
+ * Answers requests rejected by a {@code @RateLimit} resource method. The limit is
+ * checked by an interceptor before the method body runs, so the rejection can only
+ * be seen here.
+ */
+@Provider
+public class RateLimitExceptionMapper implements ExceptionMapper<RateLimitException> {
+
+    @Inject
+    AuditService auditService;
+
+    @Context
+    HttpHeaders headers;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Override
+    public Response toResponse(RateLimitException exception) {
+        String clientInfo = ClientInfo.describe(headers::getHeaderString);
+        RateLimitRejectedEvent.emit(operationOf(resourceInfo), clientInfo);
+        auditService.logRateLimitExceeded(clientInfo);
+        return Response.status(429)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(ConstantErrorResponse.RATE_LIMIT_EXCEEDED)
+                .build();
+    }
+
+    /**
+     * createUser becomes create_user, the name the other diagnostics use.
+     */
+    static String operationOf(ResourceInfo resourceInfo) {
+        Method method = resourceInfo != null ? resourceInfo.getResourceMethod() : null;
+        if (method == null) {
+            return "unknown";
+        }
+        StringBuilder operation = new StringBuilder();
+        for (char c : method.getName().toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                operation.append('_').append(Character.toLowerCase(c));
+            } else {
+                operation.append(c);
+            }
+        }
+        return operation.toString();
+    }
+}
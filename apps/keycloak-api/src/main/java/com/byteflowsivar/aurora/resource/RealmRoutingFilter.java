@@ -0,0 +1,62 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.dto.ErrorResponse;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.PreMatching;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.Provider;
+
+import java.net.URI;
+
+/**
+ * Maps {@code /realms/{realm}/users/...} onto the {@code /users} endpoints and
+ * carries the realm in the {@value #REALM_HEADER} header, so resources read the
+ * target realm from a single place whichever form the client used.
+ */
+@Provider
+@PreMatching
+public class RealmRoutingFilter implements ContainerRequestFilter {
+
+    static final String REALM_HEADER = "X-Realm";
+
+    private static final String REALM_PREFIX = "realms/";
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        UriInfo uriInfo = requestContext.getUriInfo();
+        String path = uriInfo.getPath(false);
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        if (!path.startsWith(REALM_PREFIX)) {
+            return;
+        }
+
+        int slash = path.indexOf('/', REALM_PREFIX.length());
+        if (slash < 0) {
+            return;
+        }
+        String realm = path.substring(REALM_PREFIX.length(), slash);
+        String remainder = path.substring(slash + 1);
+        if (realm.isEmpty() || !(remainder.equals("users") || remainder.startsWith("users/"))) {
+            return;
+        }
+
+        String headerRealm = requestContext.getHeaderString(REALM_HEADER);
+        if (headerRealm != null && !headerRealm.isBlank() && !headerRealm.trim().equals(realm)) {
+            requestContext.abortWith(Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(new ErrorResponse("El realm de la ruta no coincide con el encabezado " + REALM_HEADER, "REALM_MISMATCH"))
+                    .build());
+            return;
+        }
+        requestContext.getHeaders().putSingle(REALM_HEADER, realm);
+
+        String query = uriInfo.getRequestUri().getRawQuery();
+        URI baseUri = uriInfo.getBaseUri();
+        requestContext.setRequestUri(baseUri, baseUri.resolve(remainder + (query != null ? "?" + query : "")));
+    }
+}
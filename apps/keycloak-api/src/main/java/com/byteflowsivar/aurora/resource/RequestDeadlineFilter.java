@@ -0,0 +1,114 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.dto.ConstantErrorResponse;
+import com.byteflowsivar.aurora.dto.ErrorResponse;
+import com.byteflowsivar.aurora.service.RequestDeadline;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binds the request's deadline to the worker thread. The client may shorten it with
+ * {@code X-Request-Timeout} (milliseconds); otherwise the route's default applies.
+ * Time spent queued before reaching a worker counts against the deadline, so a
+ * request whose client has already given up is answered with 504 straight away.
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION - 90)
+public class RequestDeadlineFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    @Inject
+    Config config;
+
+    @ConfigProperty(name = "aurora.deadline.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "aurora.deadline.default", defaultValue = "PT30S")
+    Duration defaultTimeout;
+
+    @ConfigProperty(name = "aurora.deadline.max", defaultValue = "PT60S")
+    Duration maxTimeout;
+
+    @Context
+    ResourceInfo resourceInfo;
+
+    private final Map<Method, Duration> routeTimeouts = new ConcurrentHashMap<>();
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        if (!enabled) {
+            return;
+        }
+        Duration timeout = routeTimeout();
+        String header = requestContext.getHeaderString(TIMEOUT_HEADER);
+        if (header != null) {
+            long millis;
+            try {
+                millis = Long.parseLong(header.trim());
+            } catch (NumberFormatException e) {
+                millis = -1;
+            }
+            if (millis <= 0) {
+                requestContext.abortWith(Response.status(Response.Status.BAD_REQUEST)
+                        .type(MediaType.APPLICATION_JSON)
+                        .entity(new ErrorResponse(TIMEOUT_HEADER + " debe ser un número positivo de milisegundos", "VALIDATION_ERROR"))
+                        .build());
+                return;
+            }
+            timeout = Duration.ofMillis(Math.min(millis, maxTimeout.toMillis()));
+        }
+
+        long start = requestContext.getProperty(AdmissionControlFilter.ARRIVAL_PROPERTY) instanceof Long arrival
+                ? arrival
+                : System.nanoTime();
+        RequestDeadline deadline = RequestDeadline.after(start, timeout);
+        if (deadline.isExpired()) {
+            requestContext.abortWith(Response.status(Response.Status.GATEWAY_TIMEOUT)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(ConstantErrorResponse.DEADLINE_EXCEEDED)
+                    .build());
+            return;
+        }
+        RequestDeadline.bind(deadline);
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        RequestDeadline.clear();
+    }
+
+    private Duration routeTimeout() {
+        Method method = resourceInfo.getResourceMethod();
+        if (method == null) {
+            return defaultTimeout;
+        }
+        return routeTimeouts.computeIfAbsent(method, key -> {
+            RequestTimeout route = key.getAnnotation(RequestTimeout.class);
+            if (route == null) {
+                route = resourceInfo.getResourceClass().getAnnotation(RequestTimeout.class);
+            }
+            if (route == null) {
+                return defaultTimeout;
+            }
+            return config.getOptionalValue("aurora.deadline.routes." + route.value(), Duration.class).orElse(defaultTimeout);
+        });
+    }
+}
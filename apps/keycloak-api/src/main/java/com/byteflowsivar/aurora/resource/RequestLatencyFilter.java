@@ -0,0 +1,31 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.service.WarmupService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.ext.Provider;
+
+@Provider
+public class RequestLatencyFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final String START_PROPERTY = "aurora.request-start-nanos";
+
+    @Inject
+    WarmupService warmupService;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        requestContext.setProperty(START_PROPERTY, System.nanoTime());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Object start = requestContext.getProperty(START_PROPERTY);
+        if (start instanceof Long startNanos) {
+            warmupService.recordRequestLatency(System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.byteflowsivar.aurora.resource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names the route whose default deadline, {@code aurora.deadline.routes.<route>},
+ * applies when the client sends no {@code X-Request-Timeout}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface RequestTimeout {
+
+    String value();
+}
@@ -0,0 +1,91 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.dto.ConstantErrorResponse;
+import com.byteflowsivar.aurora.dto.ErrorResponse;
+import com.byteflowsivar.aurora.dto.UserEventFeedResponse;
+import com.byteflowsivar.aurora.dto.UserEventResponse;
+import com.byteflowsivar.aurora.service.UserEventOutboxService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+
+@Path("/admin/user-events")
+@Produces(MediaType.APPLICATION_JSON)
+@AdminOnly
+@Tag(name = "User Events", description = "Feed de eventos de creación de usuarios para servicios de Aurora")
+public class UserEventFeedResource {
+
+    private static final Logger LOG = Logger.getLogger(UserEventFeedResource.class);
+    private static final int MAX_LIMIT = 1000;
+
+    @Inject
+    UserEventOutboxService userEventOutboxService;
+
+    @GET
+    @Operation(
+        summary = "Leer eventos de usuario",
+        description = "Devuelve los eventos publicados después del cursor, en orden. Para consumir el feed, "
+            + "repetir la consulta con el 'nextCursor' de la respuesta anterior"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Página de eventos",
+            content = @Content(schema = @Schema(implementation = UserEventFeedResponse.class))
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Parámetros de consulta inválidos",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
+        @APIResponse(
+            responseCode = "503",
+            description = "Outbox deshabilitado o base de datos no disponible",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    public Response readEvents(
+        @Parameter(description = "Cursor del último evento procesado; 0 para leer desde el inicio", example = "1042")
+        @QueryParam("after") @DefaultValue("0") long after,
+        @Parameter(description = "Número máximo de eventos (1-1000)", example = "100")
+        @QueryParam("limit") @DefaultValue("100") int limit) {
+        if (!userEventOutboxService.isEnabled()) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity(ConstantErrorResponse.OUTBOX_DISABLED)
+                    .build();
+        }
+        if (after < 0 || limit < 1 || limit > MAX_LIMIT) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(new ErrorResponse("'after' no puede ser negativo y 'limit' debe estar entre 1 y " + MAX_LIMIT,
+                        "VALIDATION_ERROR"))
+                    .build();
+        }
+
+        try {
+            List<UserEventResponse> events = userEventOutboxService.readAfter(after, limit).stream()
+                    .map(UserEventResponse::new)
+                    .toList();
+            return Response.ok(new UserEventFeedResponse(events, after)).build();
+        } catch (IllegalStateException e) {
+            LOG.errorf(e, "Error al leer el feed de eventos de usuario");
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity(ConstantErrorResponse.OUTBOX_UNAVAILABLE)
+                    .build();
+        }
+    }
+}
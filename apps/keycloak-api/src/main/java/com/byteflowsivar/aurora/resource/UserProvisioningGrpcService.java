@@ -0,0 +1,201 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.diagnostics.RateLimitRejectedEvent;
+import com.byteflowsivar.aurora.domain.User;
+import com.byteflowsivar.aurora.dto.ConstantErrorResponse;
+import com.byteflowsivar.aurora.dto.ErrorResponse;
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+import com.byteflowsivar.aurora.grpc.CreateUserReply;
+import com.byteflowsivar.aurora.grpc.CreateUserRequest;
+import com.byteflowsivar.aurora.grpc.ProvisioningError;
+import com.byteflowsivar.aurora.grpc.ProvisioningReply;
+import com.byteflowsivar.aurora.grpc.ProvisioningRequest;
+import com.byteflowsivar.aurora.grpc.UserExistsReply;
+import com.byteflowsivar.aurora.grpc.UserExistsRequest;
+import com.byteflowsivar.aurora.grpc.UserProvisioning;
+import com.byteflowsivar.aurora.service.AuditService;
+import com.byteflowsivar.aurora.service.KeycloakUserService;
+import com.byteflowsivar.aurora.service.RealmRegistry;
+import com.byteflowsivar.aurora.service.RequestDeadline;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.quarkus.grpc.GrpcService;
+import io.smallrye.faulttolerance.api.RateLimitException;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * gRPC face of the user endpoints, for services that provision users in bulk. Each
+ * operation goes through the same validation, audit and rate limit as its REST
+ * counterpart and reports the same error codes. Creation is always synchronous here.
+ */
+@GrpcService
+public class UserProvisioningGrpcService implements UserProvisioning {
+
+    static final Metadata.Key<String> ERROR_CODE =
+        Metadata.Key.of("aurora-error-code", Metadata.ASCII_STRING_MARSHALLER);
+
+    @Inject
+    KeycloakUserService keycloakUserService;
+
+    @Inject
+    AuditService auditService;
+
+    @Inject
+    RealmRegistry realmRegistry;
+
+    @Inject
+    GrpcRateLimits rateLimits;
+
+    @ConfigProperty(name = "aurora.grpc.stream.max-in-flight", defaultValue = "32")
+    int streamMaxInFlight;
+
+    @Override
+    public Uni<CreateUserReply> createUser(CreateUserRequest request) {
+        String clientInfo = GrpcClientContext.clientInfo();
+        RequestDeadline deadline = GrpcClientContext.deadline();
+        return blocking(deadline, () -> {
+            ProvisioningReply.Builder reply = create(request, clientInfo);
+            if (reply.hasError()) {
+                throw toStatus(reply.getError());
+            }
+            return reply.getCreated();
+        });
+    }
+
+    @Override
+    public Uni<UserExistsReply> userExists(UserExistsRequest request) {
+        String clientInfo = GrpcClientContext.clientInfo();
+        RequestDeadline deadline = GrpcClientContext.deadline();
+        return blocking(deadline, () -> {
+            ProvisioningReply.Builder reply = exists(request, clientInfo);
+            if (reply.hasError()) {
+                throw toStatus(reply.getError());
+            }
+            return reply.getExists();
+        });
+    }
+
+    @Override
+    public Multi<ProvisioningReply> provision(Multi<ProvisioningRequest> requests) {
+        String clientInfo = GrpcClientContext.clientInfo();
+        RequestDeadline deadline = GrpcClientContext.deadline();
+        // Up to max-in-flight operations of the stream run at once; replies go out as they finish
+        return requests
+            .onItem().transformToUni(request -> blocking(deadline, () -> handle(request, clientInfo)))
+            .merge(streamMaxInFlight);
+    }
+
+    private ProvisioningReply handle(ProvisioningRequest request, String clientInfo) {
+        ProvisioningReply.Builder reply = switch (request.getOperationCase()) {
+            case CREATE_USER -> create(request.getCreateUser(), clientInfo);
+            case USER_EXISTS -> exists(request.getUserExists(), clientInfo);
+            case OPERATION_NOT_SET -> error(new ErrorResponse("Operación no indicada", "VALIDATION_ERROR"), 400);
+        };
+        return reply.setCorrelationId(request.getCorrelationId()).build();
+    }
+
+    private ProvisioningReply.Builder create(CreateUserRequest request, String clientInfo) {
+        try {
+            rateLimits.createUser();
+            User user = toUser(request);
+            auditService.logUserCreationAttempt(user.getUsername(), user.getEmail(), clientInfo);
+            String realm = realm(request.getRealm());
+
+            if (keycloakUserService.userExists(realm, user.getUsername())) {
+                auditService.logUserCreationFailure("El usuario ya existe", clientInfo);
+                return error(ConstantErrorResponse.USER_ALREADY_EXISTS, 409);
+            }
+
+            String userId = keycloakUserService.createUser(realm, user);
+            auditService.logUserCreationSuccess(userId, clientInfo);
+            return ProvisioningReply.newBuilder()
+                .setCreated(CreateUserReply.newBuilder().setUserId(userId).setUsername(user.getUsername()));
+        } catch (RateLimitException e) {
+            RateLimitRejectedEvent.emit("create_user", clientInfo);
+            auditService.logRateLimitExceeded(clientInfo);
+            return error(ConstantErrorResponse.RATE_LIMIT_EXCEEDED, 429);
+        } catch (IllegalArgumentException e) {
+            auditService.logValidationError(e.getMessage(), clientInfo);
+            return error(new ErrorResponse(e.getMessage(), "VALIDATION_ERROR"), 400);
+        } catch (KeycloakServiceException e) {
+            auditService.logUserCreationFailure(e.getErrorCode() + ": " + e.getMessage(), clientInfo);
+            return error(new ErrorResponse(e.getMessage(), e.getErrorCode()), e.getHttpStatus());
+        } catch (Exception e) {
+            auditService.logUserCreationFailure("INTERNAL_ERROR: " + e.getMessage(), clientInfo);
+            return error(ConstantErrorResponse.INTERNAL_ERROR, 500);
+        }
+    }
+
+    private ProvisioningReply.Builder exists(UserExistsRequest request, String clientInfo) {
+        try {
+            auditService.logUserExistenceCheck(clientInfo);
+            String realm = realm(request.getRealm());
+            boolean exists = keycloakUserService.userExists(realm, request.getUsername());
+            return ProvisioningReply.newBuilder()
+                .setExists(UserExistsReply.newBuilder().setUsername(request.getUsername()).setExists(exists));
+        } catch (KeycloakServiceException e) {
+            auditService.logAuthenticationFailure(clientInfo);
+            return error(new ErrorResponse(e.getMessage(), e.getErrorCode()), e.getHttpStatus());
+        } catch (Exception e) {
+            return error(ConstantErrorResponse.EXISTENCE_CHECK_FAILED, 500);
+        }
+    }
+
+    private String realm(String realm) {
+        // An empty string is how proto3 says "not set"
+        return realmRegistry.resolve(realm.isEmpty() ? null : realm).name();
+    }
+
+    private static <T> Uni<T> blocking(RequestDeadline deadline, Supplier<T> work) {
+        // Keycloak calls block, so they must not run on the gRPC event loop
+        return Uni.createFrom().item(() -> RequestDeadline.callWithin(deadline, work))
+            .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    private static User toUser(CreateUserRequest request) {
+        return new User(
+            emptyToNull(request.getUsername()),
+            emptyToNull(request.getEmail()),
+            emptyToNull(request.getFirstName()),
+            emptyToNull(request.getLastName()),
+            emptyToNull(request.getPassword()),
+            request.hasEnabled() ? request.getEnabled() : null,
+            request.getRealmRolesCount() > 0 ? List.copyOf(request.getRealmRolesList()) : null,
+            request.getGroupsCount() > 0 ? List.copyOf(request.getGroupsList()) : null
+        );
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static ProvisioningReply.Builder error(ErrorResponse error, int httpStatus) {
+        return ProvisioningReply.newBuilder().setError(ProvisioningError.newBuilder()
+            .setErrorCode(error.errorCode)
+            .setMessage(error.error != null ? error.error : "")
+            .setHttpStatus(httpStatus));
+    }
+
+    private static StatusRuntimeException toStatus(ProvisioningError error) {
+        Status status = switch (error.getHttpStatus()) {
+            case 400 -> Status.INVALID_ARGUMENT;
+            case 404 -> Status.NOT_FOUND;
+            case 409 -> Status.ALREADY_EXISTS;
+            case 429 -> Status.RESOURCE_EXHAUSTED;
+            case 503 -> Status.UNAVAILABLE;
+            case 504 -> Status.DEADLINE_EXCEEDED;
+            default -> Status.INTERNAL;
+        };
+        Metadata trailers = new Metadata();
+        trailers.put(ERROR_CODE, error.getErrorCode());
+        return status.withDescription(error.getMessage()).asRuntimeException(trailers);
+    }
+}
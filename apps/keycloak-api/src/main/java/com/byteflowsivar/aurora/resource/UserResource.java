@@ -1,22 +1,36 @@
 package com.byteflowsivar.aurora.resource;
 
 import com.byteflowsivar.aurora.domain.User;
+import com.byteflowsivar.aurora.domain.UserCreationJob;
+import com.byteflowsivar.aurora.dto.ConstantErrorResponse;
 import com.byteflowsivar.aurora.dto.CreateUserResponse;
 import com.byteflowsivar.aurora.dto.ErrorResponse;
+import com.byteflowsivar.aurora.dto.UserCreationJobResponse;
 import com.byteflowsivar.aurora.dto.UserExistsResponse;
 import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+import com.byteflowsivar.aurora.service.AdmissionController;
+import com.byteflowsivar.aurora.service.AsyncUserCreationService;
 import com.byteflowsivar.aurora.service.AuditService;
 import com.byteflowsivar.aurora.service.KeycloakUserService;
+import com.byteflowsivar.aurora.service.RealmRegistry;
+import com.byteflowsivar.aurora.service.UserValidationService;
 import io.smallrye.faulttolerance.api.RateLimit;
-import io.smallrye.faulttolerance.api.RateLimitException;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.zip.CRC32;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -37,11 +51,29 @@ public class UserResource {
     @Inject
     AuditService auditService;
 
+    @Inject
+    AsyncUserCreationService asyncUserCreationService;
+
+    @Inject
+    UserValidationService userValidationService;
+
+    @Inject
+    RealmRegistry realmRegistry;
+
+    @ConfigProperty(name = "aurora.http-cache.user-exists.found-max-age", defaultValue = "PT60S")
+    Duration existsFoundMaxAge;
+
+    @ConfigProperty(name = "aurora.http-cache.user-exists.not-found-max-age", defaultValue = "PT5S")
+    Duration existsNotFoundMaxAge;
+
     @POST
+    @AdmissionPriority(AdmissionController.Priority.LOW)
+    @RequestTimeout("create-user")
     @RateLimit(value = 100, window = 1, windowUnit = ChronoUnit.MINUTES)
     @Operation(
         summary = "Crear nuevo usuario",
-        description = "Crea un nuevo usuario no administrador en el realm de Keycloak"
+        description = "Crea un nuevo usuario no administrador en el realm de Keycloak. El realm se toma de la ruta "
+            + "/realms/{realm}/users o del encabezado X-Realm; sin ninguno se usa el realm por defecto"
     )
     @APIResponses({
         @APIResponse(
@@ -49,6 +81,11 @@ public class UserResource {
             description = "Usuario creado exitosamente",
             content = @Content(schema = @Schema(implementation = CreateUserResponse.class))
         ),
+        @APIResponse(
+            responseCode = "202",
+            description = "Solicitud de creación aceptada para procesamiento asíncrono",
+            content = @Content(schema = @Schema(implementation = UserCreationJobResponse.class))
+        ),
         @APIResponse(
             responseCode = "400",
             description = "Datos de validación incorrectos",
@@ -64,6 +101,16 @@ public class UserResource {
             description = "El usuario ya existe",
             content = @Content(schema = @Schema(implementation = ErrorResponse.class))
         ),
+        @APIResponse(
+            responseCode = "503",
+            description = "Servidor sobrecargado; reintentar tras Retry-After",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
+        @APIResponse(
+            responseCode = "504",
+            description = "Plazo agotado (X-Request-Timeout o el de la ruta) o Keycloak no respondió a tiempo",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
         @APIResponse(
             responseCode = "500",
             description = "Error interno del servidor",
@@ -92,26 +139,31 @@ public class UserResource {
         
         try {
             auditService.logUserCreationAttempt(user.getUsername(), user.getEmail(), clientInfo);
+            String realm = getRealm(headers);
+
+            if (asyncUserCreationService.isEnabled()) {
+                userValidationService.validate(realm, user);
+                UserCreationJob job = asyncUserCreationService.submit(realm, user, clientInfo);
+                auditService.logUserCreationQueued(job.getJobId(), clientInfo);
+                return Response.accepted(new UserCreationJobResponse(job))
+                        .location(URI.create("/users/jobs/" + job.getJobId()))
+                        .build();
+            }
             
-            if (keycloakUserService.userExists(user.getUsername())) {
+            if (keycloakUserService.userExists(realm, user.getUsername())) {
                 auditService.logUserCreationFailure("El usuario ya existe", clientInfo);
                 return Response.status(Response.Status.CONFLICT)
-                        .entity(new ErrorResponse("El usuario ya existe", "USER_ALREADY_EXISTS"))
+                        .entity(ConstantErrorResponse.USER_ALREADY_EXISTS)
                         .build();
             }
 
-            String userId = keycloakUserService.createUser(user);
+            String userId = keycloakUserService.createUser(realm, user);
             auditService.logUserCreationSuccess(userId, clientInfo);
             
             return Response.status(Response.Status.CREATED)
                     .entity(new CreateUserResponse(userId, user.getUsername(), "Usuario creado exitosamente"))
                     .build();
                     
-        } catch (RateLimitException e) {
-            auditService.logRateLimitExceeded(clientInfo);
-            return Response.status(429)
-                    .entity(new ErrorResponse("Límite de velocidad excedido. Máximo 100 solicitudes por minuto", "RATE_LIMIT_EXCEEDED"))
-                    .build();
         } catch (IllegalArgumentException e) {
             auditService.logValidationError(e.getMessage(), clientInfo);
             return Response.status(Response.Status.BAD_REQUEST)
@@ -125,23 +177,41 @@ public class UserResource {
         } catch (Exception e) {
             auditService.logUserCreationFailure("INTERNAL_ERROR: " + e.getMessage(), clientInfo);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(new ErrorResponse("Error interno del servidor", "INTERNAL_ERROR"))
+                    .entity(ConstantErrorResponse.INTERNAL_ERROR)
                     .build();
         }
     }
 
     @GET
     @Path("/{username}/exists")
+    @AdmissionPriority(AdmissionController.Priority.HIGH)
+    @RequestTimeout("user-exists")
     @Operation(
         summary = "Verificar existencia de usuario",
-        description = "Verifica si un usuario existe en el realm de Keycloak"
+        description = "Verifica si un usuario existe en el realm de Keycloak. El realm se toma de la ruta "
+            + "/realms/{realm}/users o del encabezado X-Realm; sin ninguno se usa el realm por defecto"
     )
     @APIResponses({
         @APIResponse(
             responseCode = "200",
-            description = "Verificación completada",
+            description = "Verificación completada; cacheable según Cache-Control y revalidable con If-None-Match",
             content = @Content(schema = @Schema(implementation = UserExistsResponse.class))
         ),
+        @APIResponse(
+            responseCode = "304",
+            description = "La respuesta cacheada por el cliente (ETag en If-None-Match) sigue vigente. "
+                + "La revalidación consulta Keycloak igualmente; solo ahorra el cuerpo de la respuesta"
+        ),
+        @APIResponse(
+            responseCode = "503",
+            description = "Capacidad de lecturas hacia Keycloak agotada; reintentar en breve",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
+        @APIResponse(
+            responseCode = "504",
+            description = "Plazo agotado (X-Request-Timeout o el de la ruta) o Keycloak no respondió a tiempo",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        ),
         @APIResponse(
             responseCode = "500",
             description = "Error interno del servidor",
@@ -151,6 +221,7 @@ public class UserResource {
     public Response checkUserExists(
         @Context HttpHeaders headers,
         @Context UriInfo uriInfo,
+        @Context Request request,
         @Parameter(
             description = "Nombre de usuario a verificar",
             required = true,
@@ -161,8 +232,23 @@ public class UserResource {
         
         try {
             auditService.logUserExistenceCheck(clientInfo);
-            boolean exists = keycloakUserService.userExists(username);
-            return Response.ok(new UserExistsResponse(username, exists)).build();
+            String realm = getRealm(headers);
+            boolean exists = keycloakUserService.userExists(realm, username);
+
+            EntityTag tag = existsTag(realm, username, exists);
+            CacheControl cacheControl = existsCacheControl(exists);
+            Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+            if (notModified != null) {
+                return notModified
+                        .cacheControl(cacheControl)
+                        .header(HttpHeaders.VARY, RealmRoutingFilter.REALM_HEADER)
+                        .build();
+            }
+            return Response.ok(new UserExistsResponse(username, exists))
+                    .tag(tag)
+                    .cacheControl(cacheControl)
+                    .header(HttpHeaders.VARY, RealmRoutingFilter.REALM_HEADER)
+                    .build();
         } catch (KeycloakServiceException e) {
             auditService.logAuthenticationFailure(clientInfo);
             return Response.status(e.getHttpStatus())
@@ -170,35 +256,70 @@ public class UserResource {
                     .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(new ErrorResponse("Error al verificar existencia del usuario", "INTERNAL_ERROR"))
+                    .entity(ConstantErrorResponse.EXISTENCE_CHECK_FAILED)
                     .build();
         }
     }
     
-    private String getClientInfo(HttpHeaders headers) {
-        String clientIp = getClientIpAddress(headers);
-        String userAgent = headers.getHeaderString("User-Agent");
-        
-        return String.format("IP=%s UA=%s", 
-                           clientIp != null ? clientIp : "unknown",
-                           userAgent != null ? userAgent.substring(0, Math.min(userAgent.length(), 100)) : "unknown");
+    @GET
+    @Path("/jobs/{jobId}")
+    @AdmissionPriority(AdmissionController.Priority.HIGH)
+    @Operation(
+        summary = "Consultar solicitud de creación",
+        description = "Consulta el estado de una solicitud asíncrona de creación de usuario"
+    )
+    @APIResponses({
+        @APIResponse(
+            responseCode = "200",
+            description = "Estado de la solicitud",
+            content = @Content(schema = @Schema(implementation = UserCreationJobResponse.class))
+        ),
+        @APIResponse(
+            responseCode = "404",
+            description = "Solicitud no encontrada",
+            content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+        )
+    })
+    public Response getCreationJob(
+        @Parameter(
+            description = "ID de la solicitud de creación",
+            required = true,
+            example = "3f2b8c1e-9d4a-4c6b-8e2f-1a7d5c9b0e34"
+        )
+        @PathParam("jobId") String jobId) {
+        return asyncUserCreationService.getJob(jobId)
+                .map(job -> Response.ok(new UserCreationJobResponse(job)).build())
+                .orElseGet(() -> Response.status(Response.Status.NOT_FOUND)
+                        .entity(ConstantErrorResponse.JOB_NOT_FOUND)
+                        .build());
     }
     
-    private String getClientIpAddress(HttpHeaders headers) {
-        // Check for X-Forwarded-For header (common in load balancers/proxies)
-        String xForwardedFor = headers.getHeaderString("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            // Take the first IP in the chain
-            return xForwardedFor.split(",")[0].trim();
-        }
-        
-        // Check for X-Real-IP header (common in nginx)
-        String xRealIp = headers.getHeaderString("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-        
-        // In test environment or when headers are not available
-        return "test-client";
+    /**
+     * The answer only changes when the user is created or removed, so the tag is
+     * the answer itself, scoped to the realm and username it was given for. That
+     * also means it is only known after asking Keycloak: a revalidation still costs
+     * a lookup, and what it saves is the body and the client's own cache hits
+     * within max-age.
+     */
+    private static EntityTag existsTag(String realm, String username, boolean exists) {
+        CRC32 crc = new CRC32();
+        crc.update((realm + '/' + username).getBytes(StandardCharsets.UTF_8));
+        return new EntityTag((exists ? "exists-" : "absent-") + Long.toHexString(crc.getValue()));
+    }
+
+    private CacheControl existsCacheControl(boolean exists) {
+        // A missing user may be created at any moment, so "no" is trusted for less time than "yes"
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setMaxAge((int) (exists ? existsFoundMaxAge : existsNotFoundMaxAge).toSeconds());
+        return cacheControl;
+    }
+
+    private String getRealm(HttpHeaders headers) {
+        // Rejects unknown realms before any work is queued for them
+        return realmRegistry.resolve(headers.getHeaderString(RealmRoutingFilter.REALM_HEADER)).name();
+    }
+
+    private String getClientInfo(HttpHeaders headers) {
+        return ClientInfo.describe(headers::getHeaderString);
     }
 }
\ No newline at end of file
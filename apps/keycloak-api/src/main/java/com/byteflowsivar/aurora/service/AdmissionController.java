@@ -0,0 +1,173 @@
+package com.byteflowsivar.aurora.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides at dequeue time whether a request is still worth serving. Queue time is
+ * watched CoDel-style: when even the shortest wait of an interval stays above the
+ * target, the server is overloaded and low-priority requests are shed as soon as
+ * they have waited longer than the target. A concurrency cap keeps part of the
+ * capacity for high-priority requests.
+ */
+@ApplicationScoped
+public class AdmissionController {
+
+    private static final Logger LOG = Logger.getLogger(AdmissionController.class);
+
+    public enum Priority {
+        /** Cheap reads such as existence checks and job status. */
+        HIGH,
+        NORMAL,
+        /** Expensive writes such as user creation; shed first. */
+        LOW
+    }
+
+    public enum Decision {
+        ADMITTED,
+        SHED_QUEUE_TIME,
+        SHED_CONCURRENCY
+    }
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "aurora.admission.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "aurora.admission.target-queue-time", defaultValue = "PT0.005S")
+    Duration target;
+
+    @ConfigProperty(name = "aurora.admission.interval", defaultValue = "PT0.1S")
+    Duration interval;
+
+    @ConfigProperty(name = "aurora.admission.max-queue-time", defaultValue = "PT1S")
+    Duration maxQueueTime;
+
+    @ConfigProperty(name = "aurora.admission.max-concurrent", defaultValue = "200")
+    int maxConcurrent;
+
+    @ConfigProperty(name = "aurora.admission.low-priority-share", defaultValue = "0.75")
+    double lowPriorityShare;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong intervalEndNanos = new AtomicLong();
+    private final AtomicLong intervalMinNanos = new AtomicLong(Long.MAX_VALUE);
+    private volatile boolean overloaded;
+
+    private long targetNanos;
+    private long intervalNanos;
+    private long maxQueueNanos;
+    private int lowPriorityLimit;
+    private final Map<Priority, Map<Decision, Counter>> decisions = new EnumMap<>(Priority.class);
+    private final Map<Priority, Timer> queueTimes = new EnumMap<>(Priority.class);
+
+    @PostConstruct
+    void init() {
+        targetNanos = target.toNanos();
+        intervalNanos = interval.toNanos();
+        maxQueueNanos = Math.max(maxQueueTime.toNanos(), intervalNanos);
+        lowPriorityLimit = Math.max(1, (int) (maxConcurrent * lowPriorityShare));
+        intervalEndNanos.set(System.nanoTime() + intervalNanos);
+
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            Map<Decision, Counter> counters = new EnumMap<>(Decision.class);
+            for (Decision decision : Decision.values()) {
+                counters.put(decision, meterRegistry.counter("aurora.admission.requests",
+                    "priority", tag, "outcome", decision.name().toLowerCase()));
+            }
+            decisions.put(priority, counters);
+            queueTimes.put(priority, meterRegistry.timer("aurora.admission.queue-time", "priority", tag));
+        }
+        meterRegistry.gauge("aurora.admission.inflight", Tags.empty(), inFlight, AtomicInteger::get);
+        meterRegistry.gauge("aurora.admission.overloaded", Tags.empty(), this, controller -> controller.overloaded ? 1 : 0);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+
+    /**
+     * Called once the request reaches a worker thread. An admitted request must be
+     * paired with {@link #release()}.
+     */
+    public Decision admit(Priority priority, long queuedNanos) {
+        queueTimes.get(priority).record(queuedNanos, TimeUnit.NANOSECONDS);
+        boolean overloadedNow = observe(queuedNanos);
+
+        Decision decision;
+        if (queuedNanos > queueLimit(priority, overloadedNow)) {
+            // The client has likely given up or is about to; serving it would only delay the others
+            decision = Decision.SHED_QUEUE_TIME;
+        } else if (!tryAcquire(priority == Priority.LOW ? lowPriorityLimit : maxConcurrent)) {
+            decision = Decision.SHED_CONCURRENCY;
+        } else {
+            decision = Decision.ADMITTED;
+        }
+        decisions.get(priority).get(decision).increment();
+        return decision;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    private long queueLimit(Priority priority, boolean overloadedNow) {
+        return switch (priority) {
+            case LOW -> overloadedNow ? targetNanos : maxQueueNanos;
+            case NORMAL -> overloadedNow ? intervalNanos : maxQueueNanos;
+            case HIGH -> maxQueueNanos;
+        };
+    }
+
+    private boolean tryAcquire(int limit) {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private boolean observe(long queuedNanos) {
+        intervalMinNanos.accumulateAndGet(queuedNanos, Math::min);
+        long now = System.nanoTime();
+        long end = intervalEndNanos.get();
+        if (now - end >= 0 && intervalEndNanos.compareAndSet(end, now + intervalNanos)) {
+            // Only the thread that closes the interval judges it
+            boolean wasOverloaded = overloaded;
+            long minimum = intervalMinNanos.getAndSet(Long.MAX_VALUE);
+            overloaded = minimum != Long.MAX_VALUE && minimum > targetNanos;
+            if (overloaded != wasOverloaded) {
+                if (overloaded) {
+                    LOG.warnf("Sobrecarga detectada: tiempo mínimo en cola superior a %d ms; descartando solicitudes de baja prioridad",
+                        TimeUnit.NANOSECONDS.toMillis(targetNanos));
+                } else {
+                    LOG.info("Sobrecarga finalizada");
+                }
+            }
+        }
+        return overloaded;
+    }
+}
@@ -0,0 +1,35 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.domain.User;
+import com.byteflowsivar.aurora.domain.UserValidator;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+import java.util.Optional;
+
+@ApplicationScoped
+public class AssignmentPolicyValidator implements UserValidator {
+
+    @ConfigProperty(name = "aurora.user-creation.assignable-realm-roles")
+    Optional<List<String>> assignableRealmRoles;
+
+    @ConfigProperty(name = "aurora.user-creation.assignable-groups")
+    Optional<List<String>> assignableGroups;
+
+    @Override
+    public void validate(User user) {
+        // POST /users is public, so without an allowlist nothing may be requested
+        check(user.getRealmRoles(), assignableRealmRoles, "El rol no se puede asignar: ");
+        check(user.getGroups(), assignableGroups, "El grupo no se puede asignar: ");
+    }
+
+    private static void check(List<String> requested, Optional<List<String>> allowed, String message) {
+        List<String> allowedNames = allowed.orElse(List.of());
+        for (String name : requested) {
+            if (!allowedNames.contains(name)) {
+                throw new IllegalArgumentException(message + name);
+            }
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.domain.User;
+import com.byteflowsivar.aurora.domain.UserCreationJob;
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+import com.byteflowsivar.aurora.storage.SegmentedLog;
+import com.byteflowsivar.aurora.storage.UserCreationJournal;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ApplicationScoped
+public class AsyncUserCreationService {
+
+    private static final Logger LOG = Logger.getLogger(AsyncUserCreationService.class);
+
+    @Inject
+    KeycloakUserService keycloakUserService;
+
+    @Inject
+    AuditService auditService;
+
+    @ConfigProperty(name = "aurora.async-creation.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "aurora.async-creation.journal.path", defaultValue = "./data/creation-journal")
+    String journalPath;
+
+    @ConfigProperty(name = "aurora.async-creation.journal.segment-size-mb", defaultValue = "16")
+    int segmentSizeMb;
+
+    @ConfigProperty(name = "aurora.async-creation.journal.sync-writes", defaultValue = "true")
+    boolean syncWrites;
+
+    @ConfigProperty(name = "aurora.async-creation.journal.encryption-key")
+    Optional<String> encryptionKey;
+
+    @ConfigProperty(name = "aurora.async-creation.workers", defaultValue = "4")
+    int workerCount;
+
+    @ConfigProperty(name = "aurora.async-creation.batch-size", defaultValue = "32")
+    int batchSize;
+
+    @ConfigProperty(name = "aurora.async-creation.max-pending", defaultValue = "100000")
+    int maxPending;
+
+    @ConfigProperty(name = "aurora.async-creation.max-attempts", defaultValue = "5")
+    int maxAttempts;
+
+    @ConfigProperty(name = "aurora.async-creation.retry-backoff", defaultValue = "PT1S")
+    Duration retryBackoff;
+
+    @ConfigProperty(name = "aurora.async-creation.status-retention", defaultValue = "PT24H")
+    Duration statusRetention;
+
+    private final Map<String, UserCreationJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> pendingPerSegment = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingCreation> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Object segmentLock = new Object();
+
+    private UserCreationJournal journal;
+    private ExecutorService workers;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // Journal records hold passwords; a key known to everyone would not protect them
+        String key = encryptionKey.filter(value -> !value.isBlank()).orElseThrow(() -> new IllegalStateException(
+            "La creación asíncrona requiere aurora.async-creation.journal.encryption-key (ASYNC_JOURNAL_KEY)"));
+        try {
+            journal = new UserCreationJournal(
+                Paths.get(journalPath),
+                segmentSizeMb * 1024 * 1024,
+                key,
+                syncWrites
+            );
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo abrir el journal de creación en: " + journalPath, e);
+        }
+
+        int recovered = replayJournal();
+        LOG.infof("Journal de creación asíncrona abierto en %s, %d solicitudes pendientes recuperadas", journalPath, recovered);
+
+        running = true;
+        workers = Executors.newFixedThreadPool(workerCount, namedThreads("async-user-creation"));
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::drainQueue);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("async-user-creation-maintenance"));
+        scheduler.scheduleWithFixedDelay(this::maintain, 30, 30, TimeUnit.SECONDS);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public UserCreationJob submit(User user, String clientInfo) {
+        return submit(null, user, clientInfo);
+    }
+
+    public UserCreationJob submit(String realm, User user, String clientInfo) {
+        if (!running) {
+            throw new KeycloakServiceException(
+                "La creación asíncrona de usuarios no está disponible",
+                "ASYNC_CREATION_UNAVAILABLE",
+                503
+            );
+        }
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            throw new KeycloakServiceException(
+                "Demasiadas solicitudes de creación pendientes. Intente más tarde",
+                "ASYNC_QUEUE_FULL",
+                503
+            );
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        UserCreationJob job = UserCreationJob.pending(jobId, user.getUsername(), now);
+        synchronized (segmentLock) {
+            long position;
+            try {
+                position = journal.appendSubmitted(jobId, now, user, clientInfo, realm);
+            } catch (RuntimeException e) {
+                pendingCount.decrementAndGet();
+                LOG.errorf(e, "Error al registrar la solicitud de creación en el journal");
+                throw new KeycloakServiceException(
+                    "Error al registrar la solicitud de creación",
+                    "ASYNC_JOURNAL_WRITE_FAILED",
+                    500,
+                    e
+                );
+            }
+            jobs.put(jobId, job);
+            enqueue(new PendingCreation(jobId, realm, user, clientInfo, SegmentedLog.segmentIdOf(position)));
+        }
+        LOG.debugf("Solicitud de creación %s encolada", jobId);
+        return job;
+    }
+
+    public Optional<UserCreationJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private int replayJournal() {
+        Map<String, PendingCreation> recovered = new LinkedHashMap<>();
+        journal.replay(new UserCreationJournal.ReplayHandler() {
+            @Override
+            public void onSubmitted(long position, String jobId, Instant submittedAt, User user, String clientInfo, String realm) {
+                jobs.put(jobId, UserCreationJob.pending(jobId, user.getUsername(), submittedAt));
+                recovered.put(jobId, new PendingCreation(jobId, realm, user, clientInfo, SegmentedLog.segmentIdOf(position)));
+            }
+
+            @Override
+            public void onCompleted(String jobId, Instant completedAt, int attempts, String userId) {
+                recovered.remove(jobId);
+                UserCreationJob job = jobs.get(jobId);
+                if (job != null) {
+                    jobs.put(jobId, job.completed(userId, completedAt));
+                }
+            }
+
+            @Override
+            public void onFailed(String jobId, Instant failedAt, int attempts, String errorCode, String errorMessage) {
+                recovered.remove(jobId);
+                UserCreationJob job = jobs.get(jobId);
+                if (job != null) {
+                    jobs.put(jobId, job.failed(errorCode, errorMessage, failedAt));
+                }
+            }
+        });
+
+        for (PendingCreation creation : recovered.values()) {
+            pendingCount.incrementAndGet();
+            enqueue(creation);
+        }
+        return recovered.size();
+    }
+
+    private void enqueue(PendingCreation creation) {
+        pendingPerSegment.computeIfAbsent(creation.segmentId, id -> new AtomicInteger()).incrementAndGet();
+        queue.add(creation);
+    }
+
+    private void drainQueue() {
+        List<PendingCreation> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingCreation first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                for (PendingCreation creation : batch) {
+                    process(creation);
+                }
+                // Terminal records of the whole batch share a single flush
+                journal.force();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOG.errorf(e, "Error inesperado procesando lote de creación asíncrona");
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(PendingCreation creation) {
+        UserCreationJob job = jobs.get(creation.jobId);
+        if (job == null) {
+            job = UserCreationJob.pending(creation.jobId, creation.user.getUsername(), Instant.now());
+        }
+
+        try {
+            String userId = keycloakUserService.createUser(creation.realm, creation.user);
+            journal.appendCompleted(creation.jobId, userId, job.getAttempts() + 1);
+            jobs.put(creation.jobId, job.completed(userId, Instant.now()));
+            auditService.logUserCreationSuccess(userId, creation.clientInfo);
+            release(creation);
+        } catch (IllegalArgumentException e) {
+            auditService.logValidationError(e.getMessage(), creation.clientInfo);
+            fail(creation, job, "VALIDATION_ERROR", e.getMessage());
+        } catch (KeycloakServiceException e) {
+            if (isRetryable(e) && job.getAttempts() + 1 < maxAttempts) {
+                retry(creation, job, e);
+            } else {
+                auditService.logUserCreationFailure(e.getErrorCode() + ": " + e.getMessage(), creation.clientInfo);
+                fail(creation, job, e.getErrorCode(), e.getMessage());
+            }
+        } catch (Exception e) {
+            if (job.getAttempts() + 1 < maxAttempts) {
+                retry(creation, job, e);
+            } else {
+                auditService.logUserCreationFailure("INTERNAL_ERROR: " + e.getMessage(), creation.clientInfo);
+                fail(creation, job, "INTERNAL_ERROR", "Error interno del servidor");
+            }
+        }
+    }
+
+    private boolean isRetryable(KeycloakServiceException e) {
+        // A failed password reset or role assignment leaves the user created, so repeating the create would only hit a 409
+        return (e.getHttpStatus() >= 500 || e.getHttpStatus() == 429)
+            && !"PASSWORD_SET_FAILED".equals(e.getErrorCode())
+            && !"ROLE_ASSIGNMENT_FAILED".equals(e.getErrorCode());
+    }
+
+    private void retry(PendingCreation creation, UserCreationJob job, Exception cause) {
+        UserCreationJob retrying = job.retrying(Instant.now());
+        jobs.put(creation.jobId, retrying);
+        long delayMillis = retryBackoff.toMillis() << Math.min(retrying.getAttempts() - 1, 10);
+        LOG.warnf("Reintentando solicitud de creación %s en %d ms (intento %d): %s",
+            creation.jobId, delayMillis, retrying.getAttempts(), cause.getMessage());
+        scheduler.schedule(() -> queue.add(creation), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void fail(PendingCreation creation, UserCreationJob job, String errorCode, String errorMessage) {
+        journal.appendFailed(creation.jobId, job.getAttempts() + 1, errorCode, errorMessage);
+        jobs.put(creation.jobId, job.failed(errorCode, errorMessage, Instant.now()));
+        LOG.warnf("Solicitud de creación %s fallida: %s", creation.jobId, errorCode);
+        release(creation);
+    }
+
+    private void release(PendingCreation creation) {
+        pendingCount.decrementAndGet();
+        AtomicInteger remaining = pendingPerSegment.get(creation.segmentId);
+        if (remaining != null) {
+            remaining.decrementAndGet();
+        }
+    }
+
+    private void maintain() {
+        try {
+            synchronized (segmentLock) {
+                for (long segmentId : deletableSegments(journal.segmentIds(), journal.activeSegmentId(), pendingPerSegment)) {
+                    if (!journal.deleteSegment(segmentId)) {
+                        break;
+                    }
+                    pendingPerSegment.remove(segmentId);
+                    LOG.debugf("Segmento %d del journal de creación eliminado", segmentId);
+                }
+            }
+
+            Instant cutoff = Instant.now().minus(statusRetention);
+            jobs.values().removeIf(job -> job.isTerminal() && job.getUpdatedAt().isBefore(cutoff));
+        } catch (Exception e) {
+            LOG.errorf(e, "Error en el mantenimiento del journal de creación");
+        }
+    }
+
+    /**
+     * Oldest segments that replay no longer needs, in order. A segment also holds
+     * the terminal records of jobs submitted in older segments, so deletion stops at
+     * the first segment that still has pending submissions: dropping a later one
+     * would make those jobs look pending again after a restart.
+     */
+    static List<Long> deletableSegments(List<Long> segmentIds, long activeSegmentId, Map<Long, AtomicInteger> pendingPerSegment) {
+        List<Long> deletable = new ArrayList<>();
+        for (long segmentId : segmentIds) {
+            AtomicInteger remaining = pendingPerSegment.get(segmentId);
+            if (segmentId >= activeSegmentId || (remaining != null && remaining.get() > 0)) {
+                break;
+            }
+            deletable.add(segmentId);
+        }
+        return deletable;
+    }
+
+    private static ThreadFactory namedThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class PendingCreation {
+
+        final String jobId;
+        final String realm;
+        final User user;
+        final String clientInfo;
+        final long segmentId;
+
+        PendingCreation(String jobId, String realm, User user, String clientInfo, long segmentId) {
+            this.jobId = jobId;
+            this.realm = realm;
+            this.user = user;
+            this.clientInfo = clientInfo;
+            this.segmentId = segmentId;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.codec.JsonOutput;
+import com.byteflowsivar.aurora.storage.AuditEventStore.AuditEvent;
+import com.byteflowsivar.aurora.storage.AuditSpillLog;
+import com.byteflowsivar.aurora.storage.AuditSpillLog.Entry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.postgresql.PGConnection;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ships security events to the {@code audit_event} table of aurora_db. Request
+ * threads only offer events to a bounded in-memory buffer; a single flusher thread
+ * writes them with COPY in batches closed by size or by time. When the buffer is
+ * full, or the database is slow or down, events go to a local {@link AuditSpillLog}
+ * and are replayed once the database accepts writes again. Delivery is at least
+ * once: a crash between a COPY and the spill checkpoint replays that batch. A batch
+ * the database refuses for its content, not its availability, is split until the
+ * offending events are found; those are logged and counted, never retried.
+ */
+@ApplicationScoped
+public class AuditDatabaseSink {
+
+    private static final Logger LOG = Logger.getLogger(AuditDatabaseSink.class);
+
+    private static final String CREATE_TABLE = """
+        CREATE TABLE IF NOT EXISTS audit_event (
+            id BIGSERIAL PRIMARY KEY,
+            occurred_at TIMESTAMP WITH TIME ZONE NOT NULL,
+            event_type VARCHAR(64) NOT NULL,
+            client_ip TEXT NOT NULL,
+            details JSONB NOT NULL
+        )""";
+
+    // Tables created before client_ip was TEXT; the header it comes from has no length limit.
+    // Checked first because the ALTER locks this hot table exclusively even when it changes nothing
+    private static final String WIDEN_CLIENT_IP = """
+        DO $$
+        BEGIN
+            IF EXISTS (SELECT 1 FROM information_schema.columns
+                       WHERE table_schema = current_schema() AND table_name = 'audit_event'
+                         AND column_name = 'client_ip' AND data_type <> 'text') THEN
+                ALTER TABLE audit_event ALTER COLUMN client_ip TYPE TEXT;
+            END IF;
+        END $$""";
+
+    private static final String CREATE_INDEX =
+        "CREATE INDEX IF NOT EXISTS audit_event_occurred_at_idx ON audit_event (occurred_at)";
+
+    private static final String COPY_SQL =
+        "COPY audit_event (occurred_at, event_type, client_ip, details) FROM STDIN";
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "aurora.audit-db.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "aurora.audit-db.buffer-capacity", defaultValue = "65536")
+    int bufferCapacity;
+
+    @ConfigProperty(name = "aurora.audit-db.batch-size", defaultValue = "5000")
+    int batchSize;
+
+    @ConfigProperty(name = "aurora.audit-db.flush-interval", defaultValue = "PT0.2S")
+    Duration flushInterval;
+
+    @ConfigProperty(name = "aurora.audit-db.retry-backoff", defaultValue = "PT1S")
+    Duration retryBackoff;
+
+    @ConfigProperty(name = "aurora.audit-db.max-retry-backoff", defaultValue = "PT30S")
+    Duration maxRetryBackoff;
+
+    @ConfigProperty(name = "aurora.audit-db.spill.path", defaultValue = "./data/audit-spill")
+    String spillPath;
+
+    @ConfigProperty(name = "aurora.audit-db.spill.segment-size-mb", defaultValue = "32")
+    int spillSegmentSizeMb;
+
+    @ConfigProperty(name = "aurora.audit-db.spill.max-size-mb", defaultValue = "2048")
+    long spillMaxSizeMb;
+
+    @ConfigProperty(name = "aurora.audit-db.create-schema", defaultValue = "true")
+    boolean createSchema;
+
+    private BlockingQueue<AuditEvent> buffer;
+    private AuditSpillLog spill;
+    private Thread flusher;
+    private volatile boolean running;
+    private boolean schemaReady;
+    private long retryAtNanos;
+    private long backoffMillis;
+    private Counter written;
+    private Counter spilled;
+    private Counter replayed;
+    private Counter dropped;
+    private Counter rejected;
+    private Counter flushFailures;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            spill = new AuditSpillLog(Paths.get(spillPath), spillSegmentSizeMb * 1024 * 1024);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo abrir el volcado local de auditoría en: " + spillPath, e);
+        }
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        backoffMillis = retryBackoff.toMillis();
+        written = meterRegistry.counter("aurora.audit-db.written");
+        spilled = meterRegistry.counter("aurora.audit-db.spilled");
+        replayed = meterRegistry.counter("aurora.audit-db.replayed");
+        dropped = meterRegistry.counter("aurora.audit-db.dropped");
+        rejected = meterRegistry.counter("aurora.audit-db.rejected");
+        flushFailures = meterRegistry.counter("aurora.audit-db.flush-failures");
+        batchTimer = meterRegistry.timer("aurora.audit-db.batch");
+        meterRegistry.gauge("aurora.audit-db.buffered", Tags.empty(), buffer, BlockingQueue::size);
+        meterRegistry.gauge("aurora.audit-db.spill.pending", Tags.empty(), spill, AuditSpillLog::pending);
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "audit-db-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        LOG.infof("Sumidero de auditoría en base de datos habilitado (%d eventos pendientes de reenvío en %s)",
+            spill.pending(), spillPath);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (spill == null) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever the flusher could not write is kept for the next start
+        List<AuditEvent> remaining = new ArrayList<>(buffer.size());
+        buffer.drainTo(remaining);
+        spillAll(remaining);
+        spill.force();
+        spill.close();
+    }
+
+    public boolean isEnabled() {
+        return spill != null;
+    }
+
+    public void record(String eventType, Instant timestamp, String clientIp, Map<String, String> details) {
+        if (spill == null) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(timestamp.toEpochMilli(), eventType, clientIp, details);
+        if (!buffer.offer(event)) {
+            // The flusher is behind; the spill is a local append and keeps the request fast
+            spillAll(List.of(event));
+        }
+    }
+
+    private void flushLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                // With a backlog to replay there is no reason to sit idle waiting for new events
+                collect(batch, spill.pending() > 0 && System.nanoTime() >= retryAtNanos ? 0 : flushInterval.toNanos());
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (!batch.isEmpty()) {
+                if (System.nanoTime() < retryAtNanos) {
+                    // The database failed recently; keep the buffer free instead of retrying every batch
+                    spillAll(batch);
+                } else if (!write(batch)) {
+                    spillAll(batch);
+                }
+                batch.clear();
+            }
+            if (spill.pending() > 0 && System.nanoTime() >= retryAtNanos) {
+                replay();
+            }
+        }
+        // Events collected when shutdown interrupted the wait
+        spillAll(batch);
+    }
+
+    /**
+     * Fills the batch until it is full or the flush interval since its first event
+     * has passed.
+     */
+    private void collect(List<AuditEvent> batch, long idleWaitNanos) throws InterruptedException {
+        AuditEvent first = buffer.poll(idleWaitNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long closeAt = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < batchSize) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            long remaining = closeAt - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            AuditEvent next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void replay() {
+        List<Entry> entries = spill.readPending(batchSize);
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<AuditEvent> events = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            events.add(entry.event());
+        }
+        if (write(events)) {
+            spill.commit(entries.get(entries.size() - 1), entries.size());
+            replayed.increment(entries.size());
+        }
+    }
+
+    private boolean write(List<AuditEvent> events) {
+        long start = System.nanoTime();
+        try {
+            copy(events);
+            written.increment(events.size());
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            backoffMillis = retryBackoff.toMillis();
+            retryAtNanos = 0;
+            return true;
+        } catch (Exception e) {
+            if (isDataError(e)) {
+                // Retrying would fail the same way and hold back every event behind it
+                return writeAround(events, e);
+            }
+            flushFailures.increment();
+            LOG.errorf(e, "Error al escribir %d eventos de auditoría en la base de datos; reintento en %d ms",
+                events.size(), backoffMillis);
+            retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis);
+            backoffMillis = Math.min(backoffMillis * 2, maxRetryBackoff.toMillis());
+            return false;
+        }
+    }
+
+    /**
+     * Writes the events the database accepts, halving the batch until the refused
+     * ones are isolated.
+     */
+    private boolean writeAround(List<AuditEvent> events, Exception cause) {
+        if (events.size() == 1) {
+            AuditEvent event = events.get(0);
+            rejected.increment();
+            LOG.errorf("Evento de auditoría %s rechazado por la base de datos, se descarta (sigue en el log AUDIT): %s",
+                event.eventType(), cause.getMessage());
+            return true;
+        }
+        int half = events.size() / 2;
+        return write(events.subList(0, half)) && write(events.subList(half, events.size()));
+    }
+
+    /**
+     * SQLSTATE classes 22 (data exception) and 23 (integrity constraint violation)
+     * depend on the rows, not on the database being reachable.
+     */
+    static boolean isDataError(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlError && sqlError.getSQLState() != null
+                    && (sqlError.getSQLState().startsWith("22") || sqlError.getSQLState().startsWith("23"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void copy(List<AuditEvent> events) throws SQLException, IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!schemaReady && createSchema) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_TABLE);
+                    statement.execute(WIDEN_CLIENT_IP);
+                    statement.execute(CREATE_INDEX);
+                }
+                schemaReady = true;
+            }
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(copyRows(events)));
+        }
+    }
+
+    private void spillAll(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (spill.sizeBound() >= spillMaxSizeMb * 1024 * 1024) {
+            // The AUDIT log file still has them
+            dropped.increment(events.size());
+            return;
+        }
+        try {
+            spill.appendAll(events);
+            spilled.increment(events.size());
+        } catch (Exception e) {
+            dropped.increment(events.size());
+            LOG.errorf(e, "Error al volcar %d eventos de auditoría al disco local", events.size());
+        }
+    }
+
+    /**
+     * Rows in COPY text format: tab-separated columns, backslash escapes.
+     */
+    static String copyRows(List<AuditEvent> events) {
+        StringBuilder rows = new StringBuilder(events.size() * 160);
+        for (AuditEvent event : events) {
+            rows.append(Instant.ofEpochMilli(event.timestampMillis())).append('\t');
+            appendCopyValue(rows, event.eventType()).append('\t');
+            appendCopyValue(rows, event.clientIp()).append('\t');
+            appendCopyValue(rows, detailsJson(event.details())).append('\n');
+        }
+        return rows.toString();
+    }
+
+    private static String detailsJson(Map<String, String> details) {
+        JsonOutput json = new JsonOutput(64 + details.size() * 48);
+        json.ascii("{");
+        boolean first = true;
+        for (Map.Entry<String, String> detail : details.entrySet()) {
+            if (!first) {
+                json.ascii(",");
+            }
+            json.string(detail.getKey()).ascii(":").string(detail.getValue());
+            first = false;
+        }
+        json.ascii("}");
+        return new String(json.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static StringBuilder appendCopyValue(StringBuilder rows, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> rows.append("\\\\");
+                case '\t' -> rows.append("\\t");
+                case '\n' -> rows.append("\\n");
+                case '\r' -> rows.append("\\r");
+                default -> rows.append(c);
+            }
+        }
+        return rows;
+    }
+}
@@ -1,15 +1,26 @@
 package com.byteflowsivar.aurora.service;
 
+import com.byteflowsivar.aurora.diagnostics.AuditWriteEvent;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
 
 import java.time.Instant;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @ApplicationScoped
 public class AuditService {
 
     private static final Logger AUDIT_LOG = Logger.getLogger("AUDIT");
+    private static final Pattern CLIENT_IP = Pattern.compile("IP=([^\\s\"]+)");
+
+    @Inject
+    AuditStoreService auditStoreService;
+
+    @Inject
+    AuditDatabaseSink auditDatabaseSink;
 
     public void logUserCreationAttempt(String username, String email, String clientInfo) {
         logSecurityEvent("USER_CREATION_ATTEMPT", Map.of(
@@ -26,6 +37,13 @@ public class AuditService {
         ));
     }
 
+    public void logUserCreationQueued(String jobId, String clientInfo) {
+        logSecurityEvent("USER_CREATION_QUEUED", Map.of(
+            "job_id", sanitizeForLog(jobId),
+            "client_info", sanitizeForLog(clientInfo)
+        ));
+    }
+
     public void logUserCreationFailure(String reason, String clientInfo) {
         logSecurityEvent("USER_CREATION_FAILURE", Map.of(
             "reason", sanitizeForLog(reason),
@@ -67,18 +85,40 @@ public class AuditService {
     }
 
     private void logSecurityEvent(String eventType, Map<String, String> details) {
+        AuditWriteEvent event = new AuditWriteEvent();
+        event.begin();
+        Instant timestamp = Instant.now();
+        AUDIT_LOG.infof(formatSecurityEvent(eventType, timestamp, details));
+        String clientIp = extractClientIp(details.get("client_info"));
+        auditStoreService.record(eventType, timestamp, clientIp, details);
+        auditDatabaseSink.record(eventType, timestamp, clientIp, details);
+        if (event.shouldCommit()) {
+            event.eventType = eventType;
+            event.commit();
+        }
+    }
+
+    String formatSecurityEvent(String eventType, Instant timestamp, Map<String, String> details) {
         StringBuilder logMessage = new StringBuilder();
         logMessage.append("SECURITY_EVENT=").append(eventType);
-        logMessage.append(" TIMESTAMP=").append(Instant.now().toString());
+        logMessage.append(" TIMESTAMP=").append(timestamp.toString());
         
         details.forEach((key, value) -> 
             logMessage.append(" ").append(key.toUpperCase()).append("=").append(value)
         );
         
-        AUDIT_LOG.infof(logMessage.toString());
+        return logMessage.toString();
+    }
+
+    String extractClientIp(String clientInfo) {
+        if (clientInfo == null) {
+            return "unknown";
+        }
+        Matcher matcher = CLIENT_IP.matcher(clientInfo);
+        return matcher.find() ? matcher.group(1) : "unknown";
     }
 
-    private String sanitizeForLog(String input) {
+    String sanitizeForLog(String input) {
         if (input == null) {
             return "null";
         }
@@ -0,0 +1,108 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.storage.AuditEventStore;
+import com.byteflowsivar.aurora.storage.AuditEventStore.AuditEvent;
+import com.byteflowsivar.aurora.storage.AuditEventStore.AuditQuery;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@ApplicationScoped
+public class AuditStoreService {
+
+    private static final Logger LOG = Logger.getLogger(AuditStoreService.class);
+
+    @ConfigProperty(name = "aurora.audit-store.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "aurora.audit-store.path", defaultValue = "./data/audit")
+    String path;
+
+    @ConfigProperty(name = "aurora.audit-store.segment-size-mb", defaultValue = "64")
+    int segmentSizeMb;
+
+    @ConfigProperty(name = "aurora.audit-store.index-interval", defaultValue = "128")
+    int indexInterval;
+
+    @ConfigProperty(name = "aurora.audit-store.retention.max-size-mb", defaultValue = "2048")
+    long maxSizeMb;
+
+    @ConfigProperty(name = "aurora.audit-store.retention.max-age", defaultValue = "P90D")
+    Duration maxAge;
+
+    private AuditEventStore store;
+    private ScheduledExecutorService maintenance;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            store = new AuditEventStore(Paths.get(path), segmentSizeMb * 1024 * 1024, indexInterval);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo abrir el almacén de auditoría en: " + path, e);
+        }
+        maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-store-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(this::maintain, 1, 1, TimeUnit.MINUTES);
+        LOG.infof("Almacén de auditoría abierto en %s", path);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (store == null) {
+            return;
+        }
+        maintenance.shutdownNow();
+        store.close();
+    }
+
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    public void record(String eventType, Instant timestamp, String clientIp, Map<String, String> details) {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.append(new AuditEvent(timestamp.toEpochMilli(), eventType, clientIp, details));
+        } catch (Exception e) {
+            // Audit storage must never break the request that produced the event
+            LOG.errorf(e, "Error al almacenar evento de auditoría %s", eventType);
+        }
+    }
+
+    public List<AuditEvent> query(Instant from, Instant to, String eventType, String clientIp, int limit) {
+        return store.query(new AuditQuery(from.toEpochMilli(), to.toEpochMilli(), eventType, clientIp, limit));
+    }
+
+    private void maintain() {
+        try {
+            store.force();
+            long cutoff = Instant.now().minus(maxAge).toEpochMilli();
+            int deleted = store.enforceRetention(maxSizeMb * 1024 * 1024, cutoff);
+            if (deleted > 0) {
+                LOG.infof("Retención de auditoría: %d segmentos eliminados", deleted);
+            }
+        } catch (Exception e) {
+            LOG.errorf(e, "Error en el mantenimiento del almacén de auditoría");
+        }
+    }
+}
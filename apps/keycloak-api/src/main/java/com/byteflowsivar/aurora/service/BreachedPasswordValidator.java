@@ -0,0 +1,135 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.domain.User;
+import com.byteflowsivar.aurora.domain.UserValidator;
+import com.byteflowsivar.aurora.storage.BreachedPasswordIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@ApplicationScoped
+public class BreachedPasswordValidator implements UserValidator {
+
+    private static final Logger LOG = Logger.getLogger(BreachedPasswordValidator.class);
+
+    private static final ThreadLocal<MessageDigest> SHA1 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @ConfigProperty(name = "aurora.breached-passwords.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "aurora.breached-passwords.file", defaultValue = "./data/breached-passwords.bin")
+    String file;
+
+    @ConfigProperty(name = "aurora.breached-passwords.reload-interval", defaultValue = "PT1M")
+    Duration reloadInterval;
+
+    private final AtomicReference<LoadedIndex> current = new AtomicReference<>();
+    private ScheduledExecutorService reloader;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        reload();
+        reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "breached-passwords-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = reloadInterval.toMillis();
+        reloader.scheduleWithFixedDelay(this::reload, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    @Override
+    public void validate(User user) {
+        String password = user.getPasswordForAuthentication();
+        if (password != null && isBreached(password)) {
+            throw new IllegalArgumentException("La contraseña aparece en filtraciones de datos conocidas. Elija una contraseña diferente");
+        }
+    }
+
+    public boolean isBreached(String password) {
+        LoadedIndex loaded = current.get();
+        if (loaded == null) {
+            return false;
+        }
+        MessageDigest sha1 = SHA1.get();
+        return loaded.index.contains(sha1.digest(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    void reload() {
+        Path path = Paths.get(file);
+        try {
+            if (!Files.exists(path)) {
+                if (current.get() == null) {
+                    LOG.warnf("Archivo de contraseñas filtradas no encontrado: %s. La verificación queda inactiva", file);
+                }
+                return;
+            }
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            LoadedIndex loaded = current.get();
+            if (loaded != null && loaded.sameFile(attributes)) {
+                return;
+            }
+
+            // Publishers replace the file with an atomic rename, so a new file key means a complete new file
+            BreachedPasswordIndex index = BreachedPasswordIndex.open(path);
+            current.set(new LoadedIndex(index, attributes.fileKey(), attributes.lastModifiedTime().toMillis(), attributes.size()));
+            LOG.infof("Índice de contraseñas filtradas cargado: %d hashes de %d bytes", index.count(), index.hashLength());
+        } catch (IOException | RuntimeException e) {
+            LOG.errorf(e, "Error al cargar el archivo de contraseñas filtradas: %s. Se mantiene el índice anterior", file);
+        }
+    }
+
+    private static final class LoadedIndex {
+
+        final BreachedPasswordIndex index;
+        final Object fileKey;
+        final long lastModified;
+        final long size;
+
+        LoadedIndex(BreachedPasswordIndex index, Object fileKey, long lastModified, long size) {
+            this.index = index;
+            this.fileKey = fileKey;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        boolean sameFile(BasicFileAttributes attributes) {
+            return Objects.equals(fileKey, attributes.fileKey())
+                && lastModified == attributes.lastModifiedTime().toMillis()
+                && size == attributes.size();
+        }
+    }
+}
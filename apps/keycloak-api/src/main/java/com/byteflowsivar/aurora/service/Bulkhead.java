@@ -0,0 +1,110 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit with a small bounded wait queue for one class of Keycloak
+ * calls. A call that finds the queue full, or that waits longer than the maximum
+ * wait or its request deadline, is rejected instead of piling up behind the others.
+ */
+public final class Bulkhead {
+
+    public static final String BULKHEAD_FULL = "BULKHEAD_FULL";
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueue, Duration maxWait) {
+        this.name = name;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(this.maxConcurrent);
+    }
+
+    /**
+     * Takes a slot, waiting in the queue if there is room in it. Every successful
+     * call must be paired with {@link #release()}.
+     */
+    public void acquire(String operation) {
+        if (permits.tryAcquire()) {
+            admitted.increment();
+            return;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            throw reject(operation);
+        }
+        boolean acquired;
+        try {
+            long waitNanos = maxWaitNanos;
+            RequestDeadline deadline = RequestDeadline.current();
+            if (deadline != null) {
+                waitNanos = Math.min(waitNanos, deadline.remainingNanos());
+            }
+            acquired = permits.tryAcquire(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KeycloakServiceException("Solicitud interrumpida", "INTERRUPTED", 503, e);
+        } finally {
+            queued.decrementAndGet();
+        }
+        if (!acquired) {
+            throw reject(operation);
+        }
+        admitted.increment();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+
+    public double utilization() {
+        return (double) active() / maxConcurrent;
+    }
+
+    public long admitted() {
+        return admitted.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    private KeycloakServiceException reject(String operation) {
+        rejected.increment();
+        return new KeycloakServiceException(
+            "Capacidad de llamadas '" + name + "' a Keycloak agotada en: " + operation,
+            BULKHEAD_FULL,
+            503
+        );
+    }
+}
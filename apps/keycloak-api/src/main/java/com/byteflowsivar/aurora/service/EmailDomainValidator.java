@@ -0,0 +1,151 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.domain.User;
+import com.byteflowsivar.aurora.domain.UserValidator;
+import com.byteflowsivar.aurora.storage.DomainSuffixTrie;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@ApplicationScoped
+public class EmailDomainValidator implements UserValidator {
+
+    private static final Logger LOG = Logger.getLogger(EmailDomainValidator.class);
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "aurora.email-domains.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "aurora.email-domains.blocklist-file")
+    Optional<String> blocklistFile;
+
+    @ConfigProperty(name = "aurora.email-domains.allowlist-file")
+    Optional<String> allowlistFile;
+
+    @ConfigProperty(name = "aurora.email-domains.reload-interval", defaultValue = "PT1M")
+    Duration reloadInterval;
+
+    private final AtomicReference<DomainPolicy> policy = new AtomicReference<>(DomainPolicy.EMPTY);
+    private Counter blocked;
+    private Counter allowedByAllowlist;
+    private ScheduledExecutorService reloader;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        blocked = meterRegistry.counter("aurora.email.domain.blocked");
+        allowedByAllowlist = meterRegistry.counter("aurora.email.domain.allowlisted");
+        meterRegistry.gauge("aurora.email.domain.blocklist.size", policy, current -> current.get().blocklist.size());
+        meterRegistry.gauge("aurora.email.domain.allowlist.size", policy, current -> current.get().allowlist.size());
+
+        reload();
+        reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-domains-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = reloadInterval.toMillis();
+        reloader.scheduleWithFixedDelay(this::reload, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    @Override
+    public void validate(User user) {
+        if (!enabled) {
+            return;
+        }
+        String email = user.getEmail();
+        int at = email != null ? email.lastIndexOf('@') : -1;
+        if (at < 0) {
+            return;
+        }
+        DomainPolicy current = policy.get();
+        if (current.allowlist.matches(email, at + 1)) {
+            allowedByAllowlist.increment();
+            return;
+        }
+        if (current.blocklist.matches(email, at + 1)) {
+            blocked.increment();
+            throw new IllegalArgumentException("El dominio del correo electrónico no está permitido");
+        }
+    }
+
+    void reload() {
+        DomainPolicy current = policy.get();
+        FileTime blockVersion = lastModified(blocklistFile);
+        FileTime allowVersion = lastModified(allowlistFile);
+        if (Objects.equals(blockVersion, current.blocklistVersion) && Objects.equals(allowVersion, current.allowlistVersion)) {
+            return;
+        }
+        try {
+            // Build the new tries off the request path, then publish them in a single swap
+            DomainSuffixTrie blocklist = load(blocklistFile, blockVersion);
+            DomainSuffixTrie allowlist = load(allowlistFile, allowVersion);
+            policy.set(new DomainPolicy(blocklist, allowlist, blockVersion, allowVersion));
+            LOG.infof("Política de dominios de correo cargada: %d bloqueados, %d permitidos", blocklist.size(), allowlist.size());
+        } catch (IOException | RuntimeException e) {
+            LOG.errorf(e, "Error al cargar la política de dominios de correo. Se mantiene la anterior");
+        }
+    }
+
+    private static DomainSuffixTrie load(Optional<String> file, FileTime version) throws IOException {
+        return version != null ? DomainSuffixTrie.load(Paths.get(file.get())) : DomainSuffixTrie.empty();
+    }
+
+    private static FileTime lastModified(Optional<String> file) {
+        if (file.isEmpty()) {
+            return null;
+        }
+        Path path = Paths.get(file.get());
+        try {
+            return Files.exists(path) ? Files.getLastModifiedTime(path) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static final class DomainPolicy {
+
+        static final DomainPolicy EMPTY = new DomainPolicy(DomainSuffixTrie.empty(), DomainSuffixTrie.empty(), null, null);
+
+        final DomainSuffixTrie blocklist;
+        final DomainSuffixTrie allowlist;
+        final FileTime blocklistVersion;
+        final FileTime allowlistVersion;
+
+        DomainPolicy(DomainSuffixTrie blocklist, DomainSuffixTrie allowlist, FileTime blocklistVersion, FileTime allowlistVersion) {
+            this.blocklist = blocklist;
+            this.allowlist = allowlist;
+            this.blocklistVersion = blocklistVersion;
+            this.allowlistVersion = allowlistVersion;
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.byteflowsivar.aurora.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Spreads calls over equivalent server endpoints. Each call goes to the cheaper of
+ * two randomly sampled endpoints, where the cost is the peak-EWMA latency scaled by
+ * the calls already in flight. Endpoints that keep failing are ejected and only
+ * return once an active recheck succeeds.
+ */
+public final class EndpointBalancer<C> {
+
+    private final List<Endpoint<C>> endpoints;
+    private final long decayNanos;
+    private final int ejectAfterFailures;
+    private final long ejectionNanos;
+    private final long maxEjectionNanos;
+    private final Predicate<Throwable> isEndpointFailure;
+    private final LongSupplier ticker;
+
+    /**
+     * @param clients           one client per endpoint, keyed by endpoint URL
+     * @param decay             time constant of the latency average
+     * @param ejectAfterFailures consecutive failures that eject an endpoint
+     * @param ejectionTime      time before an ejected endpoint is first rechecked
+     * @param maxEjectionTime   cap for the recheck backoff of an endpoint that stays down
+     * @param isEndpointFailure tells endpoint failures apart from errors caused by the request
+     */
+    public EndpointBalancer(Map<String, C> clients, Duration decay, int ejectAfterFailures,
+                            Duration ejectionTime, Duration maxEjectionTime, Predicate<Throwable> isEndpointFailure) {
+        this(clients, decay, ejectAfterFailures, ejectionTime, maxEjectionTime, isEndpointFailure, System::nanoTime);
+    }
+
+    /**
+     * @param ticker source of {@link System#nanoTime()}-like readings, replaced in tests
+     */
+    EndpointBalancer(Map<String, C> clients, Duration decay, int ejectAfterFailures, Duration ejectionTime,
+                     Duration maxEjectionTime, Predicate<Throwable> isEndpointFailure, LongSupplier ticker) {
+        if (clients.isEmpty()) {
+            throw new IllegalArgumentException("Se requiere al menos un endpoint");
+        }
+        List<Endpoint<C>> list = new ArrayList<>(clients.size());
+        clients.forEach((url, client) -> list.add(new Endpoint<>(list.size(), url, client, ticker)));
+        this.endpoints = List.copyOf(list);
+        this.decayNanos = Math.max(decay.toNanos(), 1);
+        this.ejectAfterFailures = Math.max(ejectAfterFailures, 1);
+        this.ejectionNanos = ejectionTime.toNanos();
+        this.maxEjectionNanos = Math.max(maxEjectionTime.toNanos(), ejectionNanos);
+        this.isEndpointFailure = isEndpointFailure;
+        this.ticker = ticker;
+    }
+
+    public List<Endpoint<C>> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Runs the call on the selected endpoint. Idempotent calls that fail because of
+     * the endpoint are retried once on a different endpoint; other calls are not,
+     * since the first attempt may already have taken effect.
+     */
+    public <T> T execute(boolean idempotent, Function<Endpoint<C>, T> call) {
+        return execute(idempotent, null, call);
+    }
+
+    /**
+     * Same as {@link #execute(boolean, Function)} but steers clear of {@code avoid}
+     * while any other endpoint is available.
+     */
+    public <T> T execute(boolean idempotent, Endpoint<C> avoid, Function<Endpoint<C>, T> call) {
+        int attempts = idempotent ? Math.min(2, endpoints.size()) : 1;
+        Endpoint<C> previous = avoid;
+        RuntimeException failure = null;
+        for (int attempt = 0; attempt < attempts; attempt++) {
+            Endpoint<C> endpoint = choose(previous);
+            endpoint.inFlight.incrementAndGet();
+            long start = ticker.getAsLong();
+            try {
+                T result = call.apply(endpoint);
+                endpoint.onSuccess(ticker.getAsLong() - start, decayNanos);
+                return result;
+            } catch (RuntimeException e) {
+                long elapsed = ticker.getAsLong() - start;
+                if (!isEndpointFailure.test(e)) {
+                    // The endpoint answered; the request itself was rejected
+                    endpoint.onSuccess(elapsed, decayNanos);
+                    throw e;
+                }
+                endpoint.onFailure(elapsed, ejectAfterFailures, ejectionNanos);
+                failure = e;
+                previous = endpoint;
+            } finally {
+                endpoint.inFlight.decrementAndGet();
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * Probes the ejected endpoints whose ejection time is over and reinstates those
+     * that pass. Endpoints that fail again wait twice as long for the next recheck.
+     */
+    public void recheck(Predicate<C> probe) {
+        long now = ticker.getAsLong();
+        for (Endpoint<C> endpoint : endpoints) {
+            if (!endpoint.ejected || now - endpoint.ejectedUntilNanos < 0) {
+                continue;
+            }
+            boolean healthy;
+            try {
+                healthy = probe.test(endpoint.client);
+            } catch (RuntimeException e) {
+                healthy = false;
+            }
+            if (healthy) {
+                endpoint.reinstate();
+            } else {
+                endpoint.extendEjection(ejectionNanos, maxEjectionNanos);
+            }
+        }
+    }
+
+    Endpoint<C> choose(Endpoint<C> exclude) {
+        int n = endpoints.size();
+        if (n == 1) {
+            return endpoints.get(0);
+        }
+
+        int[] candidates = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            Endpoint<C> endpoint = endpoints.get(i);
+            if (endpoint != exclude && !endpoint.ejected) {
+                candidates[count++] = i;
+            }
+        }
+        if (count == 0) {
+            return fallback(exclude);
+        }
+        if (count == 1) {
+            return endpoints.get(candidates[0]);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(count);
+        int second = random.nextInt(count - 1);
+        if (second >= first) {
+            second++;
+        }
+        Endpoint<C> a = endpoints.get(candidates[first]);
+        Endpoint<C> b = endpoints.get(candidates[second]);
+        long now = ticker.getAsLong();
+        return a.cost(now, decayNanos) <= b.cost(now, decayNanos) ? a : b;
+    }
+
+    private Endpoint<C> fallback(Endpoint<C> exclude) {
+        // Every endpoint is ejected: trying the one due back first beats failing outright
+        Endpoint<C> best = null;
+        for (Endpoint<C> endpoint : endpoints) {
+            if (endpoint != exclude && (best == null || endpoint.ejectedUntilNanos - best.ejectedUntilNanos < 0)) {
+                best = endpoint;
+            }
+        }
+        return best != null ? best : exclude;
+    }
+
+    public static final class Endpoint<C> {
+
+        private final int index;
+        private final String url;
+        private final C client;
+        private final LongSupplier ticker;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+        private volatile double latencyNanos;
+        private volatile long lastObservedNanos;
+        private volatile boolean ejected;
+        private volatile long ejectedUntilNanos;
+        private int failedRechecks;
+
+        Endpoint(int index, String url, C client, LongSupplier ticker) {
+            this.index = index;
+            this.url = url;
+            this.client = client;
+            this.ticker = ticker;
+            this.lastObservedNanos = ticker.getAsLong();
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public String url() {
+            return url;
+        }
+
+        public C client() {
+            return client;
+        }
+
+        public int inFlight() {
+            return inFlight.get();
+        }
+
+        public boolean isEjected() {
+            return ejected;
+        }
+
+        public double latencyMillis() {
+            return latencyNanos / 1_000_000.0;
+        }
+
+        double cost(long now, long decayNanos) {
+            // An idle endpoint drifts back to zero so that a node once slow gets traffic again
+            double idle = Math.max(now - lastObservedNanos, 0);
+            double latency = latencyNanos * Math.exp(-idle / decayNanos);
+            return (latency + 1) * (inFlight.get() + 1);
+        }
+
+        synchronized void onSuccess(long rttNanos, long decayNanos) {
+            if (ejected) {
+                // Served while every endpoint was ejected; an answer is as good as a recheck
+                reinstate();
+            }
+            consecutiveFailures.set(0);
+            observe(rttNanos, decayNanos);
+        }
+
+        synchronized void onFailure(long rttNanos, int ejectAfterFailures, long ejectionNanos) {
+            // A fast failure must not make the endpoint look attractive, so it can only raise the average
+            long now = ticker.getAsLong();
+            if (rttNanos > latencyNanos) {
+                latencyNanos = rttNanos;
+            }
+            lastObservedNanos = now;
+            if (consecutiveFailures.incrementAndGet() >= ejectAfterFailures && !ejected) {
+                failedRechecks = 0;
+                ejectedUntilNanos = now + ejectionNanos;
+                ejected = true;
+            }
+        }
+
+        synchronized void reinstate() {
+            ejected = false;
+            failedRechecks = 0;
+            consecutiveFailures.set(0);
+            // Start over from the next observation rather than from the latency that got it ejected
+            latencyNanos = 0;
+            lastObservedNanos = ticker.getAsLong();
+        }
+
+        synchronized void extendEjection(long ejectionNanos, long maxEjectionNanos) {
+            failedRechecks++;
+            long backoff = ejectionNanos << Math.min(failedRechecks, 20);
+            ejectedUntilNanos = ticker.getAsLong() + Math.min(backoff, maxEjectionNanos);
+        }
+
+        private void observe(long rttNanos, long decayNanos) {
+            long now = ticker.getAsLong();
+            double current = latencyNanos;
+            if (rttNanos > current) {
+                // Peak sensitivity: a slow response takes effect immediately
+                latencyNanos = rttNanos;
+            } else {
+                double weight = Math.exp(-Math.max(now - lastObservedNanos, 0) / (double) decayNanos);
+                latencyNanos = current * weight + rttNanos * (1 - weight);
+            }
+            lastObservedNanos = now;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.diagnostics.AuditWriteEvent;
+import com.byteflowsivar.aurora.diagnostics.KeycloakCallEvent;
+import com.byteflowsivar.aurora.diagnostics.RateLimitRejectedEvent;
+import com.byteflowsivar.aurora.diagnostics.ValidationFailureEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Controls a continuous JDK Flight Recorder recording bounded by age and size. The
+ * recording uses a JDK settings profile, so GC pauses, safepoints and lock
+ * contention land in the same file as the Aurora events and can be lined up with
+ * slow Keycloak calls.
+ */
+@ApplicationScoped
+public class FlightRecordingService {
+
+    private static final Logger LOG = Logger.getLogger(FlightRecordingService.class);
+    private static final String RECORDING_NAME = "aurora-continuous";
+    private static final DateTimeFormatter DUMP_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    @ConfigProperty(name = "aurora.diagnostics.jfr.settings", defaultValue = "default")
+    String settings;
+
+    @ConfigProperty(name = "aurora.diagnostics.jfr.max-age", defaultValue = "PT30M")
+    Duration maxAge;
+
+    @ConfigProperty(name = "aurora.diagnostics.jfr.max-size-mb", defaultValue = "250")
+    long maxSizeMb;
+
+    @ConfigProperty(name = "aurora.diagnostics.jfr.dump-path", defaultValue = "./data/jfr")
+    String dumpPath;
+
+    @ConfigProperty(name = "aurora.diagnostics.jfr.start-on-boot", defaultValue = "false")
+    boolean startOnBoot;
+
+    private Recording recording;
+
+    void onStart(@Observes StartupEvent event) {
+        if (startOnBoot) {
+            start();
+        }
+    }
+
+    @PreDestroy
+    synchronized void shutdown() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public synchronized RecordingStatus start() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        if (recording != null) {
+            recording.close();
+        }
+        try {
+            recording = new Recording(Configuration.getConfiguration(settings));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Perfil de JFR inválido: " + settings, e);
+        }
+        recording.setName(RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+        // Aurora events carry no stack traces, so enabling them all costs next to nothing
+        recording.enable(KeycloakCallEvent.class);
+        recording.enable(AuditWriteEvent.class);
+        recording.enable(ValidationFailureEvent.class);
+        recording.enable(RateLimitRejectedEvent.class);
+        recording.start();
+        LOG.infof("Grabación JFR iniciada (perfil=%s, antigüedad máxima=%s, tamaño máximo=%d MB)", settings, maxAge, maxSizeMb);
+        return status();
+    }
+
+    /**
+     * Stops the recording but keeps its data so it can still be dumped.
+     */
+    public synchronized RecordingStatus stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            return null;
+        }
+        recording.stop();
+        LOG.info("Grabación JFR detenida");
+        return status();
+    }
+
+    /**
+     * Writes the recorded data to a new file under the dump path. The caller owns the
+     * file and should delete it once it has been copied elsewhere.
+     */
+    public synchronized Path dump() throws IOException {
+        if (recording == null) {
+            return null;
+        }
+        Path directory = Paths.get(dumpPath);
+        Files.createDirectories(directory);
+        Path file = directory.resolve("aurora-" + DUMP_NAME.format(Instant.now()) + "-" + recording.getId() + ".jfr");
+        recording.dump(file);
+        LOG.infof("Grabación JFR volcada en %s (%d bytes)", file, Files.size(file));
+        return file;
+    }
+
+    public synchronized RecordingStatus status() {
+        if (recording == null) {
+            return new RecordingStatus("NONE", null, null, settings, maxAge, maxSizeMb * 1024 * 1024, 0);
+        }
+        return new RecordingStatus(recording.getState().name(), recording.getStartTime(), recording.getStopTime(),
+            settings, maxAge, maxSizeMb * 1024 * 1024, recording.getSize());
+    }
+
+    public record RecordingStatus(String state, Instant startedAt, Instant stoppedAt, String settings,
+                                  Duration maxAge, long maxSizeBytes, long sizeBytes) {
+    }
+}
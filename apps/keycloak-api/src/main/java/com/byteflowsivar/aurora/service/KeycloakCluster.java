@@ -0,0 +1,406 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.config.KeycloakConfig;
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.keycloak.admin.client.Keycloak;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Admin clients for every node of the Keycloak cluster, balanced by
+ * {@link EndpointBalancer}. All admin traffic goes through {@link #execute}, where
+ * reads and writes are kept in separate {@link Bulkhead}s and HTTP clients so a
+ * burst of user creations cannot starve existence checks and health probes.
+ */
+@ApplicationScoped
+public class KeycloakCluster {
+
+    private static final Logger LOG = Logger.getLogger(KeycloakCluster.class);
+    private static final String DEADLINE_EXCEEDED = "DEADLINE_EXCEEDED";
+    private static final Set<String> READ_OPERATIONS = Set.of("user_exists", "describe_realm", "load_roles_groups");
+    private static final Set<String> WRITE_OPERATIONS = Set.of("create_user");
+    private static final Pattern OPERATION_TIMEOUT =
+        Pattern.compile("(?:%[^.]+\\.)?aurora\\.keycloak\\.timeouts\\.([^.]+)\\.(?:connect|read)");
+
+    @Inject
+    KeycloakConfig keycloakConfig;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "keycloak.target-realm")
+    String probeRealm;
+
+    @ConfigProperty(name = "aurora.keycloak.balancer.decay", defaultValue = "PT10S")
+    Duration decay;
+
+    @ConfigProperty(name = "aurora.keycloak.balancer.eject-after-failures", defaultValue = "3")
+    int ejectAfterFailures;
+
+    @ConfigProperty(name = "aurora.keycloak.balancer.ejection-time", defaultValue = "PT10S")
+    Duration ejectionTime;
+
+    @ConfigProperty(name = "aurora.keycloak.balancer.max-ejection-time", defaultValue = "PT5M")
+    Duration maxEjectionTime;
+
+    @ConfigProperty(name = "aurora.keycloak.balancer.recheck-interval", defaultValue = "PT5S")
+    Duration recheckInterval;
+
+    @ConfigProperty(name = "aurora.keycloak.hedging.enabled", defaultValue = "false")
+    boolean hedgingEnabled;
+
+    @ConfigProperty(name = "aurora.keycloak.hedging.operations", defaultValue = "user_exists,describe_realm")
+    Set<String> hedgedOperations;
+
+    @ConfigProperty(name = "aurora.keycloak.hedging.quantile", defaultValue = "0.95")
+    double hedgeQuantile;
+
+    @ConfigProperty(name = "aurora.keycloak.hedging.min-delay", defaultValue = "PT0.01S")
+    Duration hedgeMinDelay;
+
+    @ConfigProperty(name = "aurora.keycloak.hedging.max-delay", defaultValue = "PT1S")
+    Duration hedgeMaxDelay;
+
+    @ConfigProperty(name = "aurora.keycloak.hedging.budget-percent", defaultValue = "5")
+    double hedgeBudgetPercent;
+
+    @ConfigProperty(name = "aurora.keycloak.hedging.max-burst", defaultValue = "10")
+    int hedgeMaxBurst;
+
+    @ConfigProperty(name = "aurora.keycloak.hedging.threads", defaultValue = "32")
+    int hedgeThreads;
+
+    @ConfigProperty(name = "aurora.keycloak.timeouts.connect", defaultValue = "PT2S")
+    Duration connectTimeout;
+
+    @ConfigProperty(name = "aurora.keycloak.timeouts.read", defaultValue = "PT5S")
+    Duration readTimeout;
+
+    @ConfigProperty(name = "aurora.keycloak.bulkhead.read.max-concurrent", defaultValue = "64")
+    int readMaxConcurrent;
+
+    @ConfigProperty(name = "aurora.keycloak.bulkhead.read.max-queue", defaultValue = "64")
+    int readMaxQueue;
+
+    @ConfigProperty(name = "aurora.keycloak.bulkhead.read.max-wait", defaultValue = "PT0.1S")
+    Duration readMaxWait;
+
+    @ConfigProperty(name = "aurora.keycloak.bulkhead.write.max-concurrent", defaultValue = "16")
+    int writeMaxConcurrent;
+
+    @ConfigProperty(name = "aurora.keycloak.bulkhead.write.max-queue", defaultValue = "32")
+    int writeMaxQueue;
+
+    @ConfigProperty(name = "aurora.keycloak.bulkhead.write.max-wait", defaultValue = "PT1S")
+    Duration writeMaxWait;
+
+    @Inject
+    Config config;
+
+    private EndpointBalancer<Keycloak> balancer;
+    private Bulkhead readBulkhead;
+    private Bulkhead writeBulkhead;
+    private Timeouts defaultTimeouts;
+    private final Map<String, Timeouts> timeoutsByOperation = new ConcurrentHashMap<>();
+    private final Map<ClientKey, Keycloak[]> clientsByKey = new ConcurrentHashMap<>();
+    private ScheduledExecutorService rechecker;
+    private ExecutorService hedgeExecutor;
+    private RequestHedger hedger;
+
+    @PostConstruct
+    void init() {
+        defaultTimeouts = new Timeouts(connectTimeout, readTimeout);
+        Map<String, Keycloak> clients = new LinkedHashMap<>();
+        for (String url : keycloakConfig.serverUrls()) {
+            clients.put(url, keycloakConfig.newClient(url, connectTimeout, readTimeout));
+        }
+        balancer = new EndpointBalancer<>(clients, decay, ejectAfterFailures, ejectionTime, maxEjectionTime,
+            KeycloakCluster::isEndpointFailure);
+
+        for (EndpointBalancer.Endpoint<Keycloak> endpoint : balancer.endpoints()) {
+            Tags tags = Tags.of("endpoint", endpoint.url());
+            meterRegistry.gauge("aurora.keycloak.endpoint.latency", tags, endpoint, EndpointBalancer.Endpoint::latencyMillis);
+            meterRegistry.gauge("aurora.keycloak.endpoint.inflight", tags, endpoint, EndpointBalancer.Endpoint::inFlight);
+            meterRegistry.gauge("aurora.keycloak.endpoint.ejected", tags, endpoint, e -> e.isEjected() ? 1 : 0);
+        }
+        LOG.infof("Cluster de Keycloak configurado con %d nodos: %s", clients.size(), clients.keySet());
+        initOperationClients();
+
+        readBulkhead = registerBulkhead(new Bulkhead("read", readMaxConcurrent, readMaxQueue, readMaxWait));
+        writeBulkhead = registerBulkhead(new Bulkhead("write", writeMaxConcurrent, writeMaxQueue, writeMaxWait));
+
+        if (hedgingEnabled) {
+            initHedging();
+        }
+
+        rechecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "keycloak-endpoint-recheck");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = recheckInterval.toMillis();
+        rechecker.scheduleWithFixedDelay(this::recheck, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Builds up front every client an operation will ask for, so the first write
+     * after a deploy does not set up a client and a pool while holding a permit,
+     * and warm-up can reach all of them through {@link #clients}.
+     */
+    private void initOperationClients() {
+        Set<String> operations = new LinkedHashSet<>(READ_OPERATIONS);
+        operations.addAll(WRITE_OPERATIONS);
+        operations.addAll(operationsWithTimeouts(config.getPropertyNames()));
+        for (String operation : operations) {
+            Timeouts timeouts = timeouts(operation);
+            // Operations that only appear in the configuration may be either kind
+            if (!READ_OPERATIONS.contains(operation)) {
+                clientsByKey.computeIfAbsent(new ClientKey(timeouts, false), this::newClients);
+            }
+            if (!WRITE_OPERATIONS.contains(operation) && !timeouts.equals(defaultTimeouts)) {
+                clientsByKey.computeIfAbsent(new ClientKey(timeouts, true), this::newClients);
+            }
+        }
+    }
+
+    static Set<String> operationsWithTimeouts(Iterable<String> propertyNames) {
+        Set<String> operations = new LinkedHashSet<>();
+        for (String name : propertyNames) {
+            Matcher matcher = OPERATION_TIMEOUT.matcher(name);
+            if (matcher.matches()) {
+                operations.add(matcher.group(1));
+            }
+        }
+        return operations;
+    }
+
+    private Bulkhead registerBulkhead(Bulkhead bulkhead) {
+        Tags tags = Tags.of("bulkhead", bulkhead.name());
+        meterRegistry.gauge("aurora.keycloak.bulkhead.active", tags, bulkhead, Bulkhead::active);
+        meterRegistry.gauge("aurora.keycloak.bulkhead.queued", tags, bulkhead, Bulkhead::queued);
+        meterRegistry.gauge("aurora.keycloak.bulkhead.utilization", tags, bulkhead, Bulkhead::utilization);
+        meterRegistry.gauge("aurora.keycloak.bulkhead.limit", tags, bulkhead, Bulkhead::maxConcurrent);
+        FunctionCounter.builder("aurora.keycloak.bulkhead.admitted", bulkhead, Bulkhead::admitted)
+            .tags(tags).register(meterRegistry);
+        FunctionCounter.builder("aurora.keycloak.bulkhead.rejected", bulkhead, Bulkhead::rejected)
+            .tags(tags).register(meterRegistry);
+        return bulkhead;
+    }
+
+    private void initHedging() {
+        AtomicInteger counter = new AtomicInteger();
+        // Bounded and without a queue: once every thread is busy, calls simply go unhedged
+        hedgeExecutor = new ThreadPoolExecutor(0, hedgeThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "keycloak-hedge-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        hedger = new RequestHedger(hedgeExecutor, hedgeQuantile, hedgeMinDelay, hedgeMaxDelay, hedgeBudgetPercent, hedgeMaxBurst);
+        for (String operation : hedgedOperations) {
+            RequestHedger.OperationStats stats = hedger.stats(operation);
+            Tags tags = Tags.of("operation", operation);
+            FunctionCounter.builder("aurora.keycloak.hedge.calls", stats, RequestHedger.OperationStats::calls)
+                .tags(tags).register(meterRegistry);
+            FunctionCounter.builder("aurora.keycloak.hedge.sent", stats, RequestHedger.OperationStats::hedges)
+                .tags(tags).register(meterRegistry);
+            FunctionCounter.builder("aurora.keycloak.hedge.won", stats, RequestHedger.OperationStats::hedgeWins)
+                .tags(tags).register(meterRegistry);
+            meterRegistry.gauge("aurora.keycloak.hedge.delay", tags, hedger, h -> h.delayMillis(operation));
+        }
+        LOG.infof("Hedging de lecturas a Keycloak habilitado para: %s", hedgedOperations);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rechecker.shutdownNow();
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdownNow();
+        }
+        for (EndpointBalancer.Endpoint<Keycloak> endpoint : balancer.endpoints()) {
+            endpoint.client().close();
+        }
+        for (Keycloak[] clients : clientsByKey.values()) {
+            for (Keycloak client : clients) {
+                client.close();
+            }
+        }
+    }
+
+    /**
+     * Runs an admin call on the best node, within the read bulkhead for idempotent
+     * calls and the write bulkhead otherwise. Only idempotent calls fail over to a
+     * second node; see {@link EndpointBalancer#execute}. Idempotent calls of the
+     * hedged operations also get a backup copy on another node when they run slow.
+     */
+    public <T> T execute(String operation, boolean idempotent, Function<EndpointBalancer.Endpoint<Keycloak>, T> call) {
+        Bulkhead bulkhead = idempotent ? readBulkhead : writeBulkhead;
+        bulkhead.acquire(operation);
+        try {
+            if (hedger == null || !idempotent || !hedgedOperations.contains(operation)) {
+                return balancer.execute(idempotent, call);
+            }
+            AtomicReference<EndpointBalancer.Endpoint<Keycloak>> primary = new AtomicReference<>();
+            RequestDeadline deadline = RequestDeadline.current();
+            return hedger.execute(operation, hedge -> RequestDeadline.callWithin(deadline, () -> hedge
+                ? balancer.execute(true, primary.get(), call)
+                : balancer.execute(true, endpoint -> {
+                    primary.set(endpoint);
+                    return call.apply(endpoint);
+                })));
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Admin client of the endpoint's node for the operation. Writes never share a
+     * client, and so a connection pool, with reads; within each side, operations
+     * with their own connect and read timeouts get their own client.
+     */
+    public Keycloak client(String operation, boolean idempotent, EndpointBalancer.Endpoint<Keycloak> endpoint) {
+        Timeouts timeouts = timeouts(operation);
+        if (idempotent && timeouts.equals(defaultTimeouts)) {
+            return endpoint.client();
+        }
+        return clientsByKey.computeIfAbsent(new ClientKey(timeouts, idempotent), this::newClients)[endpoint.index()];
+    }
+
+    /**
+     * Every admin client of the endpoint's node: the default read client first,
+     * then the write and per-operation clients.
+     */
+    public List<Keycloak> clients(EndpointBalancer.Endpoint<Keycloak> endpoint) {
+        List<Keycloak> clients = new ArrayList<>(clientsByKey.size() + 1);
+        clients.add(endpoint.client());
+        for (Keycloak[] operationClients : clientsByKey.values()) {
+            clients.add(operationClients[endpoint.index()]);
+        }
+        return clients;
+    }
+
+    public Timeouts timeouts(String operation) {
+        return timeoutsByOperation.computeIfAbsent(operation, name -> new Timeouts(
+            config.getOptionalValue("aurora.keycloak.timeouts." + name + ".connect", Duration.class).orElse(connectTimeout),
+            config.getOptionalValue("aurora.keycloak.timeouts." + name + ".read", Duration.class).orElse(readTimeout)));
+    }
+
+    private Keycloak[] newClients(ClientKey key) {
+        List<EndpointBalancer.Endpoint<Keycloak>> endpoints = balancer.endpoints();
+        Keycloak[] clients = new Keycloak[endpoints.size()];
+        for (EndpointBalancer.Endpoint<Keycloak> endpoint : endpoints) {
+            clients[endpoint.index()] = keycloakConfig.newClient(endpoint.url(), key.timeouts().connect(), key.timeouts().read());
+        }
+        return clients;
+    }
+
+    public List<EndpointBalancer.Endpoint<Keycloak>> endpoints() {
+        return balancer.endpoints();
+    }
+
+    private void recheck() {
+        List<EndpointBalancer.Endpoint<Keycloak>> endpoints = balancer.endpoints();
+        boolean[] wasEjected = new boolean[endpoints.size()];
+        for (EndpointBalancer.Endpoint<Keycloak> endpoint : endpoints) {
+            wasEjected[endpoint.index()] = endpoint.isEjected();
+        }
+        balancer.recheck(keycloak -> {
+            keycloak.realm(probeRealm).toRepresentation();
+            return true;
+        });
+        for (EndpointBalancer.Endpoint<Keycloak> endpoint : endpoints) {
+            if (wasEjected[endpoint.index()] && !endpoint.isEjected()) {
+                LOG.infof("Nodo de Keycloak reincorporado: %s", endpoint.url());
+            } else if (endpoint.isEjected()) {
+                LOG.debugf("Nodo de Keycloak sigue fuera de servicio: %s", endpoint.url());
+            }
+        }
+    }
+
+    /**
+     * A node is at fault when it cannot be reached, times out or answers with a
+     * server error. Client errors mean the node is working.
+     */
+    static boolean isEndpointFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ProcessingException || cause instanceof IOException) {
+                return true;
+            }
+            if (cause instanceof WebApplicationException web && web.getResponse() != null) {
+                return web.getResponse().getStatus() >= 500;
+            }
+            if (cause instanceof KeycloakServiceException keycloakError && keycloakError.getCause() == null) {
+                // Running out of request time or of local capacity says nothing about the node
+                return keycloakError.getHttpStatus() >= 500 && !DEADLINE_EXCEEDED.equals(keycloakError.getErrorCode())
+                    && !Bulkhead.BULKHEAD_FULL.equals(keycloakError.getErrorCode());
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Turns a timed-out admin call into an error that names the operation and the
+     * timeout that fired; returns null when the error is not a timeout.
+     */
+    static KeycloakServiceException timeoutError(String operation, Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            String type = cause.getClass().getSimpleName();
+            String message = String.valueOf(cause.getMessage()).toLowerCase();
+            boolean connect = cause instanceof ConnectException || message.contains("connect timed out");
+            if (connect && (type.contains("Timeout") || message.contains("timed out"))) {
+                return new KeycloakServiceException("Tiempo de conexión con Keycloak agotado en: " + operation,
+                    operation.toUpperCase() + "_CONNECT_TIMEOUT", 504, error);
+            }
+            if (cause instanceof SocketTimeoutException || cause instanceof TimeoutException || type.endsWith("TimeoutException")) {
+                return new KeycloakServiceException("Tiempo de respuesta de Keycloak agotado en: " + operation,
+                    operation.toUpperCase() + "_READ_TIMEOUT", 504, error);
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    public record Timeouts(Duration connect, Duration read) {
+    }
+
+    private record ClientKey(Timeouts timeouts, boolean idempotent) {
+    }
+}
@@ -1,19 +1,25 @@
 package com.byteflowsivar.aurora.service;
 
+import com.byteflowsivar.aurora.diagnostics.KeycloakCallEvent;
 import com.byteflowsivar.aurora.domain.User;
 import com.byteflowsivar.aurora.exception.KeycloakServiceException;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
-import org.keycloak.admin.client.Keycloak;
-import org.keycloak.admin.client.resource.RealmResource;
 import org.keycloak.admin.client.resource.UsersResource;
 import org.keycloak.representations.idm.CredentialRepresentation;
+import org.keycloak.representations.idm.RoleRepresentation;
 import org.keycloak.representations.idm.UserRepresentation;
 
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @ApplicationScoped
 public class KeycloakUserService {
@@ -21,32 +27,86 @@ public class KeycloakUserService {
     private static final Logger LOG = Logger.getLogger(KeycloakUserService.class);
 
     @Inject
-    Keycloak keycloak;
+    RealmRegistry realmRegistry;
 
-    @ConfigProperty(name = "keycloak.target-realm")
-    String targetRealm;
+    @Inject
+    UserValidationService userValidationService;
+
+    @Inject
+    RoleGroupResolver roleGroupResolver;
+
+    @Inject
+    UserEventOutboxService userEventOutboxService;
+
+    @Inject
+    PasswordPolicyValidator passwordPolicyValidator;
+
+    @ConfigProperty(name = "aurora.user-creation.default-realm-roles")
+    Optional<List<String>> defaultRealmRoles;
+
+    @ConfigProperty(name = "aurora.user-creation.default-groups")
+    Optional<List<String>> defaultGroups;
 
     public String createUser(User user) {
+        return createUser(null, user);
+    }
+
+    public String createUser(String realm, User user) {
+        try {
+            userValidationService.validate(realm, user);
+        } catch (IllegalArgumentException e) {
+            LOG.warnf("Error de validación: %s", e.getMessage());
+            throw e;
+        }
+        RealmHandle handle = realmRegistry.resolve(realm);
+        String userId = handle.execute("create_user", false, clients -> createInRealm(handle.name(), clients, user));
+        userEventOutboxService.recordUserCreated(handle.name(), userId, user.getUsername(), user.getEmail());
+        return userId;
+    }
+
+    private String createInRealm(String targetRealm, RealmHandle.Clients clients, User user) {
         LOG.infof("Creando usuario en realm: %s", targetRealm);
         
         try {
-            user.validate();
-            
-            RealmResource realmResource = getRealmResource();
-            UsersResource usersResource = realmResource.users();
+            // Resolved before the create so that an unknown name never leaves a half-built user behind
+            List<RoleRepresentation> realmRoles = roleGroupResolver.resolveRealmRoles(
+                targetRealm, withDefaults(defaultRealmRoles, user.getRealmRoles()));
+            List<String> groupPaths = roleGroupResolver.resolveGroupPaths(
+                targetRealm, withDefaults(defaultGroups, user.getGroups()));
+
+            UsersResource usersResource = clients.users();
 
             UserRepresentation userRepresentation = buildUserRepresentation(user);
+            if (!groupPaths.isEmpty()) {
+                // Keycloak joins the groups as part of the create call itself
+                userRepresentation.setGroups(groupPaths);
+            }
 
-            try (Response response = usersResource.create(userRepresentation)) {
+            // Last point at which giving up is clean; once the user exists the flow is completed
+            RequestDeadline.checkCurrent("create_user");
+            KeycloakCallEvent createCall = KeycloakCallEvent.begin("create_user", targetRealm);
+            Response response;
+            try {
+                response = usersResource.create(userRepresentation);
+            } catch (RuntimeException e) {
+                createCall.fail(e);
+                throw e;
+            }
+            try (response) {
                 int status = response.getStatus();
+                createCall.finish(status);
                 LOG.infof("Estado de respuesta de creación de usuario: %d", status);
                 
                 if (status == 201) {
                     String userId = extractUserIdFromLocation(response.getLocation().toString());
                     LOG.infof("Usuario creado exitosamente con ID: %s", userId);
                     
-                    setUserPassword(usersResource, userId, user.getPasswordForAuthentication());
+                    setUserPassword(targetRealm, usersResource, userId, user.getPasswordForAuthentication());
                     LOG.infof("Contraseña establecida exitosamente para usuario ID: %s", userId);
+
+                    if (!realmRoles.isEmpty()) {
+                        assignRealmRoles(targetRealm, usersResource, userId, realmRoles);
+                    }
                     
                     return userId;
                 } else if (status == 409) {
@@ -57,6 +117,10 @@ public class KeycloakUserService {
                         409
                     );
                 } else {
+                    if (status == 400 && !groupPaths.isEmpty()) {
+                        // A group removed since the last refresh makes Keycloak reject the whole create
+                        roleGroupResolver.invalidate(targetRealm);
+                    }
                     String errorMsg = "Error al crear usuario. Estado HTTP: " + status;
                     LOG.errorf(errorMsg + " en realm: %s", targetRealm);
                     throw new KeycloakServiceException(errorMsg, "USER_CREATION_FAILED", status);
@@ -89,7 +153,8 @@ public class KeycloakUserService {
         return userRepresentation;
     }
 
-    private void setUserPassword(UsersResource usersResource, String userId, String password) {
+    private void setUserPassword(String targetRealm, UsersResource usersResource, String userId, String password) {
+        KeycloakCallEvent call = KeycloakCallEvent.begin("reset_password", targetRealm);
         try {
             CredentialRepresentation credential = new CredentialRepresentation();
             credential.setType(CredentialRepresentation.PASSWORD);
@@ -97,7 +162,21 @@ public class KeycloakUserService {
             credential.setTemporary(false);
 
             usersResource.get(userId).resetPassword(credential);
+            call.finish(204);
+        } catch (BadRequestException e) {
+            call.fail(e);
+            // A rule only Keycloak can check (history, blacklist) or a policy changed since the last refresh
+            LOG.warnf("Keycloak rechazó la contraseña del usuario ID: %s por la política del realm %s", userId, targetRealm);
+            passwordPolicyValidator.refresh(targetRealm);
+            removeUser(targetRealm, usersResource, userId);
+            throw new KeycloakServiceException(
+                "La contraseña no cumple la política de contraseñas del realm",
+                "PASSWORD_POLICY_VIOLATION",
+                400,
+                e
+            );
         } catch (Exception e) {
+            call.fail(e);
             LOG.errorf(e, "Error al establecer contraseña para usuario ID: %s", userId);
             throw new KeycloakServiceException(
                 "Error al establecer la contraseña del usuario",
@@ -108,6 +187,66 @@ public class KeycloakUserService {
         }
     }
 
+    private void removeUser(String targetRealm, UsersResource usersResource, String userId) {
+        KeycloakCallEvent call = KeycloakCallEvent.begin("remove_user", targetRealm);
+        try {
+            // A user left without its password or roles would block a corrected retry with a 409
+            usersResource.get(userId).remove();
+            call.finish(204);
+            LOG.infof("Usuario ID: %s eliminado tras no poder completar su creación", userId);
+        } catch (Exception e) {
+            call.fail(e);
+            LOG.errorf(e, "No se pudo eliminar el usuario ID: %s tras no poder completar su creación", userId);
+        }
+    }
+
+    void assignRealmRoles(String targetRealm, UsersResource usersResource, String userId, List<RoleRepresentation> roles) {
+        KeycloakCallEvent call = KeycloakCallEvent.begin("assign_realm_roles", targetRealm);
+        try {
+            // All roles go in a single role-mapping call
+            usersResource.get(userId).roles().realmLevel().add(roles);
+            call.finish(204);
+        } catch (NotFoundException e) {
+            call.fail(e);
+            // A cached role was deleted or recreated; reload once and retry with fresh IDs
+            roleGroupResolver.invalidate(targetRealm);
+            List<String> names = roles.stream().map(RoleRepresentation::getName).toList();
+            KeycloakCallEvent retry = KeycloakCallEvent.begin("assign_realm_roles", targetRealm);
+            try {
+                usersResource.get(userId).roles().realmLevel().add(roleGroupResolver.resolveRealmRoles(targetRealm, names));
+                retry.finish(204);
+            } catch (Exception retryError) {
+                retry.fail(retryError);
+                throw roleAssignmentFailed(targetRealm, usersResource, userId, retryError);
+            }
+        } catch (Exception e) {
+            call.fail(e);
+            throw roleAssignmentFailed(targetRealm, usersResource, userId, e);
+        }
+        LOG.infof("%d roles de realm asignados al usuario ID: %s", roles.size(), userId);
+    }
+
+    private KeycloakServiceException roleAssignmentFailed(String targetRealm, UsersResource usersResource, String userId,
+                                                          Exception cause) {
+        LOG.errorf(cause, "Error al asignar roles de realm al usuario ID: %s", userId);
+        removeUser(targetRealm, usersResource, userId);
+        return new KeycloakServiceException(
+            "Error al asignar los roles del usuario",
+            "ROLE_ASSIGNMENT_FAILED",
+            500,
+            cause
+        );
+    }
+
+    private static List<String> withDefaults(Optional<List<String>> defaults, List<String> requested) {
+        if (defaults.isEmpty() || defaults.get().isEmpty()) {
+            return requested;
+        }
+        Set<String> merged = new LinkedHashSet<>(defaults.get());
+        merged.addAll(requested);
+        return new ArrayList<>(merged);
+    }
+
     private String extractUserIdFromLocation(String location) {
         if (location == null || location.isEmpty()) {
             throw new KeycloakServiceException(
@@ -139,18 +278,27 @@ public class KeycloakUserService {
     }
 
     public boolean userExists(String username) {
+        return userExists(null, username);
+    }
+
+    public boolean userExists(String realm, String username) {
+        RealmHandle handle = realmRegistry.resolve(realm);
+        return handle.execute("user_exists", true, clients -> existsInRealm(handle.name(), clients, username));
+    }
+
+    private boolean existsInRealm(String targetRealm, RealmHandle.Clients clients, String username) {
         LOG.infof("Verificando si el usuario existe en realm: %s", targetRealm);
         
+        KeycloakCallEvent call = KeycloakCallEvent.begin("search_user", targetRealm);
         try {
-            RealmResource realmResource = getRealmResource();
-            UsersResource usersResource = realmResource.users();
-            
-            List<UserRepresentation> users = usersResource.search(username, true);
+            List<UserRepresentation> users = clients.users().search(username, true);
+            call.finish(200);
             boolean exists = !users.isEmpty();
             
             LOG.infof("Verificación de existencia de usuario completada: %s", exists);
             return exists;
         } catch (Exception e) {
+            call.fail(e);
             LOG.errorf(e, "Error verificando existencia de usuario en realm: %s", targetRealm);
             throw new KeycloakServiceException(
                 "Error al verificar la existencia del usuario",
@@ -160,18 +308,4 @@ public class KeycloakUserService {
             );
         }
     }
-
-    private RealmResource getRealmResource() {
-        try {
-            return keycloak.realm(targetRealm);
-        } catch (Exception e) {
-            LOG.errorf(e, "Error al acceder al realm: %s", targetRealm);
-            throw new KeycloakServiceException(
-                "Error al acceder al realm de Keycloak: " + targetRealm,
-                "REALM_ACCESS_FAILED",
-                503,
-                e
-            );
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,188 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.domain.PasswordPolicy;
+import com.byteflowsivar.aurora.domain.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Checks passwords against the target realm's own password policy before any call
+ * to Keycloak, so a password the realm would refuse never gets as far as creating
+ * the user. Policies are cached per realm, preloaded during warm-up and refreshed in
+ * the background, never read on the request thread; until a realm's policy could be
+ * read at least once, Keycloak remains the only judge.
+ */
+@ApplicationScoped
+public class PasswordPolicyValidator {
+
+    private static final Logger LOG = Logger.getLogger(PasswordPolicyValidator.class);
+
+    @Inject
+    RealmRegistry realmRegistry;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "aurora.password-policy.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "aurora.password-policy.refresh-interval", defaultValue = "PT5M")
+    Duration refreshInterval;
+
+    @ConfigProperty(name = "aurora.password-policy.retry-interval", defaultValue = "PT10S")
+    Duration retryInterval;
+
+    private final Map<String, RealmPolicy> realms = new ConcurrentHashMap<>();
+    private Counter rejected;
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        rejected = meterRegistry.counter("aurora.password-policy.rejected");
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "password-policy-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshAll, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * @param realm target realm, or null for the default realm
+     */
+    public void validate(String realm, User user) {
+        if (!enabled) {
+            return;
+        }
+        String name = realmRegistry.resolve(realm).name();
+        PasswordPolicy policy = realms.computeIfAbsent(name, RealmPolicy::new).current();
+        try {
+            policy.check(user.getPasswordForAuthentication(), user.getUsername(), user.getEmail());
+        } catch (IllegalArgumentException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads a realm's policy now, for warm-up. A failure is logged and left to the
+     * background load of the first request.
+     */
+    public void preload(String realm) {
+        if (enabled) {
+            refresh(realms.computeIfAbsent(realm, RealmPolicy::new));
+        }
+    }
+
+    /**
+     * Reloads a realm's policy in the background, e.g. after Keycloak refused a
+     * password the cached policy accepted. The cached policy stays in use meanwhile.
+     */
+    public void refresh(String realm) {
+        RealmPolicy entry = realms.get(realm);
+        if (entry != null && refresher != null) {
+            refresher.execute(() -> refresh(entry));
+        }
+    }
+
+    private void refreshAll() {
+        for (RealmPolicy entry : realms.values()) {
+            refresh(entry);
+        }
+    }
+
+    private static void refresh(RealmPolicy entry) {
+        try {
+            entry.reload();
+        } catch (Exception e) {
+            // Keep checking against the previous policy
+            LOG.warnf("No se pudo refrescar la política de contraseñas del realm %s: %s", entry.realm, e.getMessage());
+        }
+    }
+
+    private final class RealmPolicy {
+
+        final String realm;
+        volatile PasswordPolicy policy;
+        volatile long lastAttemptNanos;
+        final AtomicBoolean loading = new AtomicBoolean();
+        String loadedText;
+
+        RealmPolicy(String realm) {
+            this.realm = realm;
+        }
+
+        PasswordPolicy current() {
+            PasswordPolicy current = policy;
+            if (current != null) {
+                return current;
+            }
+            // Not knowing the policy yet must not hold up the request; Keycloak still enforces it
+            loadInBackground();
+            return PasswordPolicy.NONE;
+        }
+
+        private void loadInBackground() {
+            long lastAttempt = lastAttemptNanos;
+            if (lastAttempt != 0 && System.nanoTime() - lastAttempt < retryInterval.toNanos()) {
+                return;
+            }
+            if (!loading.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                refresher.execute(() -> {
+                    try {
+                        reload();
+                    } catch (Exception e) {
+                        LOG.warnf("No se pudo leer la política de contraseñas del realm %s: %s", realm, e.getMessage());
+                    } finally {
+                        loading.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                loading.set(false);
+            }
+        }
+
+        synchronized PasswordPolicy reload() {
+            lastAttemptNanos = System.nanoTime();
+            String text = realmRegistry.resolve(realm).describe().getPasswordPolicy();
+            PasswordPolicy loaded = PasswordPolicy.parse(text);
+            if (loadedText == null || !loadedText.equals(String.valueOf(text))) {
+                LOG.infof("Política de contraseñas del realm %s cargada: %s%s", realm, text == null ? "(ninguna)" : text,
+                    loaded.unevaluated().isEmpty() ? "" : "; solo la evalúa Keycloak: " + loaded.unevaluated());
+                loadedText = String.valueOf(text);
+            }
+            policy = loaded;
+            return loaded;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.resource.RealmResource;
+import org.keycloak.admin.client.resource.UsersResource;
+import org.keycloak.representations.idm.RealmRepresentation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Everything the service keeps per realm: the admin client resources for each
+ * Keycloak node, built once, the concurrency budgets that isolate the realm from the others, its recent
+ * health and its realm-tagged meters. Reads and writes have separate budgets, so
+ * creations waiting on the write bulkhead never hold the permits reads need.
+ */
+public final class RealmHandle {
+
+    private final String name;
+    private final KeycloakCluster cluster;
+    private final Clients[] clients;
+    private final Map<String, Clients[]> clientsByOperation = new ConcurrentHashMap<>();
+    private final Semaphore readPermits;
+    private final Semaphore writePermits;
+    private final long acquireTimeoutNanos;
+    private final int unhealthyAfterFailures;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Counter rejected;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private volatile long lastSuccessMillis;
+    private volatile long lastFailureMillis;
+    private volatile String lastError;
+
+    RealmHandle(String name, KeycloakCluster cluster, int maxConcurrentReads, int maxConcurrentWrites, long acquireTimeoutNanos,
+                int unhealthyAfterFailures, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.cluster = cluster;
+        List<EndpointBalancer.Endpoint<Keycloak>> endpoints = cluster.endpoints();
+        this.clients = new Clients[endpoints.size()];
+        for (EndpointBalancer.Endpoint<Keycloak> endpoint : endpoints) {
+            RealmResource realm = endpoint.client().realm(name);
+            clients[endpoint.index()] = new Clients(realm, realm.users());
+        }
+        this.readPermits = new Semaphore(maxConcurrentReads);
+        this.writePermits = new Semaphore(maxConcurrentWrites);
+        this.acquireTimeoutNanos = acquireTimeoutNanos;
+        this.unhealthyAfterFailures = unhealthyAfterFailures;
+        this.meterRegistry = meterRegistry;
+        this.rejected = meterRegistry.counter("aurora.realm.rejected", "realm", name);
+        meterRegistry.gauge("aurora.realm.inflight", Tags.of("realm", name), inFlight, AtomicInteger::get);
+        meterRegistry.gauge("aurora.realm.healthy", Tags.of("realm", name), this, handle -> handle.isHealthy() ? 1 : 0);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Runs an admin operation within the realm's read or write budget, on the Keycloak
+     * node picked by the cluster. When the budget is exhausted the call is rejected
+     * after a short wait instead of queueing behind the realm's other requests.
+     */
+    public <T> T execute(String operation, boolean idempotent, Function<Clients, T> call) {
+        RequestDeadline deadline = RequestDeadline.current();
+        long waitNanos = acquireTimeoutNanos;
+        if (deadline != null) {
+            deadline.check(operation);
+            waitNanos = Math.min(waitNanos, deadline.remainingNanos());
+        }
+        Semaphore permits = idempotent ? readPermits : writePermits;
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KeycloakServiceException("Solicitud interrumpida", "INTERRUPTED", 503, e);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new KeycloakServiceException(
+                "Demasiadas solicitudes concurrentes para el realm: " + name,
+                "REALM_CONCURRENCY_LIMIT",
+                429
+            );
+        }
+
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Clients[] operationClients = clientsFor(operation, idempotent);
+            T result = cluster.execute(operation, idempotent, endpoint -> {
+                // Also stops a failover attempt once the client has given up
+                RequestDeadline.checkCurrent(operation);
+                return call.apply(operationClients[endpoint.index()]);
+            });
+            outcome = "success";
+            recordSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            KeycloakServiceException timeout = KeycloakCluster.timeoutError(operation, e);
+            RuntimeException error = timeout != null ? timeout : e;
+            if (error instanceof KeycloakServiceException keycloakError && "DEADLINE_EXCEEDED".equals(keycloakError.getErrorCode())) {
+                outcome = "deadline_exceeded";
+            } else if (error instanceof KeycloakServiceException keycloakError && Bulkhead.BULKHEAD_FULL.equals(keycloakError.getErrorCode())) {
+                // Local saturation, the realm was never called
+                outcome = "bulkhead_rejected";
+            } else if (error instanceof KeycloakServiceException keycloakError && keycloakError.getHttpStatus() < 500) {
+                // The realm answered; the request itself was at fault
+                outcome = "client_error";
+                recordSuccess();
+            } else {
+                outcome = timeout != null ? "timeout" : "error";
+                recordFailure(error);
+            }
+            throw error;
+        } finally {
+            inFlight.decrementAndGet();
+            permits.release();
+            timer(operation, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Reads the realm outside the concurrency budget, for health checks and probes.
+     */
+    public RealmRepresentation describe() {
+        try {
+            Clients[] operationClients = clientsFor("describe_realm", true);
+            RealmRepresentation realm = cluster.execute("describe_realm", true,
+                endpoint -> operationClients[endpoint.index()].realm().toRepresentation());
+            recordSuccess();
+            return realm;
+        } catch (KeycloakServiceException e) {
+            if (!Bulkhead.BULKHEAD_FULL.equals(e.getErrorCode())) {
+                recordFailure(e);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            recordFailure(e);
+            throw e;
+        }
+    }
+
+    public boolean isHealthy() {
+        return consecutiveFailures.get() < unhealthyAfterFailures;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long lastSuccessMillis() {
+        return lastSuccessMillis;
+    }
+
+    public long lastFailureMillis() {
+        return lastFailureMillis;
+    }
+
+    public String lastError() {
+        return lastError;
+    }
+
+    private Clients[] clientsFor(String operation, boolean idempotent) {
+        return clientsByOperation.computeIfAbsent(operation, name -> {
+            List<EndpointBalancer.Endpoint<Keycloak>> endpoints = cluster.endpoints();
+            Clients[] operationClients = new Clients[endpoints.size()];
+            for (EndpointBalancer.Endpoint<Keycloak> endpoint : endpoints) {
+                Keycloak client = cluster.client(name, idempotent, endpoint);
+                if (client == endpoint.client()) {
+                    operationClients[endpoint.index()] = clients[endpoint.index()];
+                } else {
+                    RealmResource realm = client.realm(this.name);
+                    operationClients[endpoint.index()] = new Clients(realm, realm.users());
+                }
+            }
+            return operationClients;
+        });
+    }
+
+    private void recordSuccess() {
+        lastSuccessMillis = System.currentTimeMillis();
+        consecutiveFailures.set(0);
+    }
+
+    private void recordFailure(Exception e) {
+        lastFailureMillis = System.currentTimeMillis();
+        lastError = e.getMessage();
+        consecutiveFailures.incrementAndGet();
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return timers.computeIfAbsent(operation + '|' + outcome, key -> meterRegistry.timer("aurora.keycloak.calls",
+            "realm", name, "operation", operation, "outcome", outcome));
+    }
+
+    public record Clients(RealmResource realm, UsersResource users) {
+    }
+}
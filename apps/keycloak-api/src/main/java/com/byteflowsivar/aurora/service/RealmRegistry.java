@@ -0,0 +1,175 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the realm a request targets and hands out its cached {@link RealmHandle}.
+ * Only the default realm and realms matching the configured allowlist or pattern
+ * are served. Idle realms are probed in the background to keep their health current.
+ */
+@ApplicationScoped
+public class RealmRegistry {
+
+    private static final Logger LOG = Logger.getLogger(RealmRegistry.class);
+
+    private static final Pattern REALM_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,63}");
+
+    @Inject
+    KeycloakCluster keycloakCluster;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "keycloak.target-realm")
+    String defaultRealm;
+
+    @ConfigProperty(name = "aurora.realms.allowed")
+    Optional<List<String>> allowedRealms;
+
+    @ConfigProperty(name = "aurora.realms.allowed-pattern")
+    Optional<String> allowedPattern;
+
+    @ConfigProperty(name = "aurora.realms.max-cached", defaultValue = "1000")
+    int maxCached;
+
+    @ConfigProperty(name = "aurora.realms.max-concurrent-reads", defaultValue = "32")
+    int maxConcurrentReads;
+
+    @ConfigProperty(name = "aurora.realms.max-concurrent-writes", defaultValue = "16")
+    int maxConcurrentWrites;
+
+    @ConfigProperty(name = "aurora.realms.acquire-timeout", defaultValue = "PT0.1S")
+    Duration acquireTimeout;
+
+    @ConfigProperty(name = "aurora.realms.unhealthy-after-failures", defaultValue = "3")
+    int unhealthyAfterFailures;
+
+    @ConfigProperty(name = "aurora.realms.health-probe-interval", defaultValue = "PT30S")
+    Duration healthProbeInterval;
+
+    private final Map<String, RealmHandle> handles = new ConcurrentHashMap<>();
+    private Pattern pattern;
+    private ScheduledExecutorService prober;
+
+    @PostConstruct
+    void init() {
+        pattern = allowedPattern.filter(value -> !value.isBlank()).map(Pattern::compile).orElse(null);
+        prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "realm-health-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = healthProbeInterval.toMillis();
+        prober.scheduleWithFixedDelay(this::probeIdleRealms, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        prober.shutdownNow();
+    }
+
+    public String defaultRealm() {
+        return defaultRealm;
+    }
+
+    /**
+     * Returns the handle of the requested realm, or of the default realm when none
+     * was requested.
+     */
+    public RealmHandle resolve(String requestedRealm) {
+        String realm = requestedRealm == null || requestedRealm.isBlank() ? defaultRealm : requestedRealm.trim();
+        RealmHandle handle = handles.get(realm);
+        if (handle != null) {
+            return handle;
+        }
+        if (!isAllowed(realm)) {
+            throw new KeycloakServiceException("Realm no encontrado: " + realm, "UNKNOWN_REALM", 404);
+        }
+        if (handles.size() >= maxCached) {
+            LOG.warnf("Límite de realms en caché alcanzado (%d), rechazando realm: %s", maxCached, realm);
+            throw new KeycloakServiceException(
+                "No se pueden atender más realms en esta instancia",
+                "REALM_CAPACITY_EXCEEDED",
+                503
+            );
+        }
+        return handles.computeIfAbsent(realm, this::createHandle);
+    }
+
+    /**
+     * Realms named in the configuration: the default realm and the allowlist. Realms
+     * admitted by the pattern are only known once requested.
+     */
+    public List<String> configuredRealms() {
+        Set<String> realms = new LinkedHashSet<>();
+        realms.add(defaultRealm);
+        allowedRealms.ifPresent(list -> list.stream().map(String::trim).filter(this::isAllowed).forEach(realms::add));
+        return List.copyOf(realms);
+    }
+
+    public Collection<RealmHandle> handles() {
+        return handles.values();
+    }
+
+    private boolean isAllowed(String realm) {
+        if (realm.equals(defaultRealm)) {
+            return true;
+        }
+        if (!REALM_NAME.matcher(realm).matches()) {
+            return false;
+        }
+        return allowedRealms.map(list -> list.contains(realm)).orElse(false)
+            || (pattern != null && pattern.matcher(realm).matches());
+    }
+
+    private RealmHandle createHandle(String realm) {
+        try {
+            LOG.infof("Registrando realm: %s", realm);
+            return new RealmHandle(realm, keycloakCluster, maxConcurrentReads, maxConcurrentWrites, acquireTimeout.toNanos(),
+                unhealthyAfterFailures, meterRegistry);
+        } catch (Exception e) {
+            LOG.errorf(e, "Error al acceder al realm: %s", realm);
+            throw new KeycloakServiceException(
+                "Error al acceder al realm de Keycloak: " + realm,
+                "REALM_ACCESS_FAILED",
+                503,
+                e
+            );
+        }
+    }
+
+    private void probeIdleRealms() {
+        long idleSince = System.currentTimeMillis() - healthProbeInterval.toMillis();
+        for (RealmHandle handle : handles.values()) {
+            if (handle.lastSuccessMillis() >= idleSince) {
+                // Recent traffic already proves the realm is reachable
+                continue;
+            }
+            try {
+                handle.describe();
+            } catch (Exception e) {
+                LOG.warnf("Sondeo de salud fallido para realm %s: %s", handle.name(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Point in time after which the client no longer waits for the answer. The deadline
+ * of the request being served is bound to the thread, so every Keycloak call made
+ * on its behalf can check it without threading it through each signature; work
+ * handed to other threads must carry it over with {@link #callWithin}.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+    private final long timeoutNanos;
+
+    private RequestDeadline(long startNanos, long timeoutNanos) {
+        this.expiresAtNanos = startNanos + timeoutNanos;
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    public static RequestDeadline after(long startNanos, Duration timeout) {
+        return new RequestDeadline(startNanos, timeout.toNanos());
+    }
+
+    /**
+     * Deadline of the request served by this thread, or null outside a request.
+     */
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    public static void bind(RequestDeadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Fails fast if the current request has run out of time before the given operation.
+     */
+    public static void checkCurrent(String operation) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.check(operation);
+        }
+    }
+
+    /**
+     * Runs work, typically on another thread, within the given deadline of the
+     * request it is done for.
+     */
+    public static <T> T callWithin(RequestDeadline deadline, Supplier<T> work) {
+        if (deadline == null) {
+            return work.get();
+        }
+        RequestDeadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public long remainingNanos() {
+        return expiresAtNanos - System.nanoTime();
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    public void check(String operation) {
+        if (isExpired()) {
+            throw new KeycloakServiceException(
+                "Plazo de la solicitud agotado (" + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms) antes de: " + operation,
+                "DEADLINE_EXCEEDED",
+                504
+            );
+        }
+    }
+}
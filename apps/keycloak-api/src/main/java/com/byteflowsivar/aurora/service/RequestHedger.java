@@ -0,0 +1,218 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends a backup copy of a slow idempotent call once it has taken longer than the
+ * recent p95 of its operation; the first successful answer wins and the other
+ * attempt is cancelled. Backups draw from a budget refilled by a fixed fraction of
+ * the calls, which bounds the extra load they add.
+ */
+public final class RequestHedger {
+
+    private static final int WINDOW_SIZE = 512;
+    private static final int RECOMPUTE_EVERY = 64;
+    private static final long TOKEN = 1000;
+
+    private final ExecutorService executor;
+    private final double quantile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final long depositPerCall;
+    private final long maxBalance;
+    private final AtomicLong balance;
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+
+    /**
+     * @param executor      runs the attempts; the caller thread only waits for them
+     * @param quantile      latency quantile after which a backup is sent, e.g. 0.95
+     * @param minDelay      lower bound of the hedge delay
+     * @param maxDelay      upper bound of the hedge delay, also used until enough latencies are known
+     * @param budgetPercent backups allowed per hundred calls in the long run
+     * @param maxBurst      backups that may be sent in a row when the budget is full
+     */
+    public RequestHedger(ExecutorService executor, double quantile, Duration minDelay, Duration maxDelay,
+                         double budgetPercent, int maxBurst) {
+        this.executor = executor;
+        this.quantile = quantile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxDelayNanos = Math.max(maxDelay.toNanos(), minDelayNanos);
+        this.depositPerCall = Math.round(TOKEN * budgetPercent / 100.0);
+        this.maxBalance = Math.max(maxBurst, 1) * TOKEN;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    public OperationStats stats(String operation) {
+        return operations.computeIfAbsent(operation, name -> new OperationStats());
+    }
+
+    /**
+     * Current hedge delay of the operation: its observed latency quantile within the configured bounds.
+     */
+    public double delayMillis(String operation) {
+        return stats(operation).delayNanos(minDelayNanos, maxDelayNanos) / 1_000_000.0;
+    }
+
+    public <T> T execute(String operation, Attempt<T> attempt) {
+        OperationStats stats = stats(operation);
+        stats.calls.increment();
+        deposit();
+
+        long start = System.nanoTime();
+        CompletionService<Outcome<T>> attempts = new ExecutorCompletionService<>(executor);
+        Future<Outcome<T>> primary;
+        try {
+            primary = attempts.submit(() -> run(attempt, false));
+        } catch (RejectedExecutionException e) {
+            // No spare thread: run the call without a hedge rather than fail it
+            T result = attempt.call(false);
+            stats.record(System.nanoTime() - start, quantile);
+            return result;
+        }
+
+        Future<Outcome<T>> backup = null;
+        try {
+            Future<Outcome<T>> first = attempts.poll(stats.delayNanos(minDelayNanos, maxDelayNanos), TimeUnit.NANOSECONDS);
+            if (first == null && withdraw()) {
+                try {
+                    backup = attempts.submit(() -> run(attempt, true));
+                    stats.hedges.increment();
+                } catch (RejectedExecutionException e) {
+                    // Keep waiting for the primary alone
+                }
+            }
+            int pending = backup != null ? 2 : 1;
+            RuntimeException failure = null;
+            for (Future<Outcome<T>> done = first; pending > 0; done = null) {
+                if (done == null) {
+                    done = attempts.take();
+                }
+                pending--;
+                Outcome<T> outcome = done.get();
+                if (outcome.failure == null) {
+                    // What the caller waited, hedge delay included: the backup's own time would
+                    // hide the slow primaries and pull the delay down until every call is hedged
+                    stats.record(System.nanoTime() - start, quantile);
+                    if (outcome.hedge) {
+                        stats.hedgeWins.increment();
+                    }
+                    return outcome.value;
+                }
+                if (failure == null) {
+                    failure = outcome.failure;
+                }
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KeycloakServiceException("Solicitud interrumpida", "INTERRUPTED", 503, e);
+        } catch (ExecutionException e) {
+            // run() captures every RuntimeException, so only errors end up here
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            primary.cancel(true);
+            if (backup != null) {
+                backup.cancel(true);
+            }
+        }
+    }
+
+    private static <T> Outcome<T> run(Attempt<T> attempt, boolean hedge) {
+        try {
+            return new Outcome<>(attempt.call(hedge), null, hedge);
+        } catch (RuntimeException e) {
+            return new Outcome<>(null, e, hedge);
+        }
+    }
+
+    private void deposit() {
+        long current;
+        do {
+            current = balance.get();
+            if (current >= maxBalance) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(current + depositPerCall, maxBalance)));
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    @FunctionalInterface
+    public interface Attempt<T> {
+
+        /**
+         * @param hedge whether this is the backup copy of the call
+         */
+        T call(boolean hedge);
+    }
+
+    private record Outcome<T>(T value, RuntimeException failure, boolean hedge) {
+    }
+
+    /**
+     * Call counters of one operation and the ring of its recent latencies.
+     */
+    public static final class OperationStats {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder hedges = new LongAdder();
+        private final LongAdder hedgeWins = new LongAdder();
+        private final long[] window = new long[WINDOW_SIZE];
+        private long recorded;
+        private volatile long quantileNanos = -1;
+
+        public long calls() {
+            return calls.sum();
+        }
+
+        public long hedges() {
+            return hedges.sum();
+        }
+
+        public long hedgeWins() {
+            return hedgeWins.sum();
+        }
+
+        long delayNanos(long minDelayNanos, long maxDelayNanos) {
+            long observed = quantileNanos;
+            if (observed < 0) {
+                return maxDelayNanos;
+            }
+            return Math.max(minDelayNanos, Math.min(observed, maxDelayNanos));
+        }
+
+        synchronized void record(long elapsedNanos, double quantile) {
+            window[(int) (recorded % WINDOW_SIZE)] = elapsedNanos;
+            recorded++;
+            if (recorded % RECOMPUTE_EVERY == 0) {
+                int size = (int) Math.min(recorded, WINDOW_SIZE);
+                long[] sorted = Arrays.copyOf(window, size);
+                Arrays.sort(sorted);
+                quantileNanos = sorted[Math.min((int) Math.ceil(quantile * size) - 1, size - 1)];
+            }
+        }
+    }
+}
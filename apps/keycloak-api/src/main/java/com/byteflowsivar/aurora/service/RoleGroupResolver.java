@@ -0,0 +1,256 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.keycloak.admin.client.resource.GroupsResource;
+import org.keycloak.admin.client.resource.RealmResource;
+import org.keycloak.representations.idm.GroupRepresentation;
+import org.keycloak.representations.idm.RoleRepresentation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-realm cache of realm roles and groups, keyed by name, so that user creation
+ * can resolve assignments without extra lookups. Snapshots are replaced in the
+ * background; a name that is not found forces a reload before it is rejected.
+ */
+@ApplicationScoped
+public class RoleGroupResolver {
+
+    private static final Logger LOG = Logger.getLogger(RoleGroupResolver.class);
+
+    private static final int PAGE_SIZE = 100;
+
+    @Inject
+    KeycloakCluster keycloakCluster;
+
+    @ConfigProperty(name = "aurora.role-group-cache.refresh-interval", defaultValue = "PT5M")
+    Duration refreshInterval;
+
+    @ConfigProperty(name = "aurora.role-group-cache.miss-refresh-min-interval", defaultValue = "PT5S")
+    Duration missRefreshMinInterval;
+
+    private final Map<String, RealmEntry> realms = new ConcurrentHashMap<>();
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    void init() {
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "role-group-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refreshAll, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    public List<RoleRepresentation> resolveRealmRoles(String realm, Collection<String> names) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        RealmEntry entry = entry(realm);
+        Snapshot snapshot = entry.current();
+        List<RoleRepresentation> roles = new ArrayList<>(names.size());
+        for (String name : new LinkedHashSet<>(names)) {
+            RoleRepresentation role = snapshot.rolesByName.get(name);
+            if (role == null) {
+                snapshot = entry.refreshOnMiss(snapshot);
+                role = snapshot.rolesByName.get(name);
+            }
+            if (role == null) {
+                throw new KeycloakServiceException("El rol no existe en el realm: " + name, "UNKNOWN_REALM_ROLE", 400);
+            }
+            roles.add(role);
+        }
+        return roles;
+    }
+
+    /**
+     * Resolves group names or full paths ("/parent/child") to the group paths
+     * Keycloak accepts in a user representation. A bare name must be unique.
+     */
+    public List<String> resolveGroupPaths(String realm, Collection<String> namesOrPaths) {
+        if (namesOrPaths.isEmpty()) {
+            return List.of();
+        }
+        RealmEntry entry = entry(realm);
+        Snapshot snapshot = entry.current();
+        List<String> paths = new ArrayList<>(namesOrPaths.size());
+        for (String name : new LinkedHashSet<>(namesOrPaths)) {
+            List<String> candidates = snapshot.groupPaths(name);
+            if (candidates.isEmpty()) {
+                snapshot = entry.refreshOnMiss(snapshot);
+                candidates = snapshot.groupPaths(name);
+            }
+            if (candidates.isEmpty()) {
+                throw new KeycloakServiceException("El grupo no existe en el realm: " + name, "UNKNOWN_GROUP", 400);
+            }
+            if (candidates.size() > 1) {
+                throw new KeycloakServiceException(
+                    "El nombre de grupo es ambiguo, use la ruta completa: " + name, "AMBIGUOUS_GROUP", 400);
+            }
+            paths.add(candidates.get(0));
+        }
+        return paths;
+    }
+
+    public void invalidate(String realm) {
+        RealmEntry entry = realms.get(realm);
+        if (entry != null) {
+            entry.snapshot = null;
+        }
+    }
+
+    public void refresh(String realm) {
+        entry(realm).reload();
+    }
+
+    private RealmEntry entry(String realm) {
+        return realms.computeIfAbsent(realm, RealmEntry::new);
+    }
+
+    private void refreshAll() {
+        for (RealmEntry entry : realms.values()) {
+            try {
+                entry.reload();
+            } catch (Exception e) {
+                // Keep serving the previous snapshot; misses still trigger a reload
+                LOG.warnf(e, "No se pudo refrescar la caché de roles y grupos del realm: %s", entry.realm);
+            }
+        }
+    }
+
+    private Snapshot load(String realm) {
+        try {
+            return keycloakCluster.execute("load_roles_groups", true,
+                endpoint -> fetch(keycloakCluster.client("load_roles_groups", true, endpoint).realm(realm), realm));
+        } catch (KeycloakServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            LOG.errorf(e, "Error al cargar roles y grupos del realm: %s", realm);
+            throw new KeycloakServiceException(
+                "Error al obtener roles y grupos del realm: " + realm,
+                "ROLE_GROUP_LOOKUP_FAILED",
+                503,
+                e
+            );
+        }
+    }
+
+    private Snapshot fetch(RealmResource realmResource, String realm) {
+        long start = System.nanoTime();
+
+        Map<String, RoleRepresentation> rolesByName = new HashMap<>();
+        for (RoleRepresentation role : realmResource.roles().list()) {
+            rolesByName.put(role.getName(), role);
+        }
+
+        Map<String, List<String>> groupPathsByName = new HashMap<>();
+        GroupsResource groups = realmResource.groups();
+        for (int first = 0; ; first += PAGE_SIZE) {
+            List<GroupRepresentation> page = groups.groups(first, PAGE_SIZE, true);
+            for (GroupRepresentation group : page) {
+                collectGroup(groups, group, groupPathsByName);
+            }
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+
+        LOG.debugf("Caché de roles y grupos cargada para realm %s: %d roles, %d nombres de grupo en %d ms",
+            realm, rolesByName.size(), groupPathsByName.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new Snapshot(rolesByName, groupPathsByName, System.nanoTime());
+    }
+
+    private void collectGroup(GroupsResource groups, GroupRepresentation group, Map<String, List<String>> groupPathsByName) {
+        groupPathsByName.computeIfAbsent(group.getName(), name -> new ArrayList<>(1)).add(group.getPath());
+        List<GroupRepresentation> children = group.getSubGroups();
+        Long childCount = group.getSubGroupCount();
+        if ((children == null || children.isEmpty()) && childCount != null && childCount > 0) {
+            // Recent Keycloak versions return subgroups lazily
+            children = new ArrayList<>();
+            for (int first = 0; ; first += PAGE_SIZE) {
+                List<GroupRepresentation> page = groups.group(group.getId()).getSubGroups(first, PAGE_SIZE, true);
+                children.addAll(page);
+                if (page.size() < PAGE_SIZE) {
+                    break;
+                }
+            }
+        }
+        if (children != null) {
+            for (GroupRepresentation child : children) {
+                collectGroup(groups, child, groupPathsByName);
+            }
+        }
+    }
+
+    record Snapshot(Map<String, RoleRepresentation> rolesByName, Map<String, List<String>> groupPathsByName, long loadedAtNanos) {
+
+        List<String> groupPaths(String nameOrPath) {
+            if (nameOrPath.startsWith("/")) {
+                String name = nameOrPath.substring(nameOrPath.lastIndexOf('/') + 1);
+                return groupPathsByName.getOrDefault(name, List.of()).contains(nameOrPath) ? List.of(nameOrPath) : List.of();
+            }
+            return groupPathsByName.getOrDefault(nameOrPath, List.of());
+        }
+    }
+
+    private final class RealmEntry {
+
+        final String realm;
+        volatile Snapshot snapshot;
+
+        RealmEntry(String realm) {
+            this.realm = realm;
+        }
+
+        Snapshot current() {
+            Snapshot current = snapshot;
+            if (current != null) {
+                return current;
+            }
+            synchronized (this) {
+                return snapshot != null ? snapshot : reload();
+            }
+        }
+
+        synchronized Snapshot reload() {
+            Snapshot loaded = load(realm);
+            snapshot = loaded;
+            return loaded;
+        }
+
+        synchronized Snapshot refreshOnMiss(Snapshot seen) {
+            Snapshot current = snapshot;
+            if (current != null && current != seen) {
+                // Another caller already reloaded while we waited
+                return current;
+            }
+            if (current != null && System.nanoTime() - current.loadedAtNanos() < missRefreshMinInterval.toNanos()) {
+                // Bound the reload rate so unknown names cannot be used to hammer Keycloak
+                return current;
+            }
+            return reload();
+        }
+    }
+}
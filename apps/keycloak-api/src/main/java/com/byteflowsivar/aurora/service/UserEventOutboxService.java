@@ -0,0 +1,276 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.storage.UserEventOutbox;
+import com.byteflowsivar.aurora.storage.UserEventOutbox.Entry;
+import com.byteflowsivar.aurora.storage.UserEventOutbox.UserCreatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes user-created events to the {@code user_outbox} table of aurora_db.
+ * Request threads only append to the local {@link UserEventOutbox}; a single
+ * publisher thread ships them in multi-row inserts, so a slow database delays the
+ * feed but never the requests, and nothing is lost while it is down.
+ */
+@ApplicationScoped
+public class UserEventOutboxService {
+
+    private static final Logger LOG = Logger.getLogger(UserEventOutboxService.class);
+
+    public static final String USER_CREATED = "USER_CREATED";
+
+    // Serializes batch inserts across instances so that ids become visible in order
+    private static final long PUBLISH_LOCK_ID = 0x6175726f72616f62L;
+    private static final int COLUMNS = 7;
+    private static final int MAX_BATCH_SIZE = 65535 / COLUMNS;
+
+    private static final String CREATE_TABLE = """
+        CREATE TABLE IF NOT EXISTS user_outbox (
+            id BIGSERIAL PRIMARY KEY,
+            event_id UUID NOT NULL UNIQUE,
+            event_type VARCHAR(64) NOT NULL,
+            realm VARCHAR(255) NOT NULL,
+            user_id VARCHAR(64) NOT NULL,
+            username VARCHAR(255) NOT NULL,
+            email VARCHAR(255),
+            occurred_at TIMESTAMP WITH TIME ZONE NOT NULL,
+            recorded_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+        )""";
+
+    private static final String SELECT_AFTER = """
+        SELECT id, event_id, realm, user_id, username, email, occurred_at
+        FROM user_outbox WHERE id > ? ORDER BY id LIMIT ?""";
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "aurora.outbox.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "aurora.outbox.path", defaultValue = "./data/outbox")
+    String path;
+
+    @ConfigProperty(name = "aurora.outbox.segment-size-mb", defaultValue = "16")
+    int segmentSizeMb;
+
+    @ConfigProperty(name = "aurora.outbox.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @ConfigProperty(name = "aurora.outbox.linger", defaultValue = "PT0.005S")
+    Duration linger;
+
+    @ConfigProperty(name = "aurora.outbox.retry-backoff", defaultValue = "PT0.5S")
+    Duration retryBackoff;
+
+    @ConfigProperty(name = "aurora.outbox.max-retry-backoff", defaultValue = "PT30S")
+    Duration maxRetryBackoff;
+
+    @ConfigProperty(name = "aurora.outbox.create-schema", defaultValue = "true")
+    boolean createSchema;
+
+    private UserEventOutbox outbox;
+    private Thread publisher;
+    private volatile boolean running;
+    private boolean schemaReady;
+    private Counter published;
+    private Counter publishFailures;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+        try {
+            outbox = new UserEventOutbox(Paths.get(path), segmentSizeMb * 1024 * 1024);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo abrir el outbox de eventos en: " + path, e);
+        }
+        published = meterRegistry.counter("aurora.outbox.published");
+        publishFailures = meterRegistry.counter("aurora.outbox.publish-failures");
+        batchTimer = meterRegistry.timer("aurora.outbox.batch");
+        meterRegistry.gauge("aurora.outbox.pending", Tags.empty(), outbox, UserEventOutbox::pending);
+
+        running = true;
+        publisher = new Thread(this::publishLoop, "user-event-outbox-publisher");
+        publisher.setDaemon(true);
+        publisher.start();
+        LOG.infof("Outbox de eventos de usuario abierto en %s (%d eventos pendientes)", path, outbox.pending());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (outbox == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(publisher);
+        try {
+            publisher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        outbox.force();
+        outbox.close();
+    }
+
+    public boolean isEnabled() {
+        return outbox != null;
+    }
+
+    public void recordUserCreated(String realm, String userId, String username, String email) {
+        if (outbox == null) {
+            return;
+        }
+        try {
+            outbox.append(new UserCreatedEvent(UUID.randomUUID(), Instant.now(), realm, userId, username, email));
+            long pending = outbox.pending();
+            if (pending == 1 || pending == batchSize) {
+                LockSupport.unpark(publisher);
+            }
+        } catch (Exception e) {
+            // The user already exists in Keycloak; failing the request now would only invite a duplicate retry
+            LOG.errorf(e, "Error al registrar evento de creación del usuario ID: %s", userId);
+        }
+    }
+
+    /**
+     * Published events with an id greater than {@code cursor}, in id order. Ids only
+     * become visible in increasing order, so a consumer that resumes from the last id
+     * it processed never misses an event.
+     */
+    public List<PublishedEvent> readAfter(long cursor, int limit) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement(SELECT_AFTER)) {
+            select.setLong(1, cursor);
+            select.setInt(2, limit);
+            List<PublishedEvent> events = new ArrayList<>(limit);
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    events.add(new PublishedEvent(rows.getLong(1), new UserCreatedEvent(
+                        rows.getObject(2, UUID.class),
+                        rows.getObject(7, OffsetDateTime.class).toInstant(),
+                        rows.getString(3),
+                        rows.getString(4),
+                        rows.getString(5),
+                        rows.getString(6))));
+                }
+            }
+            return events;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error al leer el outbox de eventos", e);
+        }
+    }
+
+    private void publishLoop() {
+        long lingerNanos = linger.toNanos();
+        long backoffMillis = retryBackoff.toMillis();
+        while (running) {
+            if (outbox.pending() == 0) {
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+                continue;
+            }
+            if (outbox.pending() < batchSize) {
+                // Let concurrent creations join the batch; a full batch unparks us early
+                LockSupport.parkNanos(lingerNanos);
+            }
+            try {
+                List<Entry> batch = outbox.readPending(batchSize);
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                insert(batch);
+                outbox.commit(batch.get(batch.size() - 1), batch.size());
+                batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                published.increment(batch.size());
+                backoffMillis = retryBackoff.toMillis();
+            } catch (Exception e) {
+                publishFailures.increment();
+                LOG.errorf(e, "Error al publicar eventos de usuario; reintento en %d ms", backoffMillis);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMillis));
+                backoffMillis = Math.min(backoffMillis * 2, maxRetryBackoff.toMillis());
+            }
+        }
+    }
+
+    private void insert(List<Entry> batch) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!schemaReady && createSchema) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_TABLE);
+                }
+                schemaReady = true;
+            }
+
+            connection.setAutoCommit(false);
+            try {
+                try (PreparedStatement lock = connection.prepareStatement("SELECT pg_advisory_xact_lock(?)")) {
+                    lock.setLong(1, PUBLISH_LOCK_ID);
+                    lock.execute();
+                }
+                try (PreparedStatement insert = connection.prepareStatement(insertSql(batch.size()))) {
+                    int index = 1;
+                    for (Entry entry : batch) {
+                        UserCreatedEvent event = entry.event();
+                        insert.setObject(index++, event.eventId());
+                        insert.setString(index++, USER_CREATED);
+                        insert.setString(index++, event.realm());
+                        insert.setString(index++, event.userId());
+                        insert.setString(index++, event.username());
+                        insert.setString(index++, event.email());
+                        insert.setObject(index++, OffsetDateTime.ofInstant(event.occurredAt(), ZoneOffset.UTC));
+                    }
+                    insert.executeUpdate();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(160 + rows * 24)
+            .append("INSERT INTO user_outbox (event_id, event_type, realm, user_id, username, email, occurred_at) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ",").append("(?,?,?,?,?,?,?)");
+        }
+        // Events replayed after a crash between insert and checkpoint are already there
+        return sql.append(" ON CONFLICT (event_id) DO NOTHING").toString();
+    }
+
+    public record PublishedEvent(long cursor, UserCreatedEvent event) {
+    }
+}
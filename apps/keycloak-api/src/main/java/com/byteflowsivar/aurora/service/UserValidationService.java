@@ -0,0 +1,40 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.diagnostics.ValidationFailureEvent;
+import com.byteflowsivar.aurora.domain.User;
+import com.byteflowsivar.aurora.domain.UserValidator;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+@ApplicationScoped
+public class UserValidationService {
+
+    @Inject
+    Instance<UserValidator> validators;
+
+    @Inject
+    PasswordPolicyValidator passwordPolicyValidator;
+
+    public void validate(User user) {
+        validate(null, user);
+    }
+
+    /**
+     * @param realm target realm, whose password policy also applies; null for the default realm
+     */
+    public void validate(String realm, User user) {
+        ValidationFailureEvent event = new ValidationFailureEvent();
+        event.begin();
+        try {
+            user.validate(validators);
+            passwordPolicyValidator.validate(realm, user);
+        } catch (IllegalArgumentException e) {
+            if (event.shouldCommit()) {
+                event.reason = e.getMessage();
+                event.commit();
+            }
+            throw e;
+        }
+    }
+}
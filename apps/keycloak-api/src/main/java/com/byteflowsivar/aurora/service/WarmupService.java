@@ -0,0 +1,258 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.codec.DtoJsonCodecs;
+import com.byteflowsivar.aurora.domain.User;
+import com.byteflowsivar.aurora.dto.ConstantErrorResponse;
+import com.byteflowsivar.aurora.dto.CreateUserResponse;
+import com.byteflowsivar.aurora.dto.ErrorResponse;
+import com.byteflowsivar.aurora.dto.UserExistsResponse;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.resource.RealmResource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ApplicationScoped
+public class WarmupService {
+
+    private static final Logger LOG = Logger.getLogger(WarmupService.class);
+
+    private static final String SYNTHETIC_USERNAME = "warmup.probe";
+    private static final byte[] SYNTHETIC_USER_JSON = ("{"
+        + "\"username\":\"warmup.probe\","
+        + "\"email\":\"warmup.probe@example.com\","
+        + "\"firstName\":\"Warm\","
+        + "\"lastName\":\"Up\","
+        + "\"password\":\"W4rm-Up!Probe\","
+        + "\"enabled\":true}").getBytes(StandardCharsets.UTF_8);
+
+    @Inject
+    KeycloakCluster keycloakCluster;
+
+    @Inject
+    AuditService auditService;
+
+    @Inject
+    UserValidationService userValidationService;
+
+    @Inject
+    RoleGroupResolver roleGroupResolver;
+
+    @Inject
+    PasswordPolicyValidator passwordPolicyValidator;
+
+    @Inject
+    RealmRegistry realmRegistry;
+
+    @ConfigProperty(name = "keycloak.target-realm")
+    String targetRealm;
+
+    @ConfigProperty(name = "aurora.warmup.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "aurora.warmup.iterations", defaultValue = "10000")
+    int iterations;
+
+    @ConfigProperty(name = "aurora.warmup.connections", defaultValue = "4")
+    int connections;
+
+    @ConfigProperty(name = "aurora.warmup.keycloak-timeout", defaultValue = "PT30S")
+    Duration keycloakTimeout;
+
+    @ConfigProperty(name = "aurora.warmup.measure-first-requests", defaultValue = "100")
+    int measureFirstRequests;
+
+    private volatile boolean complete;
+    private volatile long durationMillis;
+    private volatile String keycloakError;
+
+    private long[] firstRequestNanos;
+    private final AtomicInteger recordedRequests = new AtomicInteger();
+    private final AtomicInteger storedRequests = new AtomicInteger();
+
+    void onStart(@Observes StartupEvent event) {
+        firstRequestNanos = new long[Math.max(measureFirstRequests, 0)];
+        if (!enabled) {
+            complete = true;
+            return;
+        }
+        Thread warmup = new Thread(this::warmUp, "startup-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public String getKeycloakError() {
+        return keycloakError;
+    }
+
+    public void recordRequestLatency(long nanos) {
+        long[] samples = firstRequestNanos;
+        if (samples == null || samples.length == 0) {
+            return;
+        }
+        int index = recordedRequests.getAndIncrement();
+        if (index < samples.length) {
+            samples[index] = nanos;
+            // The last writer to finish, not the last index, sees every sample
+            if (storedRequests.incrementAndGet() == samples.length) {
+                logFirstRequestLatency(samples);
+            }
+        }
+    }
+
+    private void warmUp() {
+        long start = System.nanoTime();
+        LOG.infof("Iniciando warm-up (%d iteraciones, %d conexiones a Keycloak)", iterations, connections);
+
+        try {
+            warmKeycloak();
+        } catch (Exception e) {
+            keycloakError = e.getMessage();
+            LOG.warnf(e, "Warm-up de Keycloak incompleto para realm: %s", targetRealm);
+        }
+        runStep("validación", this::warmValidation);
+        runStep("serialización", this::warmSerialization);
+        runStep("auditoría", this::warmAuditEncoding);
+
+        durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        complete = true;
+        LOG.infof("Warm-up completado en %d ms", durationMillis);
+    }
+
+    private void warmKeycloak() throws Exception {
+        List<EndpointBalancer.Endpoint<Keycloak>> nodes = keycloakCluster.endpoints();
+        ExecutorService pool = Executors.newFixedThreadPool(connections * nodes.size());
+        try {
+            List<Future<?>> calls = new ArrayList<>();
+            // Every node is warmed directly, not through the balancer, so each one has its own pools and tokens ready.
+            // That includes the write and per-operation clients, or the first create_user would still start cold
+            for (EndpointBalancer.Endpoint<Keycloak> node : nodes) {
+                for (Keycloak keycloak : keycloakCluster.clients(node)) {
+                    try {
+                        // Fetching the token first lets the parallel calls below reuse it instead of racing for it
+                        keycloak.tokenManager().getAccessToken();
+                    } catch (Exception e) {
+                        // A node that is down must not keep the others from warming up
+                        LOG.warnf("Warm-up omitido para el nodo de Keycloak %s: %s", node.url(), e.getMessage());
+                        break;
+                    }
+                    for (int i = 0; i < connections; i++) {
+                        calls.add(pool.submit(() -> {
+                            RealmResource realm = keycloak.realm(targetRealm);
+                            realm.toRepresentation();
+                            realm.users().search(SYNTHETIC_USERNAME, true);
+                            return null;
+                        }));
+                    }
+                }
+            }
+            calls.add(pool.submit(() -> {
+                roleGroupResolver.refresh(targetRealm);
+                return null;
+            }));
+            // Otherwise the first creation in each realm would be checked against no policy at all
+            for (String realm : realmRegistry.configuredRealms()) {
+                calls.add(pool.submit(() -> {
+                    passwordPolicyValidator.preload(realm);
+                    return null;
+                }));
+            }
+            long deadline = System.nanoTime() + keycloakTimeout.toNanos();
+            for (Future<?> call : calls) {
+                call.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void warmValidation() {
+        for (int i = 0; i < iterations; i++) {
+            User valid = new User(SYNTHETIC_USERNAME + i, "warmup" + i + "@example.com", "Warm", "Up", "W4rm-Up!Probe", true);
+            userValidationService.validate(valid);
+            User invalid = new User("w" + (i % 10), "not-an-email", "Warm", "Up", "weak", true);
+            try {
+                userValidationService.validate(invalid);
+            } catch (IllegalArgumentException expected) {
+                // Failure paths are exercised on purpose
+            }
+        }
+    }
+
+    private void warmSerialization() {
+        for (int i = 0; i < iterations; i++) {
+            DtoJsonCodecs.readUser(SYNTHETIC_USER_JSON);
+            DtoJsonCodecs.encode(new CreateUserResponse("warmup-" + i, SYNTHETIC_USERNAME, "Usuario creado exitosamente"));
+            DtoJsonCodecs.encode(new UserExistsResponse(SYNTHETIC_USERNAME, (i & 1) == 0));
+            DtoJsonCodecs.encode(new ErrorResponse("El usuario ya existe", "USER_ALREADY_EXISTS"));
+            DtoJsonCodecs.encode(ConstantErrorResponse.RATE_LIMIT_EXCEEDED);
+        }
+    }
+
+    private void warmAuditEncoding() {
+        Instant now = Instant.now();
+        for (int i = 0; i < iterations; i++) {
+            String clientInfo = auditService.sanitizeForLog("IP=192.0.2." + (i % 255) + " UA=warmup-agent/1.0");
+            auditService.extractClientIp(clientInfo);
+            auditService.formatSecurityEvent("USER_CREATION_ATTEMPT", now, Map.of(
+                "username", auditService.sanitizeForLog(SYNTHETIC_USERNAME),
+                "email", auditService.sanitizeForLog("warmup@example.com"),
+                "client_info", clientInfo
+            ));
+        }
+    }
+
+    private void runStep(String name, WarmupStep step) {
+        try {
+            step.run();
+        } catch (Exception e) {
+            LOG.warnf(e, "Error en el paso de warm-up: %s", name);
+        }
+    }
+
+    private void logFirstRequestLatency(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        LOG.infof("Latencia de las primeras %d solicitudes (warm-up %s): p50=%.2f ms p90=%.2f ms p99=%.2f ms max=%.2f ms",
+            sorted.length,
+            enabled ? "habilitado" : "deshabilitado",
+            percentileMillis(sorted, 0.50),
+            percentileMillis(sorted, 0.90),
+            percentileMillis(sorted, 0.99),
+            sorted[sorted.length - 1] / 1_000_000.0);
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    @FunctionalInterface
+    private interface WarmupStep {
+        void run() throws Exception;
+    }
+}
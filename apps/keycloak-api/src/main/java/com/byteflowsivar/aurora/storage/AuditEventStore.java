@@ -0,0 +1,371 @@
+package com.byteflowsivar.aurora.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Segmented audit event store with a sparse in-memory index. Every block of
+ * {@code indexInterval} records keeps its time range, an event-type mask and a
+ * client IP bloom filter, so queries only read the blocks that can match.
+ */
+public class AuditEventStore implements Closeable {
+
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final int IP_BLOOM_WORDS = 32;
+
+    private final Path directory;
+    private final SegmentedLog log;
+    private final int indexInterval;
+    private final ConcurrentSkipListMap<Long, SegmentIndex> indexes = new ConcurrentSkipListMap<>();
+
+    public AuditEventStore(Path directory, int segmentSize, int indexInterval) throws IOException {
+        this.directory = directory;
+        this.log = new SegmentedLog(directory, "audit", segmentSize);
+        this.indexInterval = indexInterval;
+
+        long active = log.activeSegmentId();
+        for (Long segmentId : log.segmentIds()) {
+            SegmentIndex index = segmentId != active ? loadIndex(segmentId) : null;
+            if (index == null) {
+                index = rebuildIndex(segmentId);
+            }
+            indexes.put(segmentId, index);
+        }
+    }
+
+    public synchronized void append(AuditEvent event) {
+        byte[] payload = encode(event);
+        long previousActive = log.activeSegmentId();
+        long position = log.append(payload);
+        long segmentId = SegmentedLog.segmentIdOf(position);
+        if (segmentId != previousActive) {
+            // The previous segment is sealed; persist its index so restarts do not rescan it
+            SegmentIndex sealed = indexes.get(previousActive);
+            if (sealed != null) {
+                writeIndex(previousActive, sealed);
+            }
+        }
+        indexes.computeIfAbsent(segmentId, id -> new SegmentIndex())
+            .add(SegmentedLog.offsetOf(position), event, indexInterval);
+    }
+
+    public List<AuditEvent> query(AuditQuery query) {
+        List<AuditEvent> results = new ArrayList<>();
+        for (Map.Entry<Long, SegmentIndex> entry : snapshot().entrySet()) {
+            long segmentId = entry.getKey();
+            SegmentIndex index = entry.getValue();
+            if (!index.overlaps(query.fromMillis(), query.toMillis())) {
+                continue;
+            }
+            for (int block = 0; block < index.blockCount; block++) {
+                if (!index.blockMatches(block, query)) {
+                    continue;
+                }
+                long position = ((long) segmentId << 32) | (index.blockOffset[block] & 0xFFFFFFFFL);
+                for (int i = 0; i < index.blockRecords[block]; i++) {
+                    byte[] payload = log.read(position);
+                    if (payload == null) {
+                        break;
+                    }
+                    AuditEvent event = decode(payload);
+                    if (query.matches(event)) {
+                        results.add(event);
+                        if (results.size() >= query.limit()) {
+                            return results;
+                        }
+                    }
+                    position += SegmentedLog.RECORD_HEADER_SIZE + payload.length;
+                }
+            }
+        }
+        return results;
+    }
+
+    public synchronized void force() {
+        log.force();
+    }
+
+    public synchronized int enforceRetention(long maxTotalBytes, long minTimestampMillis) {
+        int deleted = 0;
+        long total = 0;
+        for (Long segmentId : log.segmentIds()) {
+            total += log.segmentSizeOnDisk(segmentId);
+        }
+        for (Long segmentId : log.segmentIds()) {
+            if (segmentId == log.activeSegmentId()) {
+                break;
+            }
+            SegmentIndex index = indexes.get(segmentId);
+            boolean expired = index != null && index.maxTimestamp < minTimestampMillis;
+            if (!expired && total <= maxTotalBytes) {
+                break;
+            }
+            total -= log.segmentSizeOnDisk(segmentId);
+            if (log.deleteSegment(segmentId)) {
+                indexes.remove(segmentId);
+                try {
+                    Files.deleteIfExists(indexFile(segmentId));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public synchronized void close() {
+        log.close();
+    }
+
+    private synchronized Map<Long, SegmentIndex> snapshot() {
+        // Sealed segment indexes never change; only the active one needs a private copy
+        Map<Long, SegmentIndex> copy = new LinkedHashMap<>(indexes);
+        long active = log.activeSegmentId();
+        SegmentIndex activeIndex = copy.get(active);
+        if (activeIndex != null) {
+            copy.put(active, activeIndex.copy());
+        }
+        return copy;
+    }
+
+    private SegmentIndex rebuildIndex(long segmentId) {
+        SegmentIndex index = new SegmentIndex();
+        log.forEach(segmentId, (position, payload) -> {
+            index.add(SegmentedLog.offsetOf(position), decode(payload), indexInterval);
+            return true;
+        });
+        return index;
+    }
+
+    private SegmentIndex loadIndex(long segmentId) {
+        Path file = indexFile(segmentId);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            return SegmentIndex.read(in);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeIndex(long segmentId, SegmentIndex index) {
+        Path file = indexFile(segmentId);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            index.write(out);
+            out.flush();
+            Files.write(temp, bytes.toByteArray());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path indexFile(long segmentId) {
+        return directory.resolve(String.format("audit-%020d%s", segmentId, INDEX_SUFFIX));
+    }
+
+    static byte[] encode(AuditEvent event) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(event.timestampMillis());
+            out.writeUTF(event.eventType());
+            out.writeUTF(event.clientIp());
+            out.writeShort(event.details().size());
+            for (Map.Entry<String, String> detail : event.details().entrySet()) {
+                out.writeUTF(detail.getKey());
+                out.writeUTF(detail.getValue());
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static AuditEvent decode(byte[] payload) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            long timestamp = in.readLong();
+            String eventType = in.readUTF();
+            String clientIp = in.readUTF();
+            int detailCount = in.readUnsignedShort();
+            Map<String, String> details = new LinkedHashMap<>(detailCount * 2);
+            for (int i = 0; i < detailCount; i++) {
+                details.put(in.readUTF(), in.readUTF());
+            }
+            return new AuditEvent(timestamp, eventType, clientIp, details);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long typeBit(String eventType) {
+        return 1L << (eventType.hashCode() & 63);
+    }
+
+    private static int ipHash(String key, int seed) {
+        int h = key.hashCode() * (seed == 0 ? 0x9E3779B1 : 0x85EBCA6B);
+        return (h ^ (h >>> 15)) & (IP_BLOOM_WORDS * 64 - 1);
+    }
+
+    public record AuditEvent(long timestampMillis, String eventType, String clientIp, Map<String, String> details) {
+    }
+
+    public record AuditQuery(long fromMillis, long toMillis, String eventType, String clientIp, int limit) {
+
+        boolean matches(AuditEvent event) {
+            return event.timestampMillis() >= fromMillis
+                && event.timestampMillis() <= toMillis
+                && (eventType == null || eventType.equals(event.eventType()))
+                && (clientIp == null || clientIp.equals(event.clientIp()));
+        }
+    }
+
+    private static final class SegmentIndex {
+
+        int blockCount;
+        int[] blockOffset = new int[16];
+        int[] blockRecords = new int[16];
+        long[] blockMin = new long[16];
+        long[] blockMax = new long[16];
+        long[] blockTypes = new long[16];
+        long[] blockIps = new long[16 * IP_BLOOM_WORDS];
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+
+        void add(int offset, AuditEvent event, int interval) {
+            if (blockCount == 0 || blockRecords[blockCount - 1] >= interval) {
+                if (blockCount == blockOffset.length) {
+                    grow();
+                }
+                blockOffset[blockCount] = offset;
+                blockMin[blockCount] = Long.MAX_VALUE;
+                blockMax[blockCount] = Long.MIN_VALUE;
+                blockCount++;
+            }
+            int block = blockCount - 1;
+            long timestamp = event.timestampMillis();
+            blockRecords[block]++;
+            blockMin[block] = Math.min(blockMin[block], timestamp);
+            blockMax[block] = Math.max(blockMax[block], timestamp);
+            blockTypes[block] |= typeBit(event.eventType());
+            // The (type, IP) pair is indexed too so combined filters stay selective
+            String pair = event.eventType() + '|' + event.clientIp();
+            setIpBit(block, ipHash(event.clientIp(), 0));
+            setIpBit(block, ipHash(event.clientIp(), 1));
+            setIpBit(block, ipHash(pair, 0));
+            setIpBit(block, ipHash(pair, 1));
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+        }
+
+        boolean overlaps(long from, long to) {
+            return blockCount > 0 && minTimestamp <= to && maxTimestamp >= from;
+        }
+
+        boolean blockMatches(int block, AuditQuery query) {
+            if (blockMin[block] > query.toMillis() || blockMax[block] < query.fromMillis()) {
+                return false;
+            }
+            if (query.eventType() != null && (blockTypes[block] & typeBit(query.eventType())) == 0) {
+                return false;
+            }
+            if (query.clientIp() == null) {
+                return true;
+            }
+            String key = query.eventType() != null ? query.eventType() + '|' + query.clientIp() : query.clientIp();
+            return hasIpBit(block, ipHash(key, 0)) && hasIpBit(block, ipHash(key, 1));
+        }
+
+        SegmentIndex copy() {
+            SegmentIndex copy = new SegmentIndex();
+            copy.blockCount = blockCount;
+            copy.blockOffset = blockOffset.clone();
+            copy.blockRecords = blockRecords.clone();
+            copy.blockMin = blockMin.clone();
+            copy.blockMax = blockMax.clone();
+            copy.blockTypes = blockTypes.clone();
+            copy.blockIps = blockIps.clone();
+            copy.minTimestamp = minTimestamp;
+            copy.maxTimestamp = maxTimestamp;
+            return copy;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(blockCount);
+            out.writeLong(minTimestamp);
+            out.writeLong(maxTimestamp);
+            for (int block = 0; block < blockCount; block++) {
+                out.writeInt(blockOffset[block]);
+                out.writeInt(blockRecords[block]);
+                out.writeLong(blockMin[block]);
+                out.writeLong(blockMax[block]);
+                out.writeLong(blockTypes[block]);
+                for (int word = 0; word < IP_BLOOM_WORDS; word++) {
+                    out.writeLong(blockIps[block * IP_BLOOM_WORDS + word]);
+                }
+            }
+        }
+
+        static SegmentIndex read(DataInputStream in) throws IOException {
+            SegmentIndex index = new SegmentIndex();
+            int count = in.readInt();
+            index.minTimestamp = in.readLong();
+            index.maxTimestamp = in.readLong();
+            while (index.blockOffset.length < count) {
+                index.grow();
+            }
+            for (int block = 0; block < count; block++) {
+                index.blockOffset[block] = in.readInt();
+                index.blockRecords[block] = in.readInt();
+                index.blockMin[block] = in.readLong();
+                index.blockMax[block] = in.readLong();
+                index.blockTypes[block] = in.readLong();
+                for (int word = 0; word < IP_BLOOM_WORDS; word++) {
+                    index.blockIps[block * IP_BLOOM_WORDS + word] = in.readLong();
+                }
+            }
+            index.blockCount = count;
+            return index;
+        }
+
+        private void setIpBit(int block, int bit) {
+            blockIps[block * IP_BLOOM_WORDS + (bit >>> 6)] |= 1L << (bit & 63);
+        }
+
+        private boolean hasIpBit(int block, int bit) {
+            return (blockIps[block * IP_BLOOM_WORDS + (bit >>> 6)] & (1L << (bit & 63))) != 0;
+        }
+
+        private void grow() {
+            int size = blockOffset.length * 2;
+            blockOffset = Arrays.copyOf(blockOffset, size);
+            blockRecords = Arrays.copyOf(blockRecords, size);
+            blockMin = Arrays.copyOf(blockMin, size);
+            blockMax = Arrays.copyOf(blockMax, size);
+            blockTypes = Arrays.copyOf(blockTypes, size);
+            blockIps = Arrays.copyOf(blockIps, size * IP_BLOOM_WORDS);
+        }
+    }
+}
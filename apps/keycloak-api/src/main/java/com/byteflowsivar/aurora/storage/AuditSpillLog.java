@@ -0,0 +1,121 @@
+package com.byteflowsivar.aurora.storage;
+
+import com.byteflowsivar.aurora.storage.AuditEventStore.AuditEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local overflow for audit events that could not reach the database, either
+ * because the in-memory buffer was full or because a flush failed. Events are read
+ * back in order for replay and committed once they are in the database; anything
+ * after the committed position is replayed again after a restart.
+ */
+public class AuditSpillLog implements Closeable {
+
+    private static final String CHECKPOINT_FILE = "spill.checkpoint";
+
+    private final SegmentedLog log;
+    private final Path checkpointFile;
+    private final int segmentSize;
+    private final AtomicLong pending = new AtomicLong();
+    private volatile long committed;
+
+    public AuditSpillLog(Path directory, int segmentSize) throws IOException {
+        this.log = new SegmentedLog(directory, "spill", segmentSize);
+        this.checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        this.segmentSize = segmentSize;
+        this.committed = Files.exists(checkpointFile)
+                ? ByteBuffer.wrap(Files.readAllBytes(checkpointFile)).getLong()
+                : firstPosition();
+        log.forEachFrom(committed, (position, payload) -> {
+            pending.incrementAndGet();
+            return true;
+        });
+    }
+
+    public void append(AuditEvent event) {
+        log.append(AuditEventStore.encode(event));
+        pending.incrementAndGet();
+    }
+
+    public void appendAll(List<AuditEvent> events) {
+        for (AuditEvent event : events) {
+            append(event);
+        }
+    }
+
+    /**
+     * Oldest spilled events not yet committed, in append order.
+     */
+    public List<Entry> readPending(int max) {
+        List<Entry> entries = new ArrayList<>(Math.min(max, 1024));
+        log.forEachFrom(committed, (position, payload) -> {
+            entries.add(new Entry(SegmentedLog.nextPosition(position, payload.length), AuditEventStore.decode(payload)));
+            return entries.size() < max;
+        });
+        return entries;
+    }
+
+    /**
+     * Marks every event up to and including the given entry as replayed and drops
+     * the segments that no longer hold pending events.
+     */
+    public void commit(Entry last, int count) {
+        try {
+            Path temp = checkpointFile.resolveSibling(CHECKPOINT_FILE + ".tmp");
+            Files.write(temp, ByteBuffer.allocate(Long.BYTES).putLong(last.nextPosition()).array());
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        committed = last.nextPosition();
+        pending.addAndGet(-count);
+
+        long committedSegment = SegmentedLog.segmentIdOf(committed);
+        for (long segmentId : log.segmentIds()) {
+            if (segmentId < committedSegment) {
+                log.deleteSegment(segmentId);
+            }
+        }
+    }
+
+    public long pending() {
+        return pending.get();
+    }
+
+    /**
+     * Upper bound of the disk space held by the spill, counting whole segments.
+     */
+    public long sizeBound() {
+        return (long) log.segmentIds().size() * segmentSize;
+    }
+
+    public void force() {
+        log.force();
+    }
+
+    @Override
+    public void close() {
+        log.close();
+    }
+
+    private long firstPosition() {
+        List<Long> segmentIds = log.segmentIds();
+        return segmentIds.isEmpty() ? 0 : segmentIds.get(0) << 32;
+    }
+
+    /**
+     * @param nextPosition log position right after the event, used as the commit point
+     */
+    public record Entry(long nextPosition, AuditEvent event) {
+    }
+}
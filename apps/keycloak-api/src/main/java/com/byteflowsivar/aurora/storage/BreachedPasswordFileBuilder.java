@@ -0,0 +1,89 @@
+package com.byteflowsivar.aurora.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Converts a sorted list of SHA-1 password hashes (one per line, "HEX" or the
+ * "HEX:COUNT" format of public breach corpora) into the binary file read by
+ * {@link BreachedPasswordIndex}. The output is written to a temporary file and
+ * moved into place atomically, so a running instance picks it up on reload.
+ *
+ * Usage: BreachedPasswordFileBuilder &lt;input.txt&gt; &lt;output.bin&gt; [hashLength]
+ */
+public final class BreachedPasswordFileBuilder {
+
+    private BreachedPasswordFileBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: BreachedPasswordFileBuilder <entrada.txt> <salida.bin> [longitudHash]");
+            System.exit(1);
+        }
+        int hashLength = args.length > 2 ? Integer.parseInt(args[2]) : BreachedPasswordIndex.MAX_HASH_LENGTH;
+        long count = build(Paths.get(args[0]), Paths.get(args[1]), hashLength);
+        System.out.printf("%d hashes escritos en %s%n", count, args[1]);
+    }
+
+    public static long build(Path input, Path output, int hashLength) throws IOException {
+        if (hashLength < BreachedPasswordIndex.MIN_HASH_LENGTH || hashLength > BreachedPasswordIndex.MAX_HASH_LENGTH) {
+            throw new IllegalArgumentException("Longitud de hash no soportada: " + hashLength);
+        }
+        Path temp = output.resolveSibling(output.getFileName() + ".tmp");
+        HexFormat hex = HexFormat.of();
+        long count = 0;
+        byte[] previous = null;
+
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.US_ASCII);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 1 << 20)) {
+            out.write(new byte[BreachedPasswordIndex.HEADER_SIZE]);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int end = line.indexOf(':');
+                String hashHex = (end >= 0 ? line.substring(0, end) : line).trim();
+                if (hashHex.isEmpty()) {
+                    continue;
+                }
+                byte[] hash = Arrays.copyOf(hex.parseHex(hashHex), hashLength);
+                if (previous != null) {
+                    int cmp = Arrays.compareUnsigned(previous, hash);
+                    if (cmp > 0) {
+                        throw new IllegalArgumentException("La entrada no está ordenada en la línea " + (count + 1));
+                    }
+                    if (cmp == 0) {
+                        // Truncation can merge neighbouring hashes; keep a single copy
+                        continue;
+                    }
+                }
+                out.write(hash);
+                previous = hash;
+                count++;
+            }
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(temp.toFile(), "rw")) {
+            ByteBuffer header = ByteBuffer.allocate(BreachedPasswordIndex.HEADER_SIZE);
+            header.put(BreachedPasswordIndex.MAGIC);
+            header.putInt(hashLength);
+            header.putInt(0);
+            header.putLong(count);
+            file.seek(0);
+            file.write(header.array());
+            file.getFD().sync();
+        }
+        Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+}
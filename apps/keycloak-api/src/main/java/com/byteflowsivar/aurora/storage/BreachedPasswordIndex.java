@@ -0,0 +1,152 @@
+package com.byteflowsivar.aurora.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Read-only view of a sorted file of password hashes (SHA-1, optionally truncated),
+ * memory-mapped in chunks and searched in place. Nothing is loaded on the heap.
+ *
+ * File layout: 8-byte magic, int hash length, int reserved, long count, then
+ * {@code count} hashes sorted as unsigned byte strings.
+ */
+public class BreachedPasswordIndex {
+
+    public static final byte[] MAGIC = "AURBPW01".getBytes(StandardCharsets.US_ASCII);
+    public static final int HEADER_SIZE = 24;
+    public static final int MIN_HASH_LENGTH = 8;
+    public static final int MAX_HASH_LENGTH = 20;
+
+    private static final long CHUNK_BYTES = 1L << 30;
+    private static final int INTERPOLATION_PROBES = 8;
+
+    private final int hashLength;
+    private final long count;
+    private final long recordsPerChunk;
+    private final MappedByteBuffer[] chunks;
+
+    private BreachedPasswordIndex(int hashLength, long count, MappedByteBuffer[] chunks) {
+        this.hashLength = hashLength;
+        this.count = count;
+        this.recordsPerChunk = CHUNK_BYTES / hashLength;
+        this.chunks = chunks;
+    }
+
+    public static BreachedPasswordIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the full header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE) {
+                throw new IOException("Archivo de contraseñas filtradas truncado: " + file);
+            }
+            byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Formato de archivo de contraseñas filtradas inválido: " + file);
+            }
+            int hashLength = header.getInt();
+            header.getInt();
+            long count = header.getLong();
+            if (hashLength < MIN_HASH_LENGTH || hashLength > MAX_HASH_LENGTH || count < 0) {
+                throw new IOException("Cabecera de archivo de contraseñas filtradas inválida: " + file);
+            }
+            if (channel.size() < HEADER_SIZE + count * hashLength) {
+                throw new IOException("Archivo de contraseñas filtradas incompleto: " + file);
+            }
+
+            long recordsPerChunk = CHUNK_BYTES / hashLength;
+            int chunkCount = (int) ((count + recordsPerChunk - 1) / recordsPerChunk);
+            MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                long firstRecord = i * recordsPerChunk;
+                long records = Math.min(recordsPerChunk, count - firstRecord);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + firstRecord * hashLength, records * hashLength);
+            }
+            return new BreachedPasswordIndex(hashLength, count, chunks);
+        }
+    }
+
+    public int hashLength() {
+        return hashLength;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public boolean contains(byte[] hash) {
+        if (count == 0) {
+            return false;
+        }
+        long target = prefixOf(hash);
+        long lo = 0;
+        long hi = count - 1;
+        int probes = 0;
+        while (lo <= hi) {
+            long loPrefix = prefixAt(lo);
+            long hiPrefix = prefixAt(hi);
+            if (Long.compareUnsigned(target, loPrefix) < 0 || Long.compareUnsigned(target, hiPrefix) > 0) {
+                return false;
+            }
+
+            long mid;
+            if (probes < INTERPOLATION_PROBES && loPrefix != hiPrefix) {
+                // Hashes are uniformly distributed, so interpolation lands within a few records
+                double fraction = ((target >>> 1) - (loPrefix >>> 1)) / (double) ((hiPrefix >>> 1) - (loPrefix >>> 1));
+                mid = lo + (long) (fraction * (hi - lo));
+                mid = Math.max(lo, Math.min(hi, mid));
+            } else {
+                mid = (lo + hi) >>> 1;
+            }
+            probes++;
+
+            int cmp = compareAt(mid, hash, target);
+            if (cmp == 0) {
+                return true;
+            } else if (cmp < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return false;
+    }
+
+    private long prefixAt(long record) {
+        MappedByteBuffer chunk = chunks[(int) (record / recordsPerChunk)];
+        return chunk.getLong((int) (record % recordsPerChunk) * hashLength);
+    }
+
+    private int compareAt(long record, byte[] hash, long targetPrefix) {
+        MappedByteBuffer chunk = chunks[(int) (record / recordsPerChunk)];
+        int offset = (int) (record % recordsPerChunk) * hashLength;
+        int cmp = Long.compareUnsigned(chunk.getLong(offset), targetPrefix);
+        if (cmp != 0) {
+            return cmp;
+        }
+        for (int i = Long.BYTES; i < hashLength; i++) {
+            cmp = Integer.compare(chunk.get(offset + i) & 0xFF, hash[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private static long prefixOf(byte[] hash) {
+        long prefix = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            prefix = (prefix << 8) | (hash[i] & 0xFF);
+        }
+        return prefix;
+    }
+}
@@ -0,0 +1,235 @@
+package com.byteflowsivar.aurora.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable radix trie over reversed domain names, stored in flat arrays.
+ * "example.com" matches only that domain, "*.example.com" matches any of its
+ * subdomains. Lookups walk the domain from its last character and allocate nothing.
+ */
+public final class DomainSuffixTrie {
+
+    private static final byte EXACT = 1;
+    private static final byte WILDCARD = 2;
+
+    private final byte[] nodeFlags;
+    private final int[] nodeEdgeStart;
+    private final int[] nodeEdgeCount;
+    private final char[] edgeFirst;
+    private final int[] edgeLabelStart;
+    private final int[] edgeLabelLength;
+    private final int[] edgeTarget;
+    private final char[] labels;
+    private final int size;
+
+    private DomainSuffixTrie(Builder builder, int size) {
+        this.nodeFlags = Arrays.copyOf(builder.nodeFlags, builder.nodeCount);
+        this.nodeEdgeStart = Arrays.copyOf(builder.nodeEdgeStart, builder.nodeCount);
+        this.nodeEdgeCount = Arrays.copyOf(builder.nodeEdgeCount, builder.nodeCount);
+        this.edgeFirst = Arrays.copyOf(builder.edgeFirst, builder.edgeCount);
+        this.edgeLabelStart = Arrays.copyOf(builder.edgeLabelStart, builder.edgeCount);
+        this.edgeLabelLength = Arrays.copyOf(builder.edgeLabelLength, builder.edgeCount);
+        this.edgeTarget = Arrays.copyOf(builder.edgeTarget, builder.edgeCount);
+        this.labels = Arrays.copyOf(builder.labels, builder.labelLength);
+        this.size = size;
+    }
+
+    public static DomainSuffixTrie empty() {
+        return of(List.of());
+    }
+
+    public static DomainSuffixTrie load(Path file) throws IOException {
+        List<String> rules = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String rule = line.trim();
+                if (!rule.isEmpty() && !rule.startsWith("#")) {
+                    rules.add(rule);
+                }
+            }
+        }
+        return of(rules);
+    }
+
+    public static DomainSuffixTrie of(List<String> rules) {
+        // Wildcards become "reversed domain + '.'", so both kinds end on an explicit node
+        List<String> keys = new ArrayList<>(rules.size());
+        List<Byte> flags = new ArrayList<>(rules.size());
+        for (String rule : rules) {
+            String normalized = rule.trim().toLowerCase(Locale.ROOT);
+            boolean wildcard = normalized.startsWith("*.");
+            String domain = wildcard ? normalized.substring(2) : normalized;
+            if (domain.isEmpty()) {
+                continue;
+            }
+            String reversed = new StringBuilder(domain).reverse().toString();
+            keys.add(wildcard ? reversed + "." : reversed);
+            flags.add(wildcard ? WILDCARD : EXACT);
+        }
+
+        Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> keys.get(a).compareTo(keys.get(b)));
+        String[] sortedKeys = new String[order.length];
+        byte[] sortedFlags = new byte[order.length];
+        int totalChars = 0;
+        for (int i = 0; i < order.length; i++) {
+            sortedKeys[i] = keys.get(order[i]);
+            sortedFlags[i] = flags.get(order[i]);
+            totalChars += sortedKeys[i].length();
+        }
+
+        Builder builder = new Builder(sortedKeys, sortedFlags, totalChars);
+        builder.build(0, sortedKeys.length, 0);
+        return new DomainSuffixTrie(builder, sortedKeys.length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean matches(CharSequence value, int start) {
+        int node = 0;
+        int i = value.length() - 1;
+        while (true) {
+            if (i < start) {
+                return (nodeFlags[node] & EXACT) != 0;
+            }
+            if ((nodeFlags[node] & WILDCARD) != 0) {
+                // The key ended with the '.' separator and at least one more label remains
+                return true;
+            }
+            int edge = findEdge(node, lower(value.charAt(i)));
+            if (edge < 0) {
+                return false;
+            }
+            int labelStart = edgeLabelStart[edge];
+            int labelLength = edgeLabelLength[edge];
+            for (int j = 0; j < labelLength; j++, i--) {
+                if (i < start || lower(value.charAt(i)) != labels[labelStart + j]) {
+                    return false;
+                }
+            }
+            node = edgeTarget[edge];
+        }
+    }
+
+    private int findEdge(int node, char c) {
+        int lo = nodeEdgeStart[node];
+        int hi = lo + nodeEdgeCount[node] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char candidate = edgeFirst[mid];
+            if (candidate == c) {
+                return mid;
+            } else if (candidate < c) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return -1;
+    }
+
+    private static char lower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static final class Builder {
+
+        final String[] keys;
+        final byte[] keyFlags;
+
+        byte[] nodeFlags;
+        int[] nodeEdgeStart;
+        int[] nodeEdgeCount;
+        int nodeCount;
+
+        char[] edgeFirst;
+        int[] edgeLabelStart;
+        int[] edgeLabelLength;
+        int[] edgeTarget;
+        int edgeCount;
+
+        char[] labels;
+        int labelLength;
+
+        Builder(String[] keys, byte[] keyFlags, int totalChars) {
+            this.keys = keys;
+            this.keyFlags = keyFlags;
+            // A radix tree over n keys never needs more than 2n + 1 nodes
+            int maxNodes = 2 * keys.length + 1;
+            this.nodeFlags = new byte[maxNodes];
+            this.nodeEdgeStart = new int[maxNodes];
+            this.nodeEdgeCount = new int[maxNodes];
+            this.edgeFirst = new char[maxNodes];
+            this.edgeLabelStart = new int[maxNodes];
+            this.edgeLabelLength = new int[maxNodes];
+            this.edgeTarget = new int[maxNodes];
+            this.labels = new char[totalChars];
+        }
+
+        int build(int lo, int hi, int depth) {
+            int node = nodeCount++;
+            while (lo < hi && keys[lo].length() == depth) {
+                nodeFlags[node] |= keyFlags[lo];
+                lo++;
+            }
+
+            int groups = 0;
+            for (int i = lo; i < hi; i = groupEnd(i, hi, depth)) {
+                groups++;
+            }
+            int firstEdge = edgeCount;
+            edgeCount += groups;
+            nodeEdgeStart[node] = firstEdge;
+            nodeEdgeCount[node] = groups;
+
+            int edge = firstEdge;
+            for (int i = lo; i < hi; ) {
+                int end = groupEnd(i, hi, depth);
+                // Keys are sorted, so the common prefix of a group is that of its first and last key
+                int prefixEnd = commonPrefixEnd(keys[i], keys[end - 1], depth);
+                int length = prefixEnd - depth;
+                keys[i].getChars(depth, prefixEnd, labels, labelLength);
+                edgeFirst[edge] = keys[i].charAt(depth);
+                edgeLabelStart[edge] = labelLength;
+                edgeLabelLength[edge] = length;
+                labelLength += length;
+                edgeTarget[edge] = build(i, end, prefixEnd);
+                edge++;
+                i = end;
+            }
+            return node;
+        }
+
+        private int groupEnd(int from, int hi, int depth) {
+            char c = keys[from].charAt(depth);
+            int end = from + 1;
+            while (end < hi && keys[end].charAt(depth) == c) {
+                end++;
+            }
+            return end;
+        }
+
+        private static int commonPrefixEnd(String first, String last, int depth) {
+            int limit = Math.min(first.length(), last.length());
+            int i = depth;
+            while (i < limit && first.charAt(i) == last.charAt(i)) {
+                i++;
+            }
+            return i;
+        }
+    }
+}
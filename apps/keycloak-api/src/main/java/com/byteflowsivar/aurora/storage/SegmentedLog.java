@@ -0,0 +1,288 @@
+package com.byteflowsivar.aurora.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log split into fixed-size, memory-mapped segment files.
+ * Records are stored as [length][crc32c][payload]; a zero length or a checksum
+ * mismatch marks the end of the written data in a segment.
+ */
+public class SegmentedLog implements Closeable {
+
+    public static final int RECORD_HEADER_SIZE = 8;
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private Segment active;
+
+    public SegmentedLog(Path directory, String prefix, int segmentSize) throws IOException {
+        if (segmentSize <= RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(prefix + "-") && name.endsWith(SEGMENT_SUFFIX)) {
+                    long id = Long.parseLong(name.substring(prefix.length() + 1, name.length() - SEGMENT_SUFFIX.length()));
+                    segments.put(id, Segment.open(id, file, segmentSize));
+                }
+            }
+        }
+
+        if (segments.isEmpty()) {
+            active = createSegment(0);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+    }
+
+    public synchronized long append(byte[] payload) {
+        return append(payload, 0, payload.length);
+    }
+
+    public synchronized long append(byte[] payload, int offset, int length) {
+        if (length == 0) {
+            throw new IllegalArgumentException("Empty records are not supported");
+        }
+        int required = RECORD_HEADER_SIZE + length;
+        if (required > segmentSize) {
+            throw new IllegalArgumentException("Record of " + length + " bytes exceeds segment size " + segmentSize);
+        }
+        if (active.writePosition + required > segmentSize) {
+            roll();
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload, offset, length);
+
+        int position = active.writePosition;
+        ByteBuffer buffer = active.buffer.duplicate();
+        buffer.position(position + RECORD_HEADER_SIZE);
+        buffer.put(payload, offset, length);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        // Length is written last so a crash mid-append never exposes a partial record
+        buffer.putInt(position, length);
+        active.writePosition = position + required;
+
+        return toPosition(active.id, position);
+    }
+
+    public synchronized void force() {
+        active.buffer.force();
+    }
+
+    public byte[] read(long position) {
+        Segment segment = segments.get(segmentIdOf(position));
+        if (segment == null) {
+            return null;
+        }
+        return segment.readAt(offsetOf(position));
+    }
+
+    public void forEach(RecordVisitor visitor) {
+        for (Segment segment : segments.values()) {
+            forEach(segment.id, visitor);
+        }
+    }
+
+    public void forEach(long segmentId, RecordVisitor visitor) {
+        Segment segment = segments.get(segmentId);
+        if (segment != null) {
+            visit(segment, 0, visitor);
+        }
+    }
+
+    /**
+     * Visits the records from {@code position} on, continuing into later segments,
+     * until the visitor returns false.
+     */
+    public void forEachFrom(long position, RecordVisitor visitor) {
+        long startSegment = segmentIdOf(position);
+        for (Segment segment : segments.tailMap(startSegment).values()) {
+            int offset = segment.id == startSegment ? offsetOf(position) : 0;
+            if (!visit(segment, offset, visitor)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Position right after the record stored at {@code position}.
+     */
+    public static long nextPosition(long position, int payloadLength) {
+        return position + RECORD_HEADER_SIZE + payloadLength;
+    }
+
+    private static boolean visit(Segment segment, int offset, RecordVisitor visitor) {
+        int limit = segment.writePosition;
+        while (offset + RECORD_HEADER_SIZE <= limit) {
+            byte[] payload = segment.readAt(offset);
+            if (payload == null) {
+                break;
+            }
+            if (!visitor.visit(toPosition(segment.id, offset), payload)) {
+                return false;
+            }
+            offset += RECORD_HEADER_SIZE + payload.length;
+        }
+        return true;
+    }
+
+    public List<Long> segmentIds() {
+        return new ArrayList<>(segments.keySet());
+    }
+
+    public synchronized long activeSegmentId() {
+        return active.id;
+    }
+
+    public long segmentSizeOnDisk(long segmentId) {
+        Segment segment = segments.get(segmentId);
+        return segment != null ? segment.writePosition : 0;
+    }
+
+    public long lastModified(long segmentId) {
+        Segment segment = segments.get(segmentId);
+        if (segment == null) {
+            return 0;
+        }
+        try {
+            return Files.getLastModifiedTime(segment.file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    public synchronized boolean deleteSegment(long segmentId) {
+        if (segmentId == active.id) {
+            return false;
+        }
+        Segment segment = segments.remove(segmentId);
+        if (segment == null) {
+            return false;
+        }
+        try {
+            Files.deleteIfExists(segment.file);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized void roll() {
+        active.buffer.force();
+        active = createSegment(active.id + 1);
+    }
+
+    @Override
+    public synchronized void close() {
+        active.buffer.force();
+        segments.clear();
+    }
+
+    public static long segmentIdOf(long position) {
+        return position >>> 32;
+    }
+
+    public static int offsetOf(long position) {
+        return (int) position;
+    }
+
+    private static long toPosition(long segmentId, int offset) {
+        return (segmentId << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private Segment createSegment(long id) {
+        Path file = directory.resolve(String.format("%s-%020d%s", prefix, id, SEGMENT_SUFFIX));
+        try {
+            Segment segment = Segment.open(id, file, segmentSize);
+            segments.put(id, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RecordVisitor {
+        boolean visit(long position, byte[] payload);
+    }
+
+    private static final class Segment {
+
+        final long id;
+        final Path file;
+        final MappedByteBuffer buffer;
+        volatile int writePosition;
+
+        private Segment(long id, Path file, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        static Segment open(long id, Path file, int segmentSize) throws IOException {
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                int size = (int) Math.max(channel.size(), segmentSize);
+                Segment segment = new Segment(id, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+                segment.writePosition = segment.scanEnd(size);
+                return segment;
+            }
+        }
+
+        byte[] readAt(int offset) {
+            ByteBuffer view = buffer.duplicate();
+            if (offset + RECORD_HEADER_SIZE > view.capacity()) {
+                return null;
+            }
+            int length = view.getInt(offset);
+            if (length <= 0 || offset + RECORD_HEADER_SIZE + length > view.capacity()) {
+                return null;
+            }
+            int storedCrc = view.getInt(offset + 4);
+            byte[] payload = new byte[length];
+            view.position(offset + RECORD_HEADER_SIZE);
+            view.get(payload);
+
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            return (int) crc.getValue() == storedCrc ? payload : null;
+        }
+
+        private int scanEnd(int size) {
+            int offset = 0;
+            while (offset + RECORD_HEADER_SIZE <= size) {
+                byte[] payload = readAt(offset);
+                if (payload == null) {
+                    break;
+                }
+                offset += RECORD_HEADER_SIZE + payload.length;
+            }
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.byteflowsivar.aurora.storage;
+
+import com.byteflowsivar.aurora.domain.User;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Durable journal of asynchronous user creation requests. Submitted requests are
+ * encrypted with AES-GCM so passwords never reach the disk in clear text.
+ */
+public class UserCreationJournal implements Closeable {
+
+    private static final byte SUBMITTED = 1;
+    private static final byte COMPLETED = 2;
+    private static final byte FAILED = 3;
+
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final SegmentedLog log;
+    private final SecretKeySpec key;
+    private final boolean syncWrites;
+    private final SecureRandom random = new SecureRandom();
+
+    public UserCreationJournal(Path directory, int segmentSize, String encryptionSecret, boolean syncWrites) throws IOException {
+        if (encryptionSecret == null || encryptionSecret.isBlank()) {
+            throw new IllegalArgumentException("Journal encryption secret is required");
+        }
+        this.log = new SegmentedLog(directory, "creation", segmentSize);
+        this.key = deriveKey(encryptionSecret);
+        this.syncWrites = syncWrites;
+    }
+
+    public long appendSubmitted(String jobId, Instant submittedAt, User user, String clientInfo) {
+        return appendSubmitted(jobId, submittedAt, user, clientInfo, null);
+    }
+
+    public long appendSubmitted(String jobId, Instant submittedAt, User user, String clientInfo, String realm) {
+        try {
+            ByteArrayOutputStream plain = new ByteArrayOutputStream(256);
+            DataOutputStream fields = new DataOutputStream(plain);
+            writeNullable(fields, user.getUsername());
+            writeNullable(fields, user.getEmail());
+            writeNullable(fields, user.getFirstName());
+            writeNullable(fields, user.getLastName());
+            writeNullable(fields, user.getPasswordForAuthentication());
+            fields.writeBoolean(user.isEnabled());
+            writeNullable(fields, clientInfo);
+            writeNames(fields, user.getRealmRoles());
+            writeNames(fields, user.getGroups());
+            writeNullable(fields, realm);
+            fields.flush();
+
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            cipher.updateAAD(jobId.getBytes(StandardCharsets.UTF_8));
+            byte[] sealed = cipher.doFinal(plain.toByteArray());
+
+            ByteArrayOutputStream record = new ByteArrayOutputStream(sealed.length + 64);
+            DataOutputStream out = new DataOutputStream(record);
+            out.writeByte(SUBMITTED);
+            out.writeUTF(jobId);
+            out.writeLong(submittedAt.toEpochMilli());
+            out.write(iv);
+            out.writeInt(sealed.length);
+            out.write(sealed);
+            out.flush();
+            return append(record.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo cifrar la solicitud de creación", e);
+        }
+    }
+
+    public long appendCompleted(String jobId, String userId, int attempts) {
+        return appendTerminal(COMPLETED, jobId, attempts, userId, null);
+    }
+
+    public long appendFailed(String jobId, int attempts, String errorCode, String errorMessage) {
+        return appendTerminal(FAILED, jobId, attempts, errorCode, errorMessage);
+    }
+
+    public void force() {
+        log.force();
+    }
+
+    public void replay(ReplayHandler handler) {
+        log.forEach((position, payload) -> {
+            try {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+                byte type = in.readByte();
+                String jobId = in.readUTF();
+                Instant timestamp = Instant.ofEpochMilli(in.readLong());
+                if (type == SUBMITTED) {
+                    byte[] iv = in.readNBytes(IV_LENGTH);
+                    byte[] sealed = in.readNBytes(in.readInt());
+                    Cipher cipher = Cipher.getInstance(CIPHER);
+                    cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+                    cipher.updateAAD(jobId.getBytes(StandardCharsets.UTF_8));
+                    DataInputStream fields = new DataInputStream(new ByteArrayInputStream(cipher.doFinal(sealed)));
+                    String username = readNullable(fields);
+                    String email = readNullable(fields);
+                    String firstName = readNullable(fields);
+                    String lastName = readNullable(fields);
+                    String password = readNullable(fields);
+                    boolean enabled = fields.readBoolean();
+                    String clientInfo = readNullable(fields);
+                    // Records written before role/group assignment end after the client info
+                    List<String> realmRoles = fields.available() > 0 ? readNames(fields) : List.of();
+                    List<String> groups = fields.available() > 0 ? readNames(fields) : List.of();
+                    // A null realm means the default realm, as for records written before multi-realm routing
+                    String realm = fields.available() > 0 ? readNullable(fields) : null;
+                    User user = new User(username, email, firstName, lastName, password, enabled, realmRoles, groups);
+                    handler.onSubmitted(position, jobId, timestamp, user, clientInfo, realm);
+                } else if (type == COMPLETED) {
+                    int attempts = in.readInt();
+                    handler.onCompleted(jobId, timestamp, attempts, readNullable(in));
+                } else if (type == FAILED) {
+                    int attempts = in.readInt();
+                    handler.onFailed(jobId, timestamp, attempts, readNullable(in), readNullable(in));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("No se pudo descifrar el journal de creación", e);
+            }
+            return true;
+        });
+    }
+
+    public List<Long> segmentIds() {
+        return log.segmentIds();
+    }
+
+    public long activeSegmentId() {
+        return log.activeSegmentId();
+    }
+
+    public boolean deleteSegment(long segmentId) {
+        return log.deleteSegment(segmentId);
+    }
+
+    @Override
+    public void close() {
+        log.close();
+    }
+
+    private long appendTerminal(byte type, String jobId, int attempts, String first, String second) {
+        try {
+            ByteArrayOutputStream record = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(record);
+            out.writeByte(type);
+            out.writeUTF(jobId);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(attempts);
+            writeNullable(out, first);
+            if (type == FAILED) {
+                writeNullable(out, second);
+            }
+            out.flush();
+            return log.append(record.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long append(byte[] record) {
+        long position = log.append(record);
+        if (syncWrites) {
+            log.force();
+        }
+        return position;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNames(DataOutputStream out, List<String> names) throws IOException {
+        out.writeShort(names.size());
+        for (String name : names) {
+            out.writeUTF(name);
+        }
+    }
+
+    private static List<String> readNames(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(in.readUTF());
+        }
+        return names;
+    }
+
+    private static SecretKeySpec deriveKey(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(digest, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public interface ReplayHandler {
+
+        void onSubmitted(long position, String jobId, Instant submittedAt, User user, String clientInfo, String realm);
+
+        void onCompleted(String jobId, Instant completedAt, int attempts, String userId);
+
+        void onFailed(String jobId, Instant failedAt, int attempts, String errorCode, String errorMessage);
+    }
+}
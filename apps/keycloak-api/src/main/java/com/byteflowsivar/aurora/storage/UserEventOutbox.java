@@ -0,0 +1,151 @@
+package com.byteflowsivar.aurora.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local staging log of user-created events waiting to be published. Events are
+ * appended by request threads and read back in order by the publisher, which
+ * commits the position up to which they reached the database; anything after that
+ * position is published again after a restart.
+ */
+public class UserEventOutbox implements Closeable {
+
+    private static final byte USER_CREATED = 1;
+    private static final String CHECKPOINT_FILE = "outbox.checkpoint";
+
+    private final SegmentedLog log;
+    private final Path checkpointFile;
+    private final AtomicLong pending = new AtomicLong();
+    private volatile long committed;
+
+    public UserEventOutbox(Path directory, int segmentSize) throws IOException {
+        this.log = new SegmentedLog(directory, "outbox", segmentSize);
+        this.checkpointFile = directory.resolve(CHECKPOINT_FILE);
+        this.committed = Files.exists(checkpointFile)
+                ? ByteBuffer.wrap(Files.readAllBytes(checkpointFile)).getLong()
+                : firstPosition();
+        log.forEachFrom(committed, (position, payload) -> {
+            pending.incrementAndGet();
+            return true;
+        });
+    }
+
+    public long append(UserCreatedEvent event) {
+        try {
+            ByteArrayOutputStream record = new ByteArrayOutputStream(160);
+            DataOutputStream out = new DataOutputStream(record);
+            out.writeByte(USER_CREATED);
+            out.writeLong(event.eventId().getMostSignificantBits());
+            out.writeLong(event.eventId().getLeastSignificantBits());
+            out.writeLong(event.occurredAt().toEpochMilli());
+            out.writeUTF(event.realm());
+            out.writeUTF(event.userId());
+            out.writeUTF(event.username());
+            out.writeBoolean(event.email() != null);
+            if (event.email() != null) {
+                out.writeUTF(event.email());
+            }
+            out.flush();
+            long position = log.append(record.toByteArray());
+            pending.incrementAndGet();
+            return position;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Oldest events not yet committed, in append order.
+     */
+    public List<Entry> readPending(int max) {
+        List<Entry> entries = new ArrayList<>(Math.min(max, 1024));
+        log.forEachFrom(committed, (position, payload) -> {
+            entries.add(new Entry(SegmentedLog.nextPosition(position, payload.length), decode(payload)));
+            return entries.size() < max;
+        });
+        return entries;
+    }
+
+    /**
+     * Marks every event up to and including the given entry as published and drops
+     * the segments that no longer hold pending events.
+     */
+    public void commit(Entry last, int count) {
+        try {
+            Path temp = checkpointFile.resolveSibling(CHECKPOINT_FILE + ".tmp");
+            Files.write(temp, ByteBuffer.allocate(Long.BYTES).putLong(last.nextPosition()).array());
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        committed = last.nextPosition();
+        pending.addAndGet(-count);
+
+        long committedSegment = SegmentedLog.segmentIdOf(committed);
+        for (long segmentId : log.segmentIds()) {
+            if (segmentId < committedSegment) {
+                log.deleteSegment(segmentId);
+            }
+        }
+    }
+
+    public long pending() {
+        return pending.get();
+    }
+
+    public void force() {
+        log.force();
+    }
+
+    @Override
+    public void close() {
+        log.close();
+    }
+
+    private long firstPosition() {
+        List<Long> segmentIds = log.segmentIds();
+        return segmentIds.isEmpty() ? 0 : segmentIds.get(0) << 32;
+    }
+
+    private static UserCreatedEvent decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte type = in.readByte();
+            if (type != USER_CREATED) {
+                throw new IOException("Unknown outbox record type: " + type);
+            }
+            UUID eventId = new UUID(in.readLong(), in.readLong());
+            Instant occurredAt = Instant.ofEpochMilli(in.readLong());
+            String realm = in.readUTF();
+            String userId = in.readUTF();
+            String username = in.readUTF();
+            String email = in.readBoolean() ? in.readUTF() : null;
+            return new UserCreatedEvent(eventId, occurredAt, realm, userId, username, email);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record UserCreatedEvent(UUID eventId, Instant occurredAt, String realm, String userId, String username, String email) {
+    }
+
+    /**
+     * @param nextPosition log position right after the event, used as the commit point
+     */
+    public record Entry(long nextPosition, UserCreatedEvent event) {
+    }
+}
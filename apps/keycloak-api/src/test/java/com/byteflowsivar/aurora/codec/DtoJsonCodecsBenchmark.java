@@ -0,0 +1,76 @@
+package com.byteflowsivar.aurora.codec;
+
+import com.byteflowsivar.aurora.domain.User;
+import com.byteflowsivar.aurora.dto.ConstantErrorResponse;
+import com.byteflowsivar.aurora.dto.CreateUserResponse;
+import com.byteflowsivar.aurora.dto.ErrorResponse;
+import com.byteflowsivar.aurora.dto.UserExistsResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compares the codecs with Jackson on the request/response shapes of POST /users.
+ * Run with: ./mvnw test -Dtest=DtoJsonCodecsBenchmark -Daurora.benchmark=true
+ */
+@EnabledIfSystemProperty(named = "aurora.benchmark", matches = "true")
+public class DtoJsonCodecsBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private static final byte[] USER_JSON = ("{\"username\":\"usuario123\",\"email\":\"usuario@example.com\","
+        + "\"firstName\":\"Juan\",\"lastName\":\"Pérez\",\"password\":\"S3cure!Pass\",\"enabled\":true}")
+        .getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void benchmarkCodecsAgainstJackson() throws Exception {
+        CreateUserResponse created = new CreateUserResponse("f47ac10b-58cc-4372-a567-0e02b2c3d479", "usuario123", "Usuario creado exitosamente");
+        UserExistsResponse exists = new UserExistsResponse("usuario123", true);
+
+        run("leer User", () -> objectMapper.readValue(USER_JSON, User.class), () -> DtoJsonCodecs.readUser(USER_JSON));
+        run("escribir CreateUserResponse", () -> objectMapper.writeValueAsBytes(created), () -> DtoJsonCodecs.encode(created));
+        run("escribir UserExistsResponse", () -> objectMapper.writeValueAsBytes(exists), () -> DtoJsonCodecs.encode(exists));
+        run("escribir ErrorResponse (429)",
+            () -> objectMapper.writeValueAsBytes(new ErrorResponse("Límite de velocidad excedido. Máximo 100 solicitudes por minuto", "RATE_LIMIT_EXCEEDED")),
+            () -> DtoJsonCodecs.encode(ConstantErrorResponse.RATE_LIMIT_EXCEEDED));
+    }
+
+    private static void run(String name, Operation jackson, Operation codec) throws Exception {
+        measure(jackson, WARMUP_ITERATIONS);
+        measure(codec, WARMUP_ITERATIONS);
+        long[] jacksonResult = measure(jackson, ITERATIONS);
+        long[] codecResult = measure(codec, ITERATIONS);
+        System.out.printf("%-30s jackson %6d ns/op %6d B/op | codec %6d ns/op %6d B/op%n",
+            name,
+            jacksonResult[0] / ITERATIONS, jacksonResult[1] / ITERATIONS,
+            codecResult[0] / ITERATIONS, codecResult[1] / ITERATIONS);
+    }
+
+    private static long[] measure(Operation operation, int iterations) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        Object sink = null;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = operation.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        if (sink == null) {
+            throw new IllegalStateException();
+        }
+        return new long[]{elapsed, allocated};
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        Object run() throws Exception;
+    }
+}
@@ -0,0 +1,111 @@
+package com.byteflowsivar.aurora.codec;
+
+import com.byteflowsivar.aurora.domain.User;
+import com.byteflowsivar.aurora.dto.ConstantErrorResponse;
+import com.byteflowsivar.aurora.dto.CreateUserResponse;
+import com.byteflowsivar.aurora.dto.ErrorResponse;
+import com.byteflowsivar.aurora.dto.UserExistsResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DtoJsonCodecsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testResponsesMatchJacksonOutput() throws Exception {
+        CreateUserResponse created = new CreateUserResponse("f47ac10b-58cc", "josé.pérez", "Usuario creado \"exitosamente\"\n\t😀");
+        assertEquals(objectMapper.writeValueAsString(created), utf8(DtoJsonCodecs.encode(created)));
+
+        UserExistsResponse exists = new UserExistsResponse("usuario123", true);
+        assertEquals(objectMapper.writeValueAsString(exists), utf8(DtoJsonCodecs.encode(exists)));
+
+        // Control characters take hex letters too, which Jackson writes in uppercase
+        ErrorResponse error = new ErrorResponse("Campo inválido: \\ \u0001 \u001f \u007f </script>");
+        assertEquals(objectMapper.writeValueAsString(error), utf8(DtoJsonCodecs.encode(error)));
+    }
+
+    @Test
+    public void testConstantErrorIsEncodedWithCurrentTimestamp() throws Exception {
+        Instant before = Instant.now();
+        String json = utf8(DtoJsonCodecs.encode(ConstantErrorResponse.RATE_LIMIT_EXCEEDED));
+
+        ErrorResponseView view = objectMapper.readValue(json, ErrorResponseView.class);
+        assertEquals("Límite de velocidad excedido. Máximo 100 solicitudes por minuto", view.error);
+        assertEquals("RATE_LIMIT_EXCEEDED", view.errorCode);
+        assertFalse(Instant.parse(view.timestamp).isBefore(before));
+    }
+
+    @Test
+    public void testTimestampMatchesInstantToString() {
+        for (Instant instant : new Instant[]{
+                Instant.parse("2026-10-19T08:15:30Z"),
+                Instant.parse("2026-10-19T08:15:30.120Z"),
+                Instant.parse("2026-10-19T08:15:30.000450Z"),
+                Instant.parse("2026-10-19T08:15:30.000000007Z"),
+                Instant.now()}) {
+            JsonOutput out = new JsonOutput(32);
+            DtoJsonCodecs.writeTimestamp(instant, out);
+            assertEquals(instant.toString(), utf8(out.toByteArray()));
+        }
+    }
+
+    @Test
+    public void testReadUserMatchesJacksonBinding() throws Exception {
+        String json = "{ \"email\" : \"ana@example.com\", \"username\":\"ana.gomez\", \"unknown\": {\"nested\": [1, 2.5e3, null]},"
+            + "\"firstName\":\"Ana Mar\\u00eda\", \"lastName\":null, \"password\":\"S3cure!Pa\\\"ss\", \"enabled\": false,"
+            + "\"realmRoles\": [\"customer\", \" beta \"], \"groups\": [] }";
+
+        User user = DtoJsonCodecs.readUser(json.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("ana.gomez", user.getUsername());
+        assertEquals("ana@example.com", user.getEmail());
+        assertEquals("Ana María", user.getFirstName());
+        assertNull(user.getLastName());
+        assertEquals("S3cure!Pa\"ss", user.getPasswordForAuthentication());
+        assertFalse(user.isEnabled());
+        assertEquals(List.of("customer", "beta"), user.getRealmRoles());
+        assertTrue(user.getGroups().isEmpty());
+    }
+
+    @Test
+    public void testEnabledDefaultsToTrueAndMalformedInputIsRejected() {
+        User user = DtoJsonCodecs.readUser("{\"username\":\"ana\"}".getBytes(StandardCharsets.UTF_8));
+        assertTrue(user.isEnabled());
+
+        assertThrows(JsonCodecException.class, () -> DtoJsonCodecs.readUser("{\"username\":".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(JsonCodecException.class, () -> DtoJsonCodecs.readUser("{\"username\":\"a\"} x".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(JsonCodecException.class, () -> DtoJsonCodecs.readUser("[]".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(JsonCodecException.class, () -> DtoJsonCodecs.readUser("{\"enabled\":\"maybe\"}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testMalformedUnicodeEscapeIsRejectedAsBadInput() {
+        assertEquals("Ana\u00ED", DtoJsonCodecs.readUser("{\"username\":\"Ana\\u00Ed\"}".getBytes(StandardCharsets.UTF_8)).getUsername());
+
+        for (String escape : new String[]{"\\uZZZZ", "\\u00e", "\\u+0e9", "\\u 0e9"}) {
+            byte[] json = ("{\"username\":\"ana" + escape + "x\"}").getBytes(StandardCharsets.UTF_8);
+            assertThrows(JsonCodecException.class, () -> DtoJsonCodecs.readUser(json), escape);
+        }
+    }
+
+    private static String utf8(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static class ErrorResponseView {
+        public String error;
+        public String errorCode;
+        public String timestamp;
+    }
+}
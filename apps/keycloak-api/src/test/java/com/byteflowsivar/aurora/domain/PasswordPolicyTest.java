@@ -0,0 +1,55 @@
+package com.byteflowsivar.aurora.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PasswordPolicyTest {
+
+    private static final String USERNAME = "usuario123";
+    private static final String EMAIL = "usuario@example.com";
+
+    @Test
+    public void testCountedRulesUseTheRealmValues() {
+        PasswordPolicy policy = PasswordPolicy.parse("length(12) and digits(2) and upperCase(1) and specialChars(1) and maxLength(20)");
+
+        policy.check("Xk9!mPq7wLz3", USERNAME, EMAIL);
+        assertRejected(policy, "Xk9!mPq7wLz", "12 caracteres");
+        assertRejected(policy, "Xk9!mPqrwLzt", "2 dígito(s)");
+        assertRejected(policy, "xk9!mpq7wlz3", "mayúscula");
+        assertRejected(policy, "Xk9mPq7wLz3a", "especial");
+        assertRejected(policy, "Xk9!mPq7wLz3Xk9!mPq7w", "20 caracteres");
+    }
+
+    @Test
+    public void testUserBoundRulesAndPattern() {
+        PasswordPolicy policy = PasswordPolicy.parse("notUsername(undefined) and notEmail(undefined) and regexPattern(^[^ ]+$)");
+
+        assertRejected(policy, "usuario123", "nombre de usuario");
+        assertRejected(policy, "Usuario@Example.com", "correo");
+        assertRejected(policy, "con espacios", "patrón");
+        policy.check("Usuario123", USERNAME, EMAIL);
+
+        assertRejected(PasswordPolicy.parse("notContainsUsername"), "xxUSUARIO123xx", "contener el nombre");
+    }
+
+    @Test
+    public void testRulesOnlyKeycloakCanCheckAreListed() {
+        PasswordPolicy policy = PasswordPolicy.parse("passwordHistory(3) and hashIterations(27500) and passwordBlacklist(list.txt)");
+
+        assertTrue(policy.isEmpty());
+        assertEquals(List.of("passwordHistory", "hashIterations", "passwordBlacklist"), policy.unevaluated());
+        policy.check("a", USERNAME, EMAIL);
+        assertTrue(PasswordPolicy.parse(null).isEmpty());
+    }
+
+    private static void assertRejected(PasswordPolicy policy, String password, String expectedMessagePart) {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> policy.check(password, USERNAME, EMAIL));
+        assertTrue(error.getMessage().contains(expectedMessagePart), error.getMessage());
+    }
+}
@@ -0,0 +1,81 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.service.KeycloakUserService;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+@QuarkusTest
+@TestProfile(RateLimitExceptionMapperTest.OneCreationPerMinute.class)
+public class RateLimitExceptionMapperTest {
+
+    private static final String USER_JSON = "{\"username\":\"testuser\",\"email\":\"test@example.com\","
+        + "\"firstName\":\"Test\",\"lastName\":\"User\",\"password\":\"S3cure!Pass\",\"enabled\":true}";
+
+    @InjectMock
+    KeycloakUserService keycloakUserService;
+
+    @Test
+    public void testRejectedCreationIsAnsweredAndRecorded() throws Exception {
+        Mockito.when(keycloakUserService.userExists(anyString(), anyString())).thenReturn(false);
+        Mockito.when(keycloakUserService.createUser(anyString(), any())).thenReturn("user-123");
+
+        Path file = Files.createTempFile("rate-limit", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("aurora.RateLimitRejected");
+            recording.start();
+
+            create().statusCode(201);
+            create().statusCode(429).body("errorCode", is("RATE_LIMIT_EXCEEDED"));
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> rejections = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("aurora.RateLimitRejected"))
+                .toList();
+        assertEquals(1, rejections.size());
+        assertEquals("create_user", rejections.get(0).getString("operation"));
+        assertTrue(rejections.get(0).getString("client").startsWith("IP=10.1.2.3 "));
+        Files.delete(file);
+    }
+
+    private static ValidatableResponse create() {
+        return given()
+            .contentType(ContentType.JSON)
+            .header("X-Forwarded-For", "10.1.2.3")
+            .body(USER_JSON)
+        .when()
+            .post("/users")
+        .then();
+    }
+
+    public static class OneCreationPerMinute implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("com.byteflowsivar.aurora.resource.UserResource/createUser/RateLimit/value", "1");
+        }
+    }
+}
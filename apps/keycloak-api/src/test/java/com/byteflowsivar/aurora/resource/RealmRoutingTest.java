@@ -0,0 +1,71 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.service.KeycloakUserService;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@QuarkusTest
+public class RealmRoutingTest {
+
+    @InjectMock
+    KeycloakUserService keycloakUserService;
+
+    @Test
+    public void testRealmPathIsRoutedToTheUserEndpoints() {
+        Mockito.when(keycloakUserService.userExists(eq("aurora-stack"), eq("testuser"))).thenReturn(true);
+
+        given()
+        .when()
+            .get("/realms/aurora-stack/users/testuser/exists")
+        .then()
+            .statusCode(200)
+            .body("exists", is(true));
+    }
+
+    @Test
+    public void testUnknownRealmIsNotFound() {
+        given()
+        .when()
+            .get("/realms/unknown-realm/users/testuser/exists")
+        .then()
+            .statusCode(404)
+            .body("errorCode", is("UNKNOWN_REALM"));
+
+        given()
+            .header("X-Realm", "unknown-realm")
+        .when()
+            .get("/users/testuser/exists")
+        .then()
+            .statusCode(404)
+            .body("errorCode", is("UNKNOWN_REALM"));
+        Mockito.verify(keycloakUserService, Mockito.never()).userExists(anyString(), anyString());
+    }
+
+    @Test
+    public void testHeaderThatContradictsThePathIsRejected() {
+        given()
+            .header("X-Realm", "other-realm")
+        .when()
+            .get("/realms/aurora-stack/users/testuser/exists")
+        .then()
+            .statusCode(400)
+            .body("errorCode", is("REALM_MISMATCH"));
+    }
+
+    @Test
+    public void testOnlyTheUsersSegmentIsRouted() {
+        given()
+        .when()
+            .get("/realms/aurora-stack/usersfoo/testuser/exists")
+        .then()
+            .statusCode(404);
+        Mockito.verify(keycloakUserService, Mockito.never()).userExists(anyString(), anyString());
+    }
+}
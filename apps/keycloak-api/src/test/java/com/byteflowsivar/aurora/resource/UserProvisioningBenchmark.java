@@ -0,0 +1,265 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.grpc.CreateUserRequest;
+import com.byteflowsivar.aurora.grpc.ProvisioningReply;
+import com.byteflowsivar.aurora.grpc.ProvisioningRequest;
+import com.byteflowsivar.aurora.grpc.UserExistsRequest;
+import com.byteflowsivar.aurora.grpc.UserProvisioning;
+import com.byteflowsivar.aurora.grpc.UserProvisioningGrpc;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.quarkus.grpc.GrpcClient;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.Multi;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares provisioning throughput over REST, gRPC unary calls and the gRPC
+ * bidirectional stream, against a local fake Keycloak so that only the API layer
+ * is measured. Run with:
+ * ./mvnw test -Dtest=UserProvisioningBenchmark -Daurora.benchmark=true
+ */
+@QuarkusTest
+@QuarkusTestResource(value = UserProvisioningBenchmark.FakeKeycloakResource.class, restrictToAnnotatedClass = true)
+@EnabledIfSystemProperty(named = "aurora.benchmark", matches = "true")
+public class UserProvisioningBenchmark {
+
+    private static final int WARMUP_OPERATIONS = 2_000;
+    private static final int OPERATIONS = 10_000;
+    private static final int CONCURRENCY = 32;
+
+    @TestHTTPResource("/users")
+    URI usersUri;
+
+    @GrpcClient("provisioning")
+    UserProvisioningGrpc.UserProvisioningBlockingStub blockingClient;
+
+    @GrpcClient("provisioning")
+    UserProvisioning streamingClient;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    public void benchmarkRestAgainstGrpc() throws Exception {
+        run("REST crear", "rest-", this::restCreate);
+        run("gRPC unario crear", "unary-", this::unaryCreate);
+        runStream("gRPC stream crear", "stream-", true);
+
+        run("REST existe", "rest-", this::restExists);
+        run("gRPC unario existe", "unary-", this::unaryExists);
+        runStream("gRPC stream existe", "stream-", false);
+    }
+
+    private void run(String name, String prefix, Operation operation) throws Exception {
+        concurrently(prefix + "warmup-", WARMUP_OPERATIONS, operation);
+        long start = System.nanoTime();
+        concurrently(prefix, OPERATIONS, operation);
+        print(name, System.nanoTime() - start);
+    }
+
+    private void runStream(String name, String prefix, boolean create) {
+        stream(prefix + "warmup-", WARMUP_OPERATIONS, create);
+        long start = System.nanoTime();
+        stream(prefix, OPERATIONS, create);
+        print(name, System.nanoTime() - start);
+    }
+
+    private static void print(String name, long elapsedNanos) {
+        System.out.printf("%-22s %8.0f ops/s %8d ms en total%n",
+            name, OPERATIONS * 1e9 / elapsedNanos, elapsedNanos / 1_000_000);
+    }
+
+    private void concurrently(String prefix, int operations, Operation operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<Object>> results = new ArrayList<>(operations);
+            for (int i = 0; i < operations; i++) {
+                String username = prefix + i;
+                results.add(executor.submit(() -> {
+                    operation.run(username);
+                    return null;
+                }));
+            }
+            for (Future<Object> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void stream(String prefix, int operations, boolean create) {
+        Multi<ProvisioningRequest> requests = Multi.createFrom().range(0, operations).map(i -> {
+            ProvisioningRequest.Builder request = ProvisioningRequest.newBuilder().setCorrelationId(Integer.toString(i));
+            return create
+                ? request.setCreateUser(createRequest(prefix + i)).build()
+                : request.setUserExists(UserExistsRequest.newBuilder().setUsername(prefix + i)).build();
+        });
+        List<ProvisioningReply> replies = streamingClient.provision(requests)
+            .collect().asList()
+            .await().atMost(Duration.ofMinutes(5));
+        assertEquals(operations, replies.size());
+        for (ProvisioningReply reply : replies) {
+            assertEquals(create ? ProvisioningReply.ResultCase.CREATED : ProvisioningReply.ResultCase.EXISTS,
+                reply.getResultCase(), reply.toString());
+        }
+    }
+
+    private void restCreate(String username) throws Exception {
+        String body = "{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\","
+            + "\"firstName\":\"Juan\",\"lastName\":\"Pérez\",\"password\":\"S3cure!Pass\",\"enabled\":true}";
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(usersUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode(), response.body());
+    }
+
+    private void restExists(String username) throws Exception {
+        HttpResponse<String> response = httpClient.send(
+            HttpRequest.newBuilder(URI.create(usersUri + "/" + username + "/exists")).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+    }
+
+    private void unaryCreate(String username) {
+        blockingClient.createUser(createRequest(username));
+    }
+
+    private void unaryExists(String username) {
+        blockingClient.userExists(UserExistsRequest.newBuilder().setUsername(username).build());
+    }
+
+    private static CreateUserRequest createRequest(String username) {
+        return CreateUserRequest.newBuilder()
+            .setUsername(username)
+            .setEmail(username + "@example.com")
+            .setFirstName("Juan")
+            .setLastName("Pérez")
+            .setPassword("S3cure!Pass")
+            .setEnabled(true)
+            .build();
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run(String username) throws Exception;
+    }
+
+    /**
+     * Just enough of the Keycloak admin API for creation and existence checks:
+     * token, user search, user creation, password reset and the realm description.
+     */
+    public static class FakeKeycloakResource implements QuarkusTestResourceLifecycleManager {
+
+        private static final Pattern USERNAME = Pattern.compile("\"username\"\\s*:\\s*\"([^\"]+)\"");
+        private static final Pattern REALM_PATH = Pattern.compile("/admin/realms/([^/]+)");
+
+        private final Set<String> users = ConcurrentHashMap.newKeySet();
+        private HttpServer server;
+        private ExecutorService executor;
+
+        @Override
+        public Map<String, String> start() {
+            try {
+                server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            executor = Executors.newFixedThreadPool(64);
+            server.setExecutor(executor);
+            server.createContext("/", this::handle);
+            server.start();
+            return Map.of(
+                "quarkus.keycloak.admin-client.server-url", "http://127.0.0.1:" + server.getAddress().getPort(),
+                "com.byteflowsivar.aurora.resource.UserResource/createUser/RateLimit/enabled", "false",
+                "com.byteflowsivar.aurora.resource.GrpcRateLimits/createUser/RateLimit/enabled", "false"
+            );
+        }
+
+        @Override
+        public void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getQuery();
+            Matcher realm = REALM_PATH.matcher(path);
+            if (path.endsWith("/protocol/openid-connect/token")) {
+                exchange.getRequestBody().readAllBytes();
+                respond(exchange, 200, "{\"access_token\":\"fake\",\"expires_in\":3600,\"token_type\":\"Bearer\"}");
+            } else if ("POST".equals(method) && path.endsWith("/users")) {
+                Matcher username = USERNAME.matcher(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                if (!username.find() || !users.add(username.group(1))) {
+                    respond(exchange, 409, "{\"errorMessage\":\"User exists with same username\"}");
+                    return;
+                }
+                exchange.getResponseHeaders().add("Location",
+                    "http://127.0.0.1:" + server.getAddress().getPort() + path + "/" + UUID.randomUUID());
+                exchange.sendResponseHeaders(201, -1);
+                exchange.close();
+            } else if ("GET".equals(method) && path.endsWith("/users") && query != null && query.contains("username=")) {
+                String username = queryParameter(query, "username");
+                respond(exchange, 200, users.contains(username)
+                    ? "[{\"id\":\"" + UUID.nameUUIDFromBytes(username.getBytes(StandardCharsets.UTF_8)) + "\",\"username\":\"" + username + "\"}]"
+                    : "[]");
+            } else if ("GET".equals(method) && realm.matches()) {
+                respond(exchange, 200, "{\"realm\":\"" + realm.group(1) + "\",\"enabled\":true,\"passwordPolicy\":\"length(8)\"}");
+            } else if ("GET".equals(method)) {
+                respond(exchange, 200, "[]");
+            } else {
+                exchange.getRequestBody().readAllBytes();
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+            }
+        }
+
+        private static String queryParameter(String query, String name) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith(name + "=")) {
+                    return URLDecoder.decode(parameter.substring(name.length() + 1), StandardCharsets.UTF_8);
+                }
+            }
+            return null;
+        }
+
+        private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        }
+    }
+}
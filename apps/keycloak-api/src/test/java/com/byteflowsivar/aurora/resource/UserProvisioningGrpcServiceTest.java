@@ -0,0 +1,143 @@
+package com.byteflowsivar.aurora.resource;
+
+import com.byteflowsivar.aurora.grpc.CreateUserReply;
+import com.byteflowsivar.aurora.grpc.CreateUserRequest;
+import com.byteflowsivar.aurora.grpc.ProvisioningReply;
+import com.byteflowsivar.aurora.grpc.ProvisioningRequest;
+import com.byteflowsivar.aurora.grpc.UserExistsRequest;
+import com.byteflowsivar.aurora.grpc.UserProvisioning;
+import com.byteflowsivar.aurora.grpc.UserProvisioningGrpc;
+import com.byteflowsivar.aurora.service.KeycloakUserService;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.quarkus.grpc.GrpcClient;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.faulttolerance.api.RateLimitException;
+import io.smallrye.mutiny.Multi;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+
+@QuarkusTest
+public class UserProvisioningGrpcServiceTest {
+
+    private static final Metadata.Key<String> ERROR_CODE =
+        Metadata.Key.of("aurora-error-code", Metadata.ASCII_STRING_MARSHALLER);
+
+    @InjectMock
+    KeycloakUserService keycloakUserService;
+
+    @InjectMock
+    GrpcRateLimits rateLimits;
+
+    @GrpcClient("provisioning")
+    UserProvisioningGrpc.UserProvisioningBlockingStub client;
+
+    @GrpcClient("provisioning")
+    UserProvisioning streamingClient;
+
+    @Test
+    public void testCreateUserSuccess() {
+        Mockito.when(keycloakUserService.userExists(anyString(), anyString())).thenReturn(false);
+        Mockito.when(keycloakUserService.createUser(anyString(), any())).thenReturn("user-123");
+
+        CreateUserReply reply = client.createUser(createRequest("newuser"));
+
+        assertEquals("user-123", reply.getUserId());
+        assertEquals("newuser", reply.getUsername());
+    }
+
+    @Test
+    public void testValidationErrorIsInvalidArgument() {
+        Mockito.when(keycloakUserService.userExists(anyString(), anyString())).thenReturn(false);
+        Mockito.when(keycloakUserService.createUser(anyString(), any())).thenThrow(new IllegalArgumentException("Username is required"));
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> client.createUser(createRequest("newuser")));
+
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        assertEquals("Username is required", e.getStatus().getDescription());
+        assertEquals("VALIDATION_ERROR", Status.trailersFromThrowable(e).get(ERROR_CODE));
+    }
+
+    @Test
+    public void testExistingUserIsAlreadyExists() {
+        Mockito.when(keycloakUserService.userExists(anyString(), eq("existinguser"))).thenReturn(true);
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> client.createUser(createRequest("existinguser")));
+
+        assertEquals(Status.Code.ALREADY_EXISTS, e.getStatus().getCode());
+        assertEquals("USER_ALREADY_EXISTS", Status.trailersFromThrowable(e).get(ERROR_CODE));
+        Mockito.verify(keycloakUserService, Mockito.never()).createUser(anyString(), any());
+    }
+
+    @Test
+    public void testRateLimitRejectionIsResourceExhausted() {
+        Mockito.doThrow(new RateLimitException()).when(rateLimits).createUser();
+
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> client.createUser(createRequest("newuser")));
+
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, e.getStatus().getCode());
+        assertEquals("RATE_LIMIT_EXCEEDED", Status.trailersFromThrowable(e).get(ERROR_CODE));
+        Mockito.verifyNoInteractions(keycloakUserService);
+    }
+
+    @Test
+    public void testFailedOperationDoesNotCloseTheStream() {
+        Mockito.when(keycloakUserService.userExists(anyString(), anyString())).thenReturn(false);
+        Mockito.when(keycloakUserService.userExists(anyString(), eq("existinguser"))).thenReturn(true);
+        Mockito.when(keycloakUserService.createUser(anyString(), argThat(user -> user != null && "newuser".equals(user.getUsername()))))
+            .thenReturn("user-123");
+
+        List<ProvisioningReply> replies = streamingClient.provision(Multi.createFrom().items(
+                ProvisioningRequest.newBuilder().setCorrelationId("1").setCreateUser(createRequest("existinguser")).build(),
+                ProvisioningRequest.newBuilder().setCorrelationId("2").setCreateUser(createRequest("newuser")).build(),
+                ProvisioningRequest.newBuilder().setCorrelationId("3")
+                    .setUserExists(UserExistsRequest.newBuilder().setUsername("existinguser")).build()))
+            .collect().asList()
+            .await().atMost(Duration.ofSeconds(10));
+
+        // Replies go out as operations finish, so they are matched by correlation id
+        Map<String, ProvisioningReply> byCorrelationId = replies.stream()
+            .collect(Collectors.toMap(ProvisioningReply::getCorrelationId, Function.identity()));
+        assertEquals(3, byCorrelationId.size());
+
+        ProvisioningReply failed = byCorrelationId.get("1");
+        assertEquals(ProvisioningReply.ResultCase.ERROR, failed.getResultCase());
+        assertEquals("USER_ALREADY_EXISTS", failed.getError().getErrorCode());
+        assertEquals(409, failed.getError().getHttpStatus());
+
+        ProvisioningReply created = byCorrelationId.get("2");
+        assertEquals(ProvisioningReply.ResultCase.CREATED, created.getResultCase());
+        assertEquals("user-123", created.getCreated().getUserId());
+
+        ProvisioningReply exists = byCorrelationId.get("3");
+        assertEquals(ProvisioningReply.ResultCase.EXISTS, exists.getResultCase());
+        assertTrue(exists.getExists().getExists());
+    }
+
+    private static CreateUserRequest createRequest(String username) {
+        return CreateUserRequest.newBuilder()
+            .setUsername(username)
+            .setEmail(username + "@example.com")
+            .setFirstName("Juan")
+            .setLastName("Pérez")
+            .setPassword("S3cure!Pass")
+            .setEnabled(true)
+            .build();
+    }
+}
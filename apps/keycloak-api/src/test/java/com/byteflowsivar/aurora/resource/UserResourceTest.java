@@ -1,16 +1,22 @@
 package com.byteflowsivar.aurora.resource;
 
 import com.byteflowsivar.aurora.service.KeycloakUserService;
+import com.byteflowsivar.aurora.service.UserValidationService;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.InjectMock;
 import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 
 @QuarkusTest
 public class UserResourceTest {
@@ -18,10 +24,13 @@ public class UserResourceTest {
     @InjectMock
     KeycloakUserService keycloakUserService;
 
+    @Inject
+    UserValidationService userValidationService;
+
     @Test
     public void testCreateUserSuccess() {
-        Mockito.when(keycloakUserService.userExists(anyString())).thenReturn(false);
-        Mockito.when(keycloakUserService.createUser(any())).thenReturn("user-123");
+        Mockito.when(keycloakUserService.userExists(anyString(), anyString())).thenReturn(false);
+        Mockito.when(keycloakUserService.createUser(anyString(), any())).thenReturn("user-123");
 
         given()
             .contentType(ContentType.JSON)
@@ -44,7 +53,7 @@ public class UserResourceTest {
 
     @Test
     public void testCreateUserAlreadyExists() {
-        Mockito.when(keycloakUserService.userExists("existinguser")).thenReturn(true);
+        Mockito.when(keycloakUserService.userExists(anyString(), eq("existinguser"))).thenReturn(true);
 
         given()
             .contentType(ContentType.JSON)
@@ -65,8 +74,8 @@ public class UserResourceTest {
 
     @Test
     public void testCreateUserValidationError() {
-        Mockito.when(keycloakUserService.userExists(anyString())).thenReturn(false);
-        Mockito.when(keycloakUserService.createUser(any())).thenThrow(new IllegalArgumentException("Username is required"));
+        Mockito.when(keycloakUserService.userExists(anyString(), anyString())).thenReturn(false);
+        Mockito.when(keycloakUserService.createUser(anyString(), any())).thenThrow(new IllegalArgumentException("Username is required"));
 
         given()
             .contentType(ContentType.JSON)
@@ -85,9 +94,35 @@ public class UserResourceTest {
             .body("error", is("Username is required"));
     }
 
+    @Test
+    public void testCreateUserRejectsRolesWithoutAllowlist() {
+        Mockito.when(keycloakUserService.userExists(anyString(), anyString())).thenReturn(false);
+        Mockito.when(keycloakUserService.createUser(anyString(), any())).thenAnswer(invocation -> {
+            userValidationService.validate(invocation.getArgument(0), invocation.getArgument(1));
+            return "user-123";
+        });
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\n" +
+                  "  \"username\": \"testuser\",\n" +
+                  "  \"email\": \"test@example.com\",\n" +
+                  "  \"firstName\": \"Test\",\n" +
+                  "  \"lastName\": \"User\",\n" +
+                  "  \"password\": \"S3cure!Pass\",\n" +
+                  "  \"realmRoles\": [\"admin\"]\n" +
+                  "}")
+        .when()
+            .post("/users")
+        .then()
+            .statusCode(400)
+            .body("errorCode", is("VALIDATION_ERROR"))
+            .body("error", is("El rol no se puede asignar: admin"));
+    }
+
     @Test
     public void testCheckUserExists() {
-        Mockito.when(keycloakUserService.userExists("testuser")).thenReturn(true);
+        Mockito.when(keycloakUserService.userExists(anyString(), eq("testuser"))).thenReturn(true);
 
         given()
         .when()
@@ -100,7 +135,7 @@ public class UserResourceTest {
 
     @Test
     public void testCheckUserNotExists() {
-        Mockito.when(keycloakUserService.userExists("nonexistent")).thenReturn(false);
+        Mockito.when(keycloakUserService.userExists(anyString(), eq("nonexistent"))).thenReturn(false);
 
         given()
         .when()
@@ -110,4 +145,63 @@ public class UserResourceTest {
             .body("username", is("nonexistent"))
             .body("exists", is(false));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testExistsAnswersAreCachedForTheirOwnMaxAge() {
+        Mockito.when(keycloakUserService.userExists(anyString(), eq("cacheduser"))).thenReturn(true);
+        Mockito.when(keycloakUserService.userExists(anyString(), eq("missinguser"))).thenReturn(false);
+
+        given()
+        .when()
+            .get("/users/cacheduser/exists")
+        .then()
+            .statusCode(200)
+            .header("Cache-Control", containsString("max-age=60"))
+            .header("Vary", containsString("X-Realm"));
+
+        given()
+        .when()
+            .get("/users/missinguser/exists")
+        .then()
+            .statusCode(200)
+            .header("Cache-Control", containsString("max-age=5"))
+            .header("Vary", containsString("X-Realm"));
+    }
+
+    @Test
+    public void testExistsTagChangesWhenTheAnswerChanges() {
+        Mockito.when(keycloakUserService.userExists(anyString(), eq("flippinguser"))).thenReturn(false);
+        String absent = given().when().get("/users/flippinguser/exists").then().statusCode(200).extract().header("ETag");
+
+        Mockito.when(keycloakUserService.userExists(anyString(), eq("flippinguser"))).thenReturn(true);
+        String exists = given().when().get("/users/flippinguser/exists").then().statusCode(200).extract().header("ETag");
+
+        assertNotNull(absent);
+        assertNotNull(exists);
+        assertNotEquals(absent, exists);
+
+        // The old tag no longer matches, so the client gets the new answer
+        given()
+            .header("If-None-Match", absent)
+        .when()
+            .get("/users/flippinguser/exists")
+        .then()
+            .statusCode(200)
+            .body("exists", is(true));
+    }
+
+    @Test
+    public void testMatchingTagIsAnsweredWithNotModified() {
+        Mockito.when(keycloakUserService.userExists(anyString(), eq("cacheduser"))).thenReturn(true);
+        String tag = given().when().get("/users/cacheduser/exists").then().statusCode(200).extract().header("ETag");
+
+        given()
+            .header("If-None-Match", tag)
+        .when()
+            .get("/users/cacheduser/exists")
+        .then()
+            .statusCode(304)
+            .header("Cache-Control", containsString("max-age=60"))
+            .header("Vary", containsString("X-Realm"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.byteflowsivar.aurora.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static com.byteflowsivar.aurora.service.AdmissionController.Decision.ADMITTED;
+import static com.byteflowsivar.aurora.service.AdmissionController.Decision.SHED_CONCURRENCY;
+import static com.byteflowsivar.aurora.service.AdmissionController.Decision.SHED_QUEUE_TIME;
+import static com.byteflowsivar.aurora.service.AdmissionController.Priority.HIGH;
+import static com.byteflowsivar.aurora.service.AdmissionController.Priority.LOW;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdmissionControllerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionController controller;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        controller = new AdmissionController();
+        controller.meterRegistry = meterRegistry;
+        controller.enabled = true;
+        controller.target = Duration.ofMillis(5);
+        controller.interval = Duration.ofMillis(50);
+        controller.maxQueueTime = Duration.ofSeconds(1);
+        controller.maxConcurrent = 4;
+        controller.lowPriorityShare = 0.5;
+        controller.init();
+    }
+
+    @Test
+    public void testShortQueuesAreAdmitted() {
+        assertEquals(ADMITTED, admitAndRelease(LOW, 200));
+        assertEquals(SHED_QUEUE_TIME, admitAndRelease(LOW, 2_000));
+        assertFalse(controller.isOverloaded());
+    }
+
+    @Test
+    public void testStandingQueueShedsLowPriorityFirst() throws Exception {
+        keepQueueAt(20);
+        assertTrue(controller.isOverloaded());
+
+        assertEquals(SHED_QUEUE_TIME, admitAndRelease(LOW, 10));
+        assertEquals(ADMITTED, admitAndRelease(HIGH, 10));
+        assertEquals(ADMITTED, admitAndRelease(HIGH, 500));
+        assertEquals(1.0, meterRegistry.counter("aurora.admission.requests", "priority", "low", "outcome", "shed_queue_time").count());
+    }
+
+    @Test
+    public void testOverloadEndsWhenQueueDrains() throws Exception {
+        keepQueueAt(20);
+        assertTrue(controller.isOverloaded());
+
+        keepQueueAt(0);
+        assertFalse(controller.isOverloaded());
+        assertEquals(ADMITTED, admitAndRelease(LOW, 3));
+    }
+
+    @Test
+    public void testCapacityIsReservedForHighPriority() {
+        assertEquals(ADMITTED, controller.admit(LOW, 0));
+        assertEquals(ADMITTED, controller.admit(LOW, 0));
+        assertEquals(SHED_CONCURRENCY, controller.admit(LOW, 0));
+
+        assertEquals(ADMITTED, controller.admit(HIGH, 0));
+        assertEquals(ADMITTED, controller.admit(HIGH, 0));
+        assertEquals(SHED_CONCURRENCY, controller.admit(HIGH, 0));
+
+        controller.release();
+        assertEquals(ADMITTED, controller.admit(HIGH, 0));
+    }
+
+    private void keepQueueAt(long queuedMillis) throws InterruptedException {
+        // Two full intervals so that one of them is judged entirely on these samples
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(120);
+        while (System.nanoTime() < end) {
+            admitAndRelease(HIGH, queuedMillis);
+            Thread.sleep(2);
+        }
+    }
+
+    private AdmissionController.Decision admitAndRelease(AdmissionController.Priority priority, long queuedMillis) {
+        AdmissionController.Decision decision = controller.admit(priority, TimeUnit.MILLISECONDS.toNanos(queuedMillis));
+        if (decision == ADMITTED) {
+            controller.release();
+        }
+        return decision;
+    }
+}
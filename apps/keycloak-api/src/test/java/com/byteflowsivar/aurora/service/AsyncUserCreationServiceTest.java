@@ -0,0 +1,31 @@
+package com.byteflowsivar.aurora.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AsyncUserCreationServiceTest {
+
+    @Test
+    public void testSegmentsAreDeletedOnlyUpToTheFirstOneWithPendingWork() {
+        // Segment 2 is done, but it may hold the COMPLETED record of a job submitted in segment 1
+        Map<Long, AtomicInteger> pending = Map.of(
+            0L, new AtomicInteger(0),
+            1L, new AtomicInteger(1),
+            2L, new AtomicInteger(0));
+
+        assertEquals(List.of(0L), AsyncUserCreationService.deletableSegments(List.of(0L, 1L, 2L, 3L), 3L, pending));
+    }
+
+    @Test
+    public void testActiveSegmentIsNeverDeleted() {
+        Map<Long, AtomicInteger> pending = Map.of(0L, new AtomicInteger(0));
+
+        assertEquals(List.of(0L, 1L), AsyncUserCreationService.deletableSegments(List.of(0L, 1L, 2L), 2L, pending));
+        assertEquals(List.of(), AsyncUserCreationService.deletableSegments(List.of(2L), 2L, pending));
+    }
+}
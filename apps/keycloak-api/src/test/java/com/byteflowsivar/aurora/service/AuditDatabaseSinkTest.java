@@ -0,0 +1,285 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.storage.AuditEventStore.AuditEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuditDatabaseSinkTest {
+
+    @TempDir
+    Path directory;
+
+    private final FakeDatabase database = new FakeDatabase();
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private AuditDatabaseSink sink;
+
+    @AfterEach
+    public void tearDown() {
+        if (sink != null) {
+            sink.shutdown();
+        }
+    }
+
+    @Test
+    public void testCopyRowsEscapeTheTextFormat() {
+        Map<String, String> details = new LinkedHashMap<>();
+        details.put("reason", "\"USER_CREATION_FAILED: a\\b\"");
+        details.put("client_info", "IP=10.0.0.1");
+
+        String rows = AuditDatabaseSink.copyRows(List.of(
+            new AuditEvent(0, "USER_CREATION_FAILURE", "10.0.0.1", details),
+            new AuditEvent(1000, "TAB\tTYPE", "unknown", Map.of())));
+
+        assertEquals("1970-01-01T00:00:00Z\tUSER_CREATION_FAILURE\t10.0.0.1\t"
+                + "{\"reason\":\"\\\\\"USER_CREATION_FAILED: a\\\\\\\\b\\\\\"\",\"client_info\":\"IP=10.0.0.1\"}\n"
+                + "1970-01-01T00:00:01Z\tTAB\\tTYPE\tunknown\t{}\n",
+            rows);
+    }
+
+    @Test
+    public void testBatchIsClosedBySize() {
+        sink = start(3, Duration.ofSeconds(30), Duration.ofSeconds(1), 64);
+
+        record(3, "10.0.0.1");
+
+        // Well before the flush interval
+        awaitTrue(() -> database.rows.size() == 3, "lote por tamaño no escrito");
+        assertEquals(1, database.copies.get());
+    }
+
+    @Test
+    public void testBatchIsClosedByTime() {
+        sink = start(1000, Duration.ofMillis(50), Duration.ofSeconds(1), 64);
+
+        record(2, "10.0.0.1");
+
+        awaitTrue(() -> database.rows.size() == 2, "lote por tiempo no escrito");
+        assertEquals(1, database.copies.get());
+    }
+
+    @Test
+    public void testEventsSpillWhileTheDatabaseIsDownAndAreReplayedAfterwards() {
+        database.down = true;
+        sink = start(10, Duration.ofMillis(20), Duration.ofMillis(300), 64);
+
+        record(5, "10.0.0.1");
+        awaitTrue(() -> count("aurora.audit-db.flush-failures") >= 1, "el fallo no se registró");
+        // Still backing off: these go straight to the spill
+        record(5, "10.0.0.2");
+        awaitTrue(() -> count("aurora.audit-db.spilled") == 10, "eventos no volcados al disco");
+        assertTrue(database.rows.isEmpty());
+
+        database.down = false;
+
+        awaitTrue(() -> count("aurora.audit-db.replayed") == 10, "eventos volcados no reenviados");
+        assertEquals(10, database.rows.size());
+        assertEquals(0, count("aurora.audit-db.dropped"));
+    }
+
+    @Test
+    public void testEventsBeyondTheSpillCapAreDropped() {
+        database.down = true;
+        // A single spill segment already reaches a 1 MB cap
+        sink = start(10, Duration.ofMillis(20), Duration.ofSeconds(30), 1);
+
+        record(4, "10.0.0.1");
+
+        awaitTrue(() -> count("aurora.audit-db.dropped") == 4, "descartes no contados");
+        assertEquals(0, count("aurora.audit-db.spilled"));
+    }
+
+    @Test
+    public void testRefusedRowsAreSetAsideWithoutHoldingBackTheRest() {
+        database.refusedClientIp = "203.0.113.7, 198.51.100.1, 192.0.2.1, 203.0.113.8, 198.51.100.2";
+        sink = start(8, Duration.ofMillis(50), Duration.ofSeconds(30), 64);
+
+        record(3, "10.0.0.1");
+        record(1, database.refusedClientIp);
+        record(4, "10.0.0.2");
+
+        awaitTrue(() -> database.rows.size() == 7 && count("aurora.audit-db.rejected") == 1, "filas válidas no escritas");
+        assertFalse(database.rows.stream().anyMatch(row -> row.contains(database.refusedClientIp)));
+        assertEquals(0, count("aurora.audit-db.spilled"));
+        assertEquals(0, count("aurora.audit-db.flush-failures"));
+
+        // No backoff was started, so the next events go out right away
+        record(1, "10.0.0.3");
+        awaitTrue(() -> database.rows.size() == 8, "el sumidero quedó bloqueado");
+    }
+
+    @Test
+    public void testSchemaSetupOnlyAltersAColumnThatIsNotTextYet() {
+        sink = start(1, Duration.ofMillis(20), Duration.ofSeconds(1), 64);
+
+        record(1, "10.0.0.1");
+
+        awaitTrue(() -> database.rows.size() == 1, "evento no escrito");
+        // An unconditional ALTER would take an exclusive lock on every start
+        for (String sql : database.statements) {
+            assertTrue(sql.startsWith("CREATE TABLE IF NOT EXISTS") || sql.startsWith("CREATE INDEX IF NOT EXISTS")
+                || (sql.startsWith("DO $$") && sql.contains("data_type <> 'text'")), sql);
+        }
+        assertEquals(3, database.statements.size());
+    }
+
+    @Test
+    public void testOnlyRowDependentErrorsAreNotRetried() {
+        assertTrue(AuditDatabaseSink.isDataError(new SQLException("value too long for type character varying(64)", "22001")));
+        assertTrue(AuditDatabaseSink.isDataError(new IOException(new SQLException("null value in column", "23502"))));
+        assertFalse(AuditDatabaseSink.isDataError(new SQLException("connection refused", "08001")));
+        assertFalse(AuditDatabaseSink.isDataError(new IOException("broken pipe")));
+    }
+
+    private AuditDatabaseSink start(int batchSize, Duration flushInterval, Duration retryBackoff, long spillMaxSizeMb) {
+        AuditDatabaseSink sink = new AuditDatabaseSink();
+        sink.dataSource = database.dataSource();
+        sink.meterRegistry = meters;
+        sink.enabled = true;
+        sink.bufferCapacity = 1000;
+        sink.batchSize = batchSize;
+        sink.flushInterval = flushInterval;
+        sink.retryBackoff = retryBackoff;
+        sink.maxRetryBackoff = retryBackoff;
+        sink.spillPath = directory.toString();
+        sink.spillSegmentSizeMb = 1;
+        sink.spillMaxSizeMb = spillMaxSizeMb;
+        sink.createSchema = true;
+        sink.init();
+        return sink;
+    }
+
+    private void record(int events, String clientIp) {
+        for (int i = 0; i < events; i++) {
+            sink.record("USER_CREATION_ATTEMPT", Instant.now(), clientIp, Map.of("username", "usuario" + i));
+        }
+    }
+
+    private double count(String name) {
+        return meters.counter(name).count();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError(message);
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(message);
+            }
+        }
+    }
+
+    /**
+     * Stands in for PostgreSQL behind a DataSource: it can be taken down, and it
+     * refuses any COPY carrying a given client IP the way a too-long value would be.
+     */
+    private static final class FakeDatabase {
+
+        final List<String> rows = Collections.synchronizedList(new ArrayList<>());
+        final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger copies = new AtomicInteger();
+        volatile boolean down;
+        volatile String refusedClientIp;
+
+        DataSource dataSource() {
+            return proxy(DataSource.class, (proxy, method, args) -> {
+                if (method.getName().equals("getConnection")) {
+                    if (down) {
+                        throw new SQLException("Connection refused", "08001");
+                    }
+                    return connection();
+                }
+                return defaultValue(method.getReturnType());
+            });
+        }
+
+        private Connection connection() {
+            BaseConnection copyConnection = proxy(BaseConnection.class, (proxy, method, args) -> method.getName().equals("getCopyAPI")
+                ? new FakeCopyManager((BaseConnection) proxy)
+                : defaultValue(method.getReturnType()));
+            Statement statement = proxy(Statement.class, (proxy, method, args) -> {
+                if (method.getName().equals("execute")) {
+                    statements.add(((String) args[0]).strip());
+                }
+                return defaultValue(method.getReturnType());
+            });
+            return proxy(Connection.class, (proxy, method, args) -> switch (method.getName()) {
+                case "unwrap" -> args[0] == PGConnection.class ? copyConnection : null;
+                case "isWrapperFor" -> args[0] == PGConnection.class;
+                case "createStatement" -> statement;
+                default -> defaultValue(method.getReturnType());
+            });
+        }
+
+        private final class FakeCopyManager extends CopyManager {
+
+            FakeCopyManager(BaseConnection connection) throws SQLException {
+                super(connection);
+            }
+
+            @Override
+            public long copyIn(String sql, Reader from) throws SQLException, IOException {
+                StringWriter content = new StringWriter();
+                from.transferTo(content);
+                String refused = refusedClientIp;
+                if (refused != null && content.toString().contains("\t" + refused + "\t")) {
+                    throw new SQLException("value too long for type character varying(64)", "22001");
+                }
+                copies.incrementAndGet();
+                List<String> copied = List.of(content.toString().split("\n"));
+                rows.addAll(copied);
+                return copied.size();
+            }
+        }
+
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return type.cast(Proxy.newProxyInstance(FakeDatabase.class.getClassLoader(), new Class<?>[]{type}, handler));
+        }
+
+        private static Object defaultValue(Class<?> type) {
+            if (type == boolean.class) {
+                return false;
+            }
+            if (type == int.class) {
+                return 0;
+            }
+            if (type == long.class) {
+                return 0L;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BulkheadTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+        RequestDeadline.clear();
+    }
+
+    @Test
+    public void testFullQueueRejectsWithoutWaiting() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("write", 1, 1, Duration.ofSeconds(5));
+        bulkhead.acquire("create_user");
+        CountDownLatch waiting = new CountDownLatch(1);
+        Future<?> queued = executor.submit(() -> {
+            waiting.countDown();
+            bulkhead.acquire("create_user");
+            bulkhead.release();
+        });
+        waiting.await();
+        while (bulkhead.queued() == 0) {
+            Thread.onSpinWait();
+        }
+
+        long start = System.nanoTime();
+        KeycloakServiceException error = assertThrows(KeycloakServiceException.class, () -> bulkhead.acquire("create_user"));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(Bulkhead.BULKHEAD_FULL, error.getErrorCode());
+        assertEquals(503, error.getHttpStatus());
+
+        bulkhead.release();
+        queued.get(5, TimeUnit.SECONDS);
+        assertEquals(2, bulkhead.admitted());
+        assertEquals(1, bulkhead.rejected());
+        assertEquals(0, bulkhead.active());
+    }
+
+    @Test
+    public void testWaitIsBoundedByTheRequestDeadline() {
+        Bulkhead bulkhead = new Bulkhead("read", 1, 10, Duration.ofSeconds(30));
+        bulkhead.acquire("user_exists");
+        RequestDeadline.bind(RequestDeadline.after(System.nanoTime(), Duration.ofMillis(50)));
+
+        long start = System.nanoTime();
+        assertThrows(KeycloakServiceException.class, () -> bulkhead.acquire("user_exists"));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(0, bulkhead.queued());
+    }
+
+    @Test
+    public void testUtilizationFollowsActiveCalls() {
+        Bulkhead bulkhead = new Bulkhead("read", 4, 0, Duration.ZERO);
+        bulkhead.acquire("user_exists");
+        bulkhead.acquire("user_exists");
+
+        assertEquals(2, bulkhead.active());
+        assertEquals(0.5, bulkhead.utilization(), 0.0001);
+
+        bulkhead.release();
+        assertEquals(0.25, bulkhead.utilization(), 0.0001);
+    }
+}
@@ -0,0 +1,234 @@
+package com.byteflowsivar.aurora.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EndpointBalancerTest {
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private final List<FakeKeycloak> nodes = new ArrayList<>();
+
+    @AfterEach
+    public void stopNodes() {
+        for (FakeKeycloak node : nodes) {
+            node.stop();
+        }
+    }
+
+    @Test
+    public void testLoadIsSpreadAcrossHealthyNodes() throws Exception {
+        EndpointBalancer<FakeKeycloak> balancer = balancer(start(2), start(2), start(2));
+
+        callConcurrently(balancer, 600);
+
+        for (FakeKeycloak node : nodes) {
+            assertTrue(node.requests.get() > 600 / 6, "Reparto desigual: " + node.requests.get());
+        }
+    }
+
+    @Test
+    public void testSlowNodeReceivesLittleTraffic() throws Exception {
+        FakeKeycloak slow = start(40);
+        EndpointBalancer<FakeKeycloak> balancer = balancer(start(2), start(2), slow);
+
+        callConcurrently(balancer, 400);
+
+        // Round robin would send a third of the calls to the slow node; the bound leaves room for a loaded machine
+        assertTrue(slow.requests.get() < 400 / 3, "El nodo lento recibió " + slow.requests.get());
+    }
+
+    @Test
+    public void testFailingNodeIsEjectedAndIdempotentCallsFailOver() throws Exception {
+        FakeKeycloak healthy = start(0);
+        FakeKeycloak failing = start(0);
+        failing.status = 503;
+        EndpointBalancer<FakeKeycloak> balancer = balancer(healthy, failing);
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(200, (int) balancer.execute(true, endpoint -> get(endpoint.client())));
+        }
+
+        assertTrue(balancer.endpoints().get(1).isEjected());
+        assertEquals(3, failing.requests.get());
+    }
+
+    @Test
+    public void testNonIdempotentCallIsNotRetried() throws Exception {
+        FakeKeycloak failing = start(0);
+        failing.status = 503;
+        FakeKeycloak other = start(0);
+        other.status = 503;
+        EndpointBalancer<FakeKeycloak> balancer = balancer(failing, other);
+
+        assertThrows(UncheckedIOException.class, () -> balancer.execute(false, endpoint -> get(endpoint.client())));
+        assertEquals(1, failing.requests.get() + other.requests.get());
+    }
+
+    @Test
+    public void testUnreachableNodeIsEjected() throws Exception {
+        FakeKeycloak healthy = start(0);
+        FakeKeycloak stopped = start(0);
+        stopped.stop();
+        EndpointBalancer<FakeKeycloak> balancer = balancer(healthy, stopped);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(200, (int) balancer.execute(true, endpoint -> get(endpoint.client())));
+        }
+        assertTrue(balancer.endpoints().get(1).isEjected());
+    }
+
+    @Test
+    public void testEjectedNodeReturnsAfterSuccessfulRecheck() throws Exception {
+        FakeKeycloak healthy = start(0);
+        FakeKeycloak recovering = start(0);
+        recovering.status = 500;
+        AtomicLong now = new AtomicLong();
+        EndpointBalancer<FakeKeycloak> balancer = balancer(now::get, healthy, recovering);
+        while (!balancer.endpoints().get(1).isEjected()) {
+            balancer.execute(true, endpoint -> get(endpoint.client()));
+        }
+
+        int probes = recovering.requests.get();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(49));
+        balancer.recheck(node -> get(node) == 200);
+        assertEquals(probes, recovering.requests.get(), "Recheck antes de tiempo");
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        balancer.recheck(node -> get(node) == 200);
+        assertTrue(balancer.endpoints().get(1).isEjected());
+
+        // The failed recheck doubled the wait to 100 ms
+        recovering.status = 200;
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(99));
+        balancer.recheck(node -> get(node) == 200);
+        assertTrue(balancer.endpoints().get(1).isEjected());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        balancer.recheck(node -> get(node) == 200);
+        assertFalse(balancer.endpoints().get(1).isEjected());
+
+        int before = recovering.requests.get();
+        for (int i = 0; i < 100; i++) {
+            balancer.execute(true, endpoint -> get(endpoint.client()));
+        }
+        assertTrue(recovering.requests.get() > before);
+    }
+
+    private EndpointBalancer<FakeKeycloak> balancer(FakeKeycloak... fakes) {
+        return balancer(System::nanoTime, fakes);
+    }
+
+    private EndpointBalancer<FakeKeycloak> balancer(LongSupplier ticker, FakeKeycloak... fakes) {
+        Map<String, FakeKeycloak> clients = new LinkedHashMap<>();
+        for (FakeKeycloak fake : fakes) {
+            clients.put(fake.baseUri.toString(), fake);
+            // Open the connection up front so the first measured call is not a cold one
+            try {
+                get(fake);
+            } catch (UncheckedIOException ignored) {
+                // Nodes that are down or failing are part of the scenario
+            }
+            fake.requests.set(0);
+        }
+        return new EndpointBalancer<>(clients, Duration.ofMillis(200), 3, Duration.ofMillis(50), Duration.ofSeconds(1),
+            error -> error instanceof UncheckedIOException, ticker);
+    }
+
+    private void callConcurrently(EndpointBalancer<FakeKeycloak> balancer, int calls) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>(calls);
+            for (int i = 0; i < calls; i++) {
+                results.add(callers.submit(() -> balancer.execute(true, endpoint -> get(endpoint.client()))));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private int get(FakeKeycloak node) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(node.baseUri.resolve("/admin/realms/aurora-stack")).build();
+            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status >= 500) {
+                throw new UncheckedIOException(new IOException("HTTP " + status));
+            }
+            return status;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private FakeKeycloak start(long delayMillis) throws IOException {
+        FakeKeycloak node = new FakeKeycloak(delayMillis);
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * Minimal stand-in for a Keycloak node: answers every admin request with a
+     * configurable status after a configurable delay.
+     */
+    private static final class FakeKeycloak {
+
+        final HttpServer server;
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final URI baseUri;
+        final AtomicInteger requests = new AtomicInteger();
+        volatile int status = 200;
+
+        FakeKeycloak(long delayMillis) throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(executor);
+            server.createContext("/", exchange -> {
+                requests.incrementAndGet();
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                exchange.sendResponseHeaders(status, -1);
+                exchange.close();
+            });
+            server.start();
+            baseUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+        }
+
+        void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.diagnostics.KeycloakCallEvent;
+import com.byteflowsivar.aurora.diagnostics.RateLimitRejectedEvent;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FlightRecordingServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private FlightRecordingService service;
+
+    @BeforeEach
+    public void setUp() {
+        service = new FlightRecordingService();
+        service.settings = "default";
+        service.maxAge = Duration.ofMinutes(5);
+        service.maxSizeMb = 16;
+        service.dumpPath = directory.toString();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    public void testDumpContainsKeycloakCalls() throws Exception {
+        service.start();
+
+        KeycloakCallEvent call = KeycloakCallEvent.begin("create_user", "aurora-stack");
+        Thread.sleep(5);
+        call.finish(201);
+        KeycloakCallEvent.begin("search_user", "tenant-a").fail(new IllegalStateException("sin respuesta"));
+        RateLimitRejectedEvent.emit("create_user", "IP=10.0.0.1");
+
+        Path file = service.dump();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        List<RecordedEvent> calls = events.stream()
+                .filter(event -> event.getEventType().getName().equals("aurora.KeycloakCall"))
+                .toList();
+        assertEquals(2, calls.size());
+        RecordedEvent create = calls.stream().filter(event -> event.getString("operation").equals("create_user")).findFirst().orElseThrow();
+        assertEquals("aurora-stack", create.getString("realm"));
+        assertEquals(201, create.getInt("status"));
+        assertTrue(create.getDuration().toMillis() >= 5);
+        RecordedEvent search = calls.stream().filter(event -> event.getString("operation").equals("search_user")).findFirst().orElseThrow();
+        assertEquals(0, search.getInt("status"));
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("aurora.RateLimitRejected")));
+        // The JDK profile is active too, so slow calls can be lined up with GC and lock events
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().startsWith("jdk.")));
+    }
+
+    @Test
+    public void testStoppedRecordingCanStillBeDumped() throws Exception {
+        assertNull(service.stop());
+        assertNull(service.dump());
+
+        service.start();
+        KeycloakCallEvent.begin("reset_password", "aurora-stack").finish(204);
+        assertEquals("STOPPED", service.stop().state());
+        assertNull(service.stop());
+
+        Path file = service.dump();
+        assertTrue(Files.size(file) > 0);
+        assertTrue(RecordingFile.readAllEvents(file).stream()
+                .anyMatch(event -> event.getEventType().getName().equals("aurora.KeycloakCall")));
+    }
+
+    @Test
+    public void testEventsAreNotRecordedWithoutRecording() throws Exception {
+        KeycloakCallEvent.begin("create_user", "aurora-stack").finish(201);
+
+        service.start();
+        Path file = service.dump();
+
+        assertTrue(RecordingFile.readAllEvents(file).stream()
+                .noneMatch(event -> event.getEventType().getName().equals("aurora.KeycloakCall")));
+    }
+}
@@ -0,0 +1,62 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+import jakarta.ws.rs.ProcessingException;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KeycloakClusterTest {
+
+    @Test
+    public void testReadTimeoutGetsTheOperationErrorCode() {
+        KeycloakServiceException wrapped = new KeycloakServiceException("Error inesperado", "INTERNAL_ERROR", 500,
+            new ProcessingException(new SocketTimeoutException("Read timed out")));
+
+        KeycloakServiceException error = KeycloakCluster.timeoutError("create_user", wrapped);
+
+        assertEquals("CREATE_USER_READ_TIMEOUT", error.getErrorCode());
+        assertEquals(504, error.getHttpStatus());
+        assertEquals("USER_EXISTS_READ_TIMEOUT",
+            KeycloakCluster.timeoutError("user_exists", new ProcessingException(new TimeoutException("timeout period exceeded"))).getErrorCode());
+    }
+
+    @Test
+    public void testConnectTimeoutIsToldApartFromRefusedConnections() {
+        KeycloakServiceException error = KeycloakCluster.timeoutError("user_exists",
+            new ProcessingException(new SocketTimeoutException("Connect timed out")));
+
+        assertEquals("USER_EXISTS_CONNECT_TIMEOUT", error.getErrorCode());
+        assertNull(KeycloakCluster.timeoutError("user_exists", new ProcessingException(new ConnectException("Connection refused"))));
+        assertNull(KeycloakCluster.timeoutError("user_exists", new KeycloakServiceException("El usuario ya existe", "USER_ALREADY_EXISTS", 409)));
+    }
+
+    @Test
+    public void testLocalLimitsAreNotANodeFailure() {
+        assertFalse(KeycloakCluster.isEndpointFailure(new KeycloakServiceException("Plazo agotado", "DEADLINE_EXCEEDED", 504)));
+        assertFalse(KeycloakCluster.isEndpointFailure(new KeycloakServiceException("Capacidad agotada", Bulkhead.BULKHEAD_FULL, 503)));
+        assertTrue(KeycloakCluster.isEndpointFailure(new KeycloakServiceException("Error", "USER_CREATION_FAILED", 502)));
+    }
+
+    @Test
+    public void testOperationsWithTheirOwnTimeoutsAreFoundInTheConfiguration() {
+        Set<String> operations = KeycloakCluster.operationsWithTimeouts(List.of(
+            "aurora.keycloak.timeouts.connect",
+            "aurora.keycloak.timeouts.read",
+            "aurora.keycloak.timeouts.create_user.read",
+            "%prod.aurora.keycloak.timeouts.import_users.connect",
+            "aurora.keycloak.timeouts.create_user.connect",
+            "aurora.keycloak.bulkhead.write.max-wait"));
+
+        assertEquals(Set.of("create_user", "import_users"), operations);
+    }
+}
@@ -0,0 +1,120 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.ProcessingException;
+import org.junit.jupiter.api.Test;
+import org.keycloak.admin.client.resource.RoleMappingResource;
+import org.keycloak.admin.client.resource.RoleScopeResource;
+import org.keycloak.admin.client.resource.UserResource;
+import org.keycloak.admin.client.resource.UsersResource;
+import org.keycloak.representations.idm.RoleRepresentation;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class KeycloakUserServiceTest {
+
+    private static final String USER_ID = "user-123";
+
+    private final FakeUser user = new FakeUser();
+    private final KeycloakUserService service = new KeycloakUserService();
+
+    public KeycloakUserServiceTest() {
+        service.roleGroupResolver = new RoleGroupResolver() {
+            @Override
+            public List<RoleRepresentation> resolveRealmRoles(String realm, Collection<String> names) {
+                return roles();
+            }
+
+            @Override
+            public void invalidate(String realm) {
+            }
+        };
+    }
+
+    @Test
+    public void testUserIsRemovedWhenTheRoleRetryFails() {
+        user.roleFailures.add(new NotFoundException("Role not found"));
+        user.roleFailures.add(new NotFoundException("Role not found"));
+
+        KeycloakServiceException error = assertThrows(KeycloakServiceException.class,
+            () -> service.assignRealmRoles("aurora-stack", user.users(), USER_ID, roles()));
+
+        assertEquals("ROLE_ASSIGNMENT_FAILED", error.getErrorCode());
+        assertEquals(2, user.roleCalls);
+        assertEquals(1, user.removals);
+    }
+
+    @Test
+    public void testUserIsRemovedWhenTheRolesCannotBeAssigned() {
+        user.roleFailures.add(new ProcessingException("Connection reset"));
+
+        KeycloakServiceException error = assertThrows(KeycloakServiceException.class,
+            () -> service.assignRealmRoles("aurora-stack", user.users(), USER_ID, roles()));
+
+        assertEquals("ROLE_ASSIGNMENT_FAILED", error.getErrorCode());
+        assertEquals(1, user.removals);
+    }
+
+    @Test
+    public void testUserIsKeptWhenTheRetryAssignsTheRoles() {
+        user.roleFailures.add(new NotFoundException("Role not found"));
+
+        service.assignRealmRoles("aurora-stack", user.users(), USER_ID, roles());
+
+        assertEquals(2, user.roleCalls);
+        assertEquals(0, user.removals);
+    }
+
+    private static List<RoleRepresentation> roles() {
+        RoleRepresentation role = new RoleRepresentation();
+        role.setName("viewer");
+        return List.of(role);
+    }
+
+    /**
+     * The admin resources of one freshly created user: role mappings fail with the
+     * queued errors, in order, and removals are counted.
+     */
+    private static final class FakeUser {
+
+        final Deque<RuntimeException> roleFailures = new ArrayDeque<>();
+        int roleCalls;
+        int removals;
+
+        UsersResource users() {
+            RoleScopeResource realmLevel = proxy(RoleScopeResource.class, (proxy, method, args) -> {
+                roleCalls++;
+                if (!roleFailures.isEmpty()) {
+                    throw roleFailures.poll();
+                }
+                return null;
+            });
+            RoleMappingResource roles = proxy(RoleMappingResource.class, (proxy, method, args) -> realmLevel);
+            UserResource user = proxy(UserResource.class, (proxy, method, args) -> switch (method.getName()) {
+                case "roles" -> roles;
+                case "remove" -> {
+                    removals++;
+                    yield null;
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+            return proxy(UsersResource.class, (proxy, method, args) -> {
+                assertEquals(USER_ID, args[0]);
+                return user;
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return type.cast(Proxy.newProxyInstance(FakeUser.class.getClassLoader(), new Class<?>[]{type}, handler));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.domain.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.representations.idm.RealmRepresentation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PasswordPolicyValidatorTest {
+
+    private static final User SHORT_PASSWORD = new User("juan.perez", "juan@example.com", "Juan", "Pérez", "S3cure!Pass", true);
+
+    private final SlowRealmCluster cluster = new SlowRealmCluster();
+    private final RealmRegistry registry = registry(cluster);
+    private final PasswordPolicyValidator validator = validator(registry);
+
+    @AfterEach
+    public void shutdown() {
+        cluster.release.countDown();
+        validator.shutdown();
+        registry.shutdown();
+    }
+
+    @Test
+    public void testUnknownPolicyIsLoadedWithoutHoldingTheRequest() throws Exception {
+        long start = System.nanoTime();
+        validator.validate("aurora-stack", SHORT_PASSWORD);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Accepted for now: Keycloak still enforces the policy when the password is set
+        assertTrue(elapsedMillis < 1_000, "La validación esperó " + elapsedMillis + " ms");
+        assertTrue(cluster.described.await(5, TimeUnit.SECONDS));
+        validator.validate("aurora-stack", SHORT_PASSWORD);
+        assertEquals(1, cluster.describeCalls.get());
+
+        cluster.release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!rejects(SHORT_PASSWORD)) {
+            assertTrue(System.nanoTime() < deadline, "La política no se cargó");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testPreloadedPolicyAppliesToTheFirstRequest() {
+        cluster.release.countDown();
+
+        validator.preload("aurora-stack");
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> validator.validate(null, SHORT_PASSWORD));
+        assertTrue(error.getMessage().contains("12"), error.getMessage());
+        assertEquals(1, cluster.describeCalls.get());
+    }
+
+    private boolean rejects(User user) {
+        try {
+            validator.validate("aurora-stack", user);
+            return false;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    private static RealmRegistry registry(KeycloakCluster cluster) {
+        RealmRegistry registry = new RealmRegistry();
+        registry.keycloakCluster = cluster;
+        registry.meterRegistry = new SimpleMeterRegistry();
+        registry.defaultRealm = "aurora-stack";
+        registry.allowedRealms = Optional.empty();
+        registry.allowedPattern = Optional.empty();
+        registry.maxCached = 10;
+        registry.maxConcurrentReads = 4;
+        registry.maxConcurrentWrites = 4;
+        registry.acquireTimeout = Duration.ofMillis(10);
+        registry.unhealthyAfterFailures = 3;
+        registry.healthProbeInterval = Duration.ofMinutes(5);
+        registry.init();
+        return registry;
+    }
+
+    private static PasswordPolicyValidator validator(RealmRegistry registry) {
+        PasswordPolicyValidator validator = new PasswordPolicyValidator();
+        validator.realmRegistry = registry;
+        validator.meterRegistry = new SimpleMeterRegistry();
+        validator.enabled = true;
+        validator.refreshInterval = Duration.ofMinutes(5);
+        validator.retryInterval = Duration.ofSeconds(10);
+        validator.init();
+        return validator;
+    }
+
+    /**
+     * Answers realm descriptions with a {@code length(12)} policy, but only once
+     * released, standing in for a slow Keycloak.
+     */
+    private static final class SlowRealmCluster extends KeycloakCluster {
+
+        final CountDownLatch described = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger describeCalls = new AtomicInteger();
+
+        @Override
+        public List<EndpointBalancer.Endpoint<Keycloak>> endpoints() {
+            return List.of();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(String operation, boolean idempotent, Function<EndpointBalancer.Endpoint<Keycloak>, T> call) {
+            describeCalls.incrementAndGet();
+            described.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            RealmRepresentation realm = new RealmRepresentation();
+            realm.setPasswordPolicy("length(12)");
+            return (T) realm;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.admin.client.Keycloak;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RealmHandleTest {
+
+    private final BlockingCluster cluster = new BlockingCluster();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void release() {
+        cluster.release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testCallsBeyondTheRealmBudgetAreRejected() throws Exception {
+        RealmHandle handle = handle(2, 2);
+        List<Future<String>> blocked = List.of(
+            executor.submit(() -> handle.execute("create_user", false, clients -> null)),
+            executor.submit(() -> handle.execute("create_user", false, clients -> null)));
+        assertTrue(cluster.entered.await(5, TimeUnit.SECONDS));
+
+        KeycloakServiceException error = assertThrows(KeycloakServiceException.class,
+            () -> handle.execute("create_user", false, clients -> null));
+
+        assertEquals("REALM_CONCURRENCY_LIMIT", error.getErrorCode());
+        assertEquals(429, error.getHttpStatus());
+        cluster.release.countDown();
+        for (Future<String> call : blocked) {
+            assertEquals("create_user", call.get(5, TimeUnit.SECONDS));
+        }
+        // Permits are returned once the calls finish
+        assertEquals("create_user", handle.execute("create_user", false, clients -> null));
+    }
+
+    @Test
+    public void testReadsAreAdmittedWhileWritesAreSaturated() throws Exception {
+        RealmHandle handle = handle(4, 2);
+        executor.submit(() -> handle.execute("create_user", false, clients -> null));
+        executor.submit(() -> handle.execute("create_user", false, clients -> null));
+        assertTrue(cluster.entered.await(5, TimeUnit.SECONDS));
+        assertThrows(KeycloakServiceException.class, () -> handle.execute("create_user", false, clients -> null));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("user_exists", handle.execute("user_exists", true, clients -> null));
+        }
+    }
+
+    private RealmHandle handle(int maxConcurrentReads, int maxConcurrentWrites) {
+        return new RealmHandle("tenant-a", cluster, maxConcurrentReads, maxConcurrentWrites,
+            TimeUnit.MILLISECONDS.toNanos(20), 3, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Holds every write until released, standing in for a slow Keycloak. Calls never
+     * reach a node; the result is the operation name.
+     */
+    static final class BlockingCluster extends KeycloakCluster {
+
+        final CountDownLatch entered = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public List<EndpointBalancer.Endpoint<Keycloak>> endpoints() {
+            return List.of();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(String operation, boolean idempotent, Function<EndpointBalancer.Endpoint<Keycloak>, T> call) {
+            if (!idempotent) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return (T) operation;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.admin.client.Keycloak;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RealmRegistryTest {
+
+    private RealmRegistry registry;
+
+    @AfterEach
+    public void shutdown() {
+        if (registry != null) {
+            registry.shutdown();
+        }
+    }
+
+    @Test
+    public void testDefaultRealmIsServedWithoutAllowlist() {
+        registry = registry(Optional.empty(), Optional.empty(), 10);
+
+        assertEquals("aurora-stack", registry.resolve(null).name());
+        assertSame(registry.resolve(null), registry.resolve(" aurora-stack "));
+        assertUnknown("tenant-a");
+    }
+
+    @Test
+    public void testAllowlistAndPatternSelectTheServedRealms() {
+        registry = registry(Optional.of(List.of("tenant-a")), Optional.of("tenant-[0-9]+"), 10);
+
+        assertEquals("tenant-a", registry.resolve("tenant-a").name());
+        assertEquals("tenant-42", registry.resolve("tenant-42").name());
+        assertUnknown("tenant-b");
+        // Names Keycloak would not accept never reach the pattern
+        assertUnknown("tenant-1/../master");
+        // Only named realms can be known ahead of the first request
+        assertEquals(List.of("aurora-stack", "tenant-a"), registry.configuredRealms());
+    }
+
+    @Test
+    public void testRealmsBeyondMaxCachedAreRejected() {
+        registry = registry(Optional.empty(), Optional.of("tenant-.+"), 2);
+        registry.resolve("tenant-a");
+        registry.resolve("tenant-b");
+
+        KeycloakServiceException error = assertThrows(KeycloakServiceException.class, () -> registry.resolve("tenant-c"));
+
+        assertEquals("REALM_CAPACITY_EXCEEDED", error.getErrorCode());
+        assertEquals(503, error.getHttpStatus());
+        // Realms already registered keep working
+        assertEquals("tenant-a", registry.resolve("tenant-a").name());
+    }
+
+    private void assertUnknown(String realm) {
+        KeycloakServiceException error = assertThrows(KeycloakServiceException.class, () -> registry.resolve(realm));
+        assertEquals("UNKNOWN_REALM", error.getErrorCode());
+        assertEquals(404, error.getHttpStatus());
+    }
+
+    private static RealmRegistry registry(Optional<List<String>> allowed, Optional<String> pattern, int maxCached) {
+        RealmRegistry registry = new RealmRegistry();
+        registry.keycloakCluster = new KeycloakCluster() {
+            @Override
+            public List<EndpointBalancer.Endpoint<Keycloak>> endpoints() {
+                return List.of();
+            }
+        };
+        registry.meterRegistry = new SimpleMeterRegistry();
+        registry.defaultRealm = "aurora-stack";
+        registry.allowedRealms = allowed;
+        registry.allowedPattern = pattern;
+        registry.maxCached = maxCached;
+        registry.maxConcurrentReads = 4;
+        registry.maxConcurrentWrites = 4;
+        registry.acquireTimeout = Duration.ofMillis(10);
+        registry.unhealthyAfterFailures = 3;
+        registry.healthProbeInterval = Duration.ofMinutes(5);
+        registry.init();
+        return registry;
+    }
+}
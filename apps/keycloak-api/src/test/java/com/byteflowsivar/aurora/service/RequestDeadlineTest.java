@@ -0,0 +1,61 @@
+package com.byteflowsivar.aurora.service;
+
+import com.byteflowsivar.aurora.exception.KeycloakServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestDeadlineTest {
+
+    @AfterEach
+    public void clear() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    public void testExpiredDeadlineStopsTheNextCall() {
+        RequestDeadline.bind(RequestDeadline.after(System.nanoTime() - Duration.ofSeconds(3).toNanos(), Duration.ofSeconds(2)));
+
+        KeycloakServiceException error = assertThrows(KeycloakServiceException.class,
+            () -> RequestDeadline.checkCurrent("create_user"));
+
+        assertEquals("DEADLINE_EXCEEDED", error.getErrorCode());
+        assertEquals(504, error.getHttpStatus());
+        assertTrue(error.getMessage().contains("create_user"));
+    }
+
+    @Test
+    public void testCallsWithoutDeadlineAreNotLimited() {
+        assertNull(RequestDeadline.current());
+        RequestDeadline.checkCurrent("create_user");
+
+        RequestDeadline deadline = RequestDeadline.after(System.nanoTime(), Duration.ofSeconds(2));
+        assertFalse(deadline.isExpired());
+        assertTrue(deadline.remainingNanos() > Duration.ofSeconds(1).toNanos());
+    }
+
+    @Test
+    public void testDeadlineIsCarriedToOtherThreads() throws Exception {
+        RequestDeadline deadline = RequestDeadline.after(System.nanoTime(), Duration.ofSeconds(2));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            RequestDeadline seen = executor.submit(() -> RequestDeadline.callWithin(deadline, RequestDeadline::current)).get();
+            RequestDeadline after = executor.submit(RequestDeadline::current).get();
+
+            assertSame(deadline, seen);
+            assertNull(after);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
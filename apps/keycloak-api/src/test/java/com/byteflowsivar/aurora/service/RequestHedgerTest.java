@@ -0,0 +1,162 @@
+package com.byteflowsivar.aurora.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestHedgerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testFastCallsAreNotHedged() {
+        RequestHedger hedger = hedger(5, 10);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("ok", hedger.execute("user_exists", hedge -> "ok"));
+        }
+
+        assertEquals(100, hedger.stats("user_exists").calls());
+        assertEquals(0, hedger.stats("user_exists").hedges());
+    }
+
+    @Test
+    public void testStalledCallIsAnsweredByTheBackup() throws Exception {
+        RequestHedger hedger = hedger(5, 10);
+        CountDownLatch primaryCancelled = new CountDownLatch(1);
+
+        long start = System.nanoTime();
+        String result = hedger.execute("user_exists", hedge -> {
+            if (hedge) {
+                return "backup";
+            }
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                primaryCancelled.countDown();
+            }
+            return "primary";
+        });
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("backup", result);
+        assertTrue(elapsedMillis < 1_000, "La respuesta tardó " + elapsedMillis + " ms");
+        assertTrue(primaryCancelled.await(1, TimeUnit.SECONDS));
+        assertEquals(1, hedger.stats("user_exists").hedges());
+        assertEquals(1, hedger.stats("user_exists").hedgeWins());
+    }
+
+    @Test
+    public void testBudgetCapsTheExtraLoad() {
+        RequestHedger hedger = hedger(5, 1);
+
+        for (int i = 0; i < 200; i++) {
+            hedger.execute("user_exists", hedge -> {
+                if (!hedge) {
+                    sleep(60);
+                }
+                return "ok";
+            });
+        }
+
+        long hedges = hedger.stats("user_exists").hedges();
+        assertTrue(hedges >= 5 && hedges <= 1 + 200 * 5 / 100, "Backups enviados: " + hedges);
+    }
+
+    @Test
+    public void testBackupCoversAFailedPrimary() {
+        RequestHedger hedger = hedger(5, 10);
+
+        String result = hedger.execute("user_exists", hedge -> {
+            if (hedge) {
+                sleep(20);
+                return "backup";
+            }
+            sleep(80);
+            throw new IllegalStateException("nodo caído");
+        });
+
+        assertEquals("backup", result);
+    }
+
+    @Test
+    public void testFailureIsRethrownWhenEveryAttemptFails() {
+        RequestHedger hedger = hedger(5, 10);
+        AtomicBoolean backupRan = new AtomicBoolean();
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> hedger.execute("user_exists", hedge -> {
+            if (hedge) {
+                backupRan.set(true);
+                throw new IllegalStateException("backup");
+            }
+            sleep(80);
+            throw new IllegalStateException("primary");
+        }));
+
+        assertTrue(backupRan.get());
+        assertTrue(error.getMessage().equals("primary") || error.getMessage().equals("backup"));
+    }
+
+    @Test
+    public void testDelayFollowsObservedLatency() {
+        RequestHedger hedger = new RequestHedger(executor, 0.95, Duration.ofMillis(1), Duration.ofSeconds(1), 5, 10);
+        assertEquals(1_000.0, hedger.delayMillis("user_exists"));
+
+        for (int i = 0; i < 128; i++) {
+            hedger.execute("user_exists", hedge -> {
+                sleep(5);
+                return "ok";
+            });
+        }
+
+        double delay = hedger.delayMillis("user_exists");
+        assertTrue(delay >= 5 && delay < 100, "Retardo de hedge: " + delay);
+    }
+
+    @Test
+    public void testDelayHoldsUnderBimodalLatency() {
+        // The budget never runs out here, so only the delay decides how many calls are hedged
+        RequestHedger hedger = new RequestHedger(executor, 0.95, Duration.ofMillis(1), Duration.ofMillis(20), 100, 1_000);
+
+        for (int i = 0; i < 320; i++) {
+            boolean slow = i % 10 == 0;
+            hedger.execute("user_exists", hedge -> {
+                sleep(slow && !hedge ? 100 : 2);
+                return "ok";
+            });
+        }
+
+        // A hedged call still took the delay plus the backup, so the slow tenth keeps the quantile up
+        double delay = hedger.delayMillis("user_exists");
+        long hedges = hedger.stats("user_exists").hedges();
+        assertTrue(delay >= 15, "Retardo de hedge: " + delay);
+        assertTrue(hedges <= 320 / 5, "Backups enviados: " + hedges);
+    }
+
+    private RequestHedger hedger(double budgetPercent, int maxBurst) {
+        return new RequestHedger(executor, 0.95, Duration.ofMillis(10), Duration.ofMillis(30), budgetPercent, maxBurst);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.byteflowsivar.aurora.storage;
+
+import com.byteflowsivar.aurora.storage.AuditEventStore.AuditEvent;
+import com.byteflowsivar.aurora.storage.AuditEventStore.AuditQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuditEventStoreTest {
+
+    private static final long BASE = 1_700_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testQueryByTimeRangeTypeAndIp() throws Exception {
+        try (AuditEventStore store = new AuditEventStore(directory, 64 * 1024, 16)) {
+            appendSample(store, 1000);
+
+            List<AuditEvent> inRange = store.query(new AuditQuery(BASE + 100_000, BASE + 199_999, null, null, 10_000));
+            assertEquals(100, inRange.size());
+
+            List<AuditEvent> rateLimited = store.query(new AuditQuery(BASE, BASE + 1_000_000, "RATE_LIMIT_EXCEEDED", null, 10_000));
+            assertEquals(100, rateLimited.size());
+            assertTrue(rateLimited.stream().allMatch(event -> event.eventType().equals("RATE_LIMIT_EXCEEDED")));
+
+            List<AuditEvent> byIp = store.query(new AuditQuery(BASE, BASE + 1_000_000, null, "10.0.0.7", 10_000));
+            assertEquals(50, byIp.size());
+            assertTrue(byIp.stream().allMatch(event -> event.clientIp().equals("10.0.0.7")));
+        }
+    }
+
+    @Test
+    public void testIndexSurvivesRestart() throws Exception {
+        try (AuditEventStore store = new AuditEventStore(directory, 64 * 1024, 16)) {
+            appendSample(store, 1000);
+        }
+
+        try (AuditEventStore store = new AuditEventStore(directory, 64 * 1024, 16)) {
+            List<AuditEvent> events = store.query(new AuditQuery(BASE, BASE + 1_000_000, "RATE_LIMIT_EXCEEDED", "10.0.0.10", 10_000));
+            assertEquals(50, events.size());
+            assertEquals("RATE_LIMIT_EXCEEDED", events.get(0).eventType());
+        }
+    }
+
+    @Test
+    public void testRetentionDropsOldestSegments() throws Exception {
+        try (AuditEventStore store = new AuditEventStore(directory, 16 * 1024, 16)) {
+            appendSample(store, 1000);
+
+            int deleted = store.enforceRetention(Long.MAX_VALUE, BASE + 500_000);
+            assertTrue(deleted > 0);
+
+            List<AuditEvent> remaining = store.query(new AuditQuery(0, Long.MAX_VALUE, null, null, 10_000));
+            assertTrue(remaining.size() < 1000);
+            assertEquals(BASE + 999_000, remaining.get(remaining.size() - 1).timestampMillis());
+        }
+    }
+
+    private static void appendSample(AuditEventStore store, int count) {
+        for (int i = 0; i < count; i++) {
+            String type = i % 10 == 0 ? "RATE_LIMIT_EXCEEDED" : "USER_EXISTENCE_CHECK";
+            String ip = "10.0.0." + (i % 20);
+            store.append(new AuditEvent(BASE + i * 1000L, type, ip, Map.of("client_info", "\"IP=" + ip + " UA=test\"")));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.byteflowsivar.aurora.storage;
+
+import com.byteflowsivar.aurora.storage.AuditEventStore.AuditEvent;
+import com.byteflowsivar.aurora.storage.AuditSpillLog.Entry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AuditSpillLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testSpilledEventsAreReplayedInOrder() throws Exception {
+        try (AuditSpillLog spill = new AuditSpillLog(directory, 1024 * 1024)) {
+            spill.appendAll(List.of(event(1, "USER_CREATION_ATTEMPT"), event(2, "USER_CREATION_SUCCESS")));
+            spill.append(event(3, "RATE_LIMIT_EXCEEDED"));
+
+            List<Entry> batch = spill.readPending(2);
+
+            assertEquals(2, batch.size());
+            assertEquals(event(1, "USER_CREATION_ATTEMPT"), batch.get(0).event());
+            assertEquals("USER_CREATION_SUCCESS", batch.get(1).event().eventType());
+            assertEquals(3, spill.pending());
+        }
+    }
+
+    @Test
+    public void testCommittedEventsSurviveRestartAsReplayed() throws Exception {
+        try (AuditSpillLog spill = new AuditSpillLog(directory, 1024 * 1024)) {
+            for (int i = 0; i < 5; i++) {
+                spill.append(event(i, "USER_EXISTENCE_CHECK"));
+            }
+            List<Entry> batch = spill.readPending(3);
+            spill.commit(batch.get(2), 3);
+        }
+
+        try (AuditSpillLog reopened = new AuditSpillLog(directory, 1024 * 1024)) {
+            List<Entry> remaining = reopened.readPending(10);
+
+            assertEquals(2, reopened.pending());
+            assertEquals(2, remaining.size());
+            assertEquals(3, remaining.get(0).event().timestampMillis());
+        }
+    }
+
+    @Test
+    public void testReplayedSegmentsAreDeleted() throws Exception {
+        try (AuditSpillLog spill = new AuditSpillLog(directory, 4096)) {
+            for (int i = 0; i < 200; i++) {
+                spill.append(event(i, "USER_EXISTENCE_CHECK"));
+            }
+            long before = spill.sizeBound();
+            List<Entry> all = spill.readPending(200);
+            spill.commit(all.get(all.size() - 1), all.size());
+
+            assertEquals(0, spill.pending());
+            assertTrue(spill.sizeBound() < before);
+        }
+    }
+
+    private static AuditEvent event(long timestamp, String eventType) {
+        return new AuditEvent(timestamp, eventType, "10.0.0.1", Map.of("client_info", "IP=10.0.0.1"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.byteflowsivar.aurora.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BreachedPasswordIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testFindsBreachedPasswords() throws Exception {
+        Path file = buildIndex(20, 5000);
+        BreachedPasswordIndex index = BreachedPasswordIndex.open(file);
+
+        assertEquals(5000, index.count());
+        assertTrue(index.contains(sha1("Breached!Pass0")));
+        assertTrue(index.contains(sha1("Breached!Pass2500")));
+        assertTrue(index.contains(sha1("Breached!Pass4999")));
+        assertFalse(index.contains(sha1("S3cure!Unique")));
+        assertFalse(index.contains(sha1("Breached!Pass5000")));
+    }
+
+    @Test
+    public void testTruncatedHashes() throws Exception {
+        Path file = buildIndex(10, 5000);
+        BreachedPasswordIndex index = BreachedPasswordIndex.open(file);
+
+        assertEquals(10, index.hashLength());
+        assertTrue(index.contains(sha1("Breached!Pass1234")));
+        assertFalse(index.contains(sha1("S3cure!Unique")));
+    }
+
+    @Test
+    public void testRejectsUnsortedInput() throws Exception {
+        Path input = directory.resolve("unsorted.txt");
+        Files.writeString(input, "FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFF:1\n0000000000000000000000000000000000000000:1\n");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> BreachedPasswordFileBuilder.build(input, directory.resolve("out.bin"), 20));
+    }
+
+    @Test
+    public void testRejectsInvalidFile() throws Exception {
+        Path file = directory.resolve("invalid.bin");
+        Files.write(file, new byte[64]);
+
+        assertThrows(IOException.class, () -> BreachedPasswordIndex.open(file));
+    }
+
+    private Path buildIndex(int hashLength, int count) throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add(HexFormat.of().withUpperCase().formatHex(sha1("Breached!Pass" + i)) + ":" + (i + 1));
+        }
+        lines.sort(null);
+        Path input = directory.resolve("hashes.txt");
+        Files.write(input, lines);
+
+        Path output = directory.resolve("breached.bin");
+        BreachedPasswordFileBuilder.build(input, output, hashLength);
+        return output;
+    }
+
+    private static byte[] sha1(String password) throws Exception {
+        return MessageDigest.getInstance("SHA-1").digest(password.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,56 @@
+package com.byteflowsivar.aurora.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DomainSuffixTrieTest {
+
+    @Test
+    public void testExactAndWildcardRules() {
+        DomainSuffixTrie trie = DomainSuffixTrie.of(List.of("mailinator.com", "*.mailinator.com", "*.tempmail.io", "guerrillamail.com"));
+
+        assertTrue(trie.matches("user@mailinator.com", 5));
+        assertTrue(trie.matches("user@inbox.mailinator.com", 5));
+        assertTrue(trie.matches("user@a.b.tempmail.io", 5));
+        assertFalse(trie.matches("user@tempmail.io", 5));
+        assertTrue(trie.matches("user@guerrillamail.com", 5));
+        assertFalse(trie.matches("user@sub.guerrillamail.com", 5));
+        assertFalse(trie.matches("user@notmailinator.com", 5));
+        assertFalse(trie.matches("user@example.com", 5));
+    }
+
+    @Test
+    public void testMatchingIsCaseInsensitive() {
+        DomainSuffixTrie trie = DomainSuffixTrie.of(List.of("Mailinator.COM"));
+
+        assertTrue(trie.matches("user@MAILINATOR.com", 5));
+    }
+
+    @Test
+    public void testSharedSuffixes() {
+        List<String> rules = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            rules.add("throwaway" + i + ".com");
+            rules.add("*.spam" + i + ".net");
+        }
+        DomainSuffixTrie trie = DomainSuffixTrie.of(rules);
+
+        assertEquals(20_000, trie.size());
+        assertTrue(trie.matches("throwaway1234.com", 0));
+        assertTrue(trie.matches("x.spam9999.net", 0));
+        assertFalse(trie.matches("spam9999.net", 0));
+        assertFalse(trie.matches("throwaway10000.com", 0));
+        assertFalse(trie.matches("hrowaway1234.com", 0));
+    }
+
+    @Test
+    public void testEmptyTrie() {
+        assertFalse(DomainSuffixTrie.empty().matches("user@example.com", 5));
+    }
+}
@@ -0,0 +1,118 @@
+package com.byteflowsivar.aurora.storage;
+
+import com.byteflowsivar.aurora.domain.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserCreationJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testReplayRestoresSubmittedAndTerminalRecords() throws Exception {
+        try (UserCreationJournal journal = new UserCreationJournal(directory, 1024 * 1024, "secret", true)) {
+            journal.appendSubmitted("job-1", Instant.now(), newUser("pending.user"), "IP=10.0.0.1");
+            journal.appendSubmitted("job-2", Instant.now(), new User("done.user", "done.user@example.com", "Test", "User",
+                "S3cure!Pass", true, List.of("customer"), List.of("/clientes/premium")), "IP=10.0.0.2", "tenant-a");
+            journal.appendCompleted("job-2", "kc-id-2", 1);
+        }
+
+        List<String> submitted = new ArrayList<>();
+        List<String> completed = new ArrayList<>();
+        try (UserCreationJournal journal = new UserCreationJournal(directory, 1024 * 1024, "secret", true)) {
+            journal.replay(new UserCreationJournal.ReplayHandler() {
+                @Override
+                public void onSubmitted(long position, String jobId, Instant submittedAt, User user, String clientInfo, String realm) {
+                    submitted.add(jobId + ":" + user.getUsername() + ":" + user.getPasswordForAuthentication() + ":" + clientInfo
+                        + ":" + user.getRealmRoles() + ":" + user.getGroups() + ":" + realm);
+                }
+
+                @Override
+                public void onCompleted(String jobId, Instant completedAt, int attempts, String userId) {
+                    completed.add(jobId + ":" + userId);
+                }
+
+                @Override
+                public void onFailed(String jobId, Instant failedAt, int attempts, String errorCode, String errorMessage) {
+                }
+            });
+        }
+
+        assertEquals(List.of(
+            "job-1:pending.user:S3cure!Pass:IP=10.0.0.1:[]:[]:null",
+            "job-2:done.user:S3cure!Pass:IP=10.0.0.2:[customer]:[/clientes/premium]:tenant-a"), submitted);
+        assertEquals(List.of("job-2:kc-id-2"), completed);
+    }
+
+    @Test
+    public void testPasswordIsNotStoredInClearText() throws Exception {
+        try (UserCreationJournal journal = new UserCreationJournal(directory, 1024 * 1024, "secret", true)) {
+            journal.appendSubmitted("job-1", Instant.now(), newUser("someone"), "IP=10.0.0.1");
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+                assertFalse(content.contains("S3cure!Pass"));
+            }
+        }
+    }
+
+    @Test
+    public void testReplayWithWrongKeyFails() throws Exception {
+        try (UserCreationJournal journal = new UserCreationJournal(directory, 1024 * 1024, "secret", true)) {
+            journal.appendSubmitted("job-1", Instant.now(), newUser("someone"), "IP=10.0.0.1");
+        }
+
+        try (UserCreationJournal journal = new UserCreationJournal(directory, 1024 * 1024, "other-secret", true)) {
+            assertThrows(IllegalStateException.class, () -> journal.replay(new UserCreationJournal.ReplayHandler() {
+                @Override
+                public void onSubmitted(long position, String jobId, Instant submittedAt, User user, String clientInfo, String realm) {
+                }
+
+                @Override
+                public void onCompleted(String jobId, Instant completedAt, int attempts, String userId) {
+                }
+
+                @Override
+                public void onFailed(String jobId, Instant failedAt, int attempts, String errorCode, String errorMessage) {
+                }
+            }));
+        }
+    }
+
+    @Test
+    public void testSegmentsRollWhenFull() throws Exception {
+        try (SegmentedLog log = new SegmentedLog(directory, "test", 256)) {
+            for (int i = 0; i < 20; i++) {
+                log.append(("record-" + i).getBytes(StandardCharsets.UTF_8));
+            }
+            assertTrue(log.segmentIds().size() > 1);
+        }
+
+        List<String> records = new ArrayList<>();
+        try (SegmentedLog log = new SegmentedLog(directory, "test", 256)) {
+            log.forEach((position, payload) -> records.add(new String(payload, StandardCharsets.UTF_8)));
+        }
+        assertEquals(20, records.size());
+        assertEquals("record-19", records.get(19));
+    }
+
+    private static User newUser(String username) {
+        return new User(username, username + "@example.com", "Test", "User", "S3cure!Pass", true);
+    }
+}
@@ -0,0 +1,106 @@
+package com.byteflowsivar.aurora.storage;
+
+import com.byteflowsivar.aurora.storage.UserEventOutbox.Entry;
+import com.byteflowsivar.aurora.storage.UserEventOutbox.UserCreatedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserEventOutboxTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testPendingEventsAreReadInAppendOrder() throws Exception {
+        try (UserEventOutbox outbox = new UserEventOutbox(directory, 1024 * 1024)) {
+            UserCreatedEvent first = event("ana");
+            outbox.append(first);
+            outbox.append(new UserCreatedEvent(UUID.randomUUID(), Instant.now(), "tenant-a", "kc-2", "luis", null));
+            outbox.append(event("marta"));
+
+            List<Entry> batch = outbox.readPending(2);
+
+            assertEquals(2, batch.size());
+            assertEquals(first, batch.get(0).event());
+            assertEquals("luis", batch.get(1).event().username());
+            assertNull(batch.get(1).event().email());
+            assertEquals(3, outbox.pending());
+        }
+    }
+
+    @Test
+    public void testCommittedEventsAreNotReadAgain() throws Exception {
+        try (UserEventOutbox outbox = new UserEventOutbox(directory, 1024 * 1024)) {
+            for (int i = 0; i < 5; i++) {
+                outbox.append(event("user" + i));
+            }
+
+            List<Entry> batch = outbox.readPending(3);
+            outbox.commit(batch.get(2), 3);
+
+            List<Entry> rest = outbox.readPending(10);
+            assertEquals(2, rest.size());
+            assertEquals("user3", rest.get(0).event().username());
+            assertEquals(2, outbox.pending());
+        }
+    }
+
+    @Test
+    public void testUncommittedEventsSurviveRestart() throws Exception {
+        try (UserEventOutbox outbox = new UserEventOutbox(directory, 1024 * 1024)) {
+            for (int i = 0; i < 4; i++) {
+                outbox.append(event("user" + i));
+            }
+            outbox.commit(outbox.readPending(1).get(0), 1);
+        }
+
+        try (UserEventOutbox outbox = new UserEventOutbox(directory, 1024 * 1024)) {
+            assertEquals(3, outbox.pending());
+            List<Entry> pending = outbox.readPending(10);
+            assertEquals(List.of("user1", "user2", "user3"), pending.stream().map(e -> e.event().username()).toList());
+        }
+    }
+
+    @Test
+    public void testPublishedSegmentsAreDeleted() throws Exception {
+        try (UserEventOutbox outbox = new UserEventOutbox(directory, 512)) {
+            for (int i = 0; i < 40; i++) {
+                outbox.append(event("user" + i));
+            }
+            assertTrue(segmentCount() > 3);
+
+            List<Entry> all = outbox.readPending(100);
+            assertEquals(40, all.size());
+            outbox.commit(all.get(all.size() - 1), all.size());
+
+            assertEquals(0, outbox.pending());
+            assertEquals(1, segmentCount());
+            assertTrue(outbox.readPending(10).isEmpty());
+
+            outbox.append(event("after"));
+            assertEquals("after", outbox.readPending(10).get(0).event().username());
+        }
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg")).count();
+        }
+    }
+
+    private static UserCreatedEvent event(String username) {
+        return new UserCreatedEvent(UUID.randomUUID(), Instant.ofEpochMilli(System.currentTimeMillis()), "aurora-stack",
+            "kc-" + username, username, username + "@example.com");
+    }
+}